@@ -1,21 +1,59 @@
-import entidades.Empleado;
-import entidades.EnpleadoDePlanta;
-import entidades.HomeSolution;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import javax.management.JMException;
+
+import entidades.GrabadorSesion;
+import entidades.HomeSolutionInstrumentada;
+import entidades.HomeSolutionPersistente;
+import entidades.IHomeSolution;
 import gui.PanelManager;
 
 //TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
 // click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
 public class Main {
-    public static void main(String[] args) {
-        HomeSolution homeSolution=new HomeSolution();
-        String titulos[]={"Pintar","Instacion electrica","Trabajos jardineria","Instalar AA"};
-        String descripciones[]={"","","",""};
-        double duracion[]={4,2,1,.5};
-        String cliente[]={"Pedro Gomez","",""};
-        homeSolution.registrarProyecto(titulos,descripciones,duracion,"San Martin 1000",cliente,"2025-11-01","2025-11-05");
-        homeSolution.registrarEmpleado("Juan",15000);
-        homeSolution.registrarEmpleado("Luis",80000, "EXPERTO");
-        homeSolution.registrarEmpleado("Julieta",15000);
-        PanelManager panelManager=new PanelManager(homeSolution);
+    public static void main(String[] args) throws IOException, JMException {
+        // El estado se guarda en el diario; los datos de ejemplo solo se cargan la primera vez
+        HomeSolutionPersistente homeSolution=new HomeSolutionPersistente(Paths.get("homesolution.diario"));
+        if (homeSolution.empleados().isEmpty()) {
+            String titulos[]={"Pintar","Instacion electrica","Trabajos jardineria","Instalar AA"};
+            String descripciones[]={"","","",""};
+            double duracion[]={4,2,1,.5};
+            String cliente[]={"Pedro Gomez","",""};
+            homeSolution.registrarProyecto(titulos,descripciones,duracion,"San Martin 1000",cliente,"2025-11-01","2025-11-05");
+            homeSolution.registrarEmpleado("Juan",15000);
+            homeSolution.registrarEmpleado("Luis",80000, "EXPERTO");
+            homeSolution.registrarEmpleado("Julieta",15000);
+        }
+        // Al salir se guarda una instantánea, así el próximo arranque no relee todo el diario
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                homeSolution.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }));
+        // Con -Dhomesolution.metricas se miden las latencias de cada operación (por JMX y al salir)
+        IHomeSolution sistema=homeSolution;
+        if (Boolean.getBoolean("homesolution.metricas")) {
+            HomeSolutionInstrumentada instrumentada=new HomeSolutionInstrumentada(homeSolution);
+            instrumentada.registrarEnJmx();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.print(instrumentada.getVolcado())));
+            sistema=instrumentada;
+        }
+        // Con -Dhomesolution.traza=archivo se graban las llamadas de la sesión para reproducirlas después
+        String traza=System.getProperty("homesolution.traza");
+        if (traza!=null) {
+            GrabadorSesion grabador=new GrabadorSesion(sistema, Paths.get(traza));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    grabador.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+            sistema=grabador;
+        }
+        PanelManager panelManager=new PanelManager(sistema);
         }
     }
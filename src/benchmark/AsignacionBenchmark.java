@@ -0,0 +1,47 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import entidades.AsignacionOptima;
+import entidades.Empleado;
+import entidades.EmpleadoContratado;
+import entidades.EmpleadoPlanta;
+import entidades.Tarea;
+
+/**
+ * Tiempo de AsignacionOptima para una matriz de N tareas x N empleados
+ * (mitad de planta, mitad contratados, duraciones al azar).
+ * Ejecutar con: java benchmark.AsignacionBenchmark [N]   (por defecto 2000)
+ */
+public class AsignacionBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Random random = new Random(42);
+        List<Tarea> tareas = new ArrayList<>(n);
+        List<Empleado> empleados = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            tareas.add(new Tarea("Tarea " + i, "", 0.5 + random.nextInt(40) / 2.0));
+            if (i % 2 == 0)
+                empleados.add(new EmpleadoPlanta("Planta " + i, i, 20000 + random.nextInt(60000), "TECNICO"));
+            else
+                empleados.add(new EmpleadoContratado("Contratado " + i, i, 2000 + random.nextInt(8000)));
+        }
+
+        for (int ronda = 1; ronda <= 3; ronda++) {
+            long inicio = System.nanoTime();
+            AsignacionOptima asignacion = new AsignacionOptima(tareas, empleados, 10000);
+            long armado = System.nanoTime() - inicio;
+            int[] elegido = asignacion.resolver();
+            long total = System.nanoTime() - inicio;
+
+            double costo = 0;
+            for (int i = 0; i < n; i++) {
+                costo += empleados.get(elegido[i]).calcularPago(tareas.get(i).obtenerDuracion());
+            }
+            System.out.printf("Ronda %d, %dx%d: matriz %.1f ms, total %.1f ms, costo %.2f%n",
+                    ronda, n, n, armado / 1e6, total / 1e6, costo);
+        }
+    }
+}
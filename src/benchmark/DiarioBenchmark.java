@@ -0,0 +1,53 @@
+package benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import entidades.HomeSolutionPersistente;
+
+/**
+ * Operaciones por segundo de HomeSolutionPersistente con varios hilos que esperan
+ * el fsync (las ráfagas comparten el force del diario) y tiempo de reconstruir el
+ * estado releyendo el diario (sin checkpoints automáticos, para medir el diario entero).
+ * Ejecutar con: java benchmark.DiarioBenchmark [hilos] [operaciones por hilo]
+ */
+public class DiarioBenchmark {
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int porHilo = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        Path archivo = Files.createTempFile("homesolution", ".diario");
+
+        HomeSolutionPersistente sistema = new HomeSolutionPersistente(archivo, true, 0);
+        for (int i = 0; i < hilos; i++) {
+            sistema.registrarEmpleado("Empleado " + i, 1000 + i);
+        }
+        Thread[] trabajadores = new Thread[hilos];
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            int legajo = h + 1;
+            trabajadores[h] = new Thread(() -> {
+                for (int i = 0; i < porHilo; i++) {
+                    sistema.modificarValorEmpleado(legajo, 1000 + i);
+                }
+            });
+            trabajadores[h].start();
+        }
+        for (Thread t : trabajadores) {
+            t.join();
+        }
+        long escritura = System.nanoTime() - inicio;
+        sistema.close();
+
+        long total = (long) hilos * porHilo;
+        System.out.printf("%,d operaciones durables con %d hilos: %.1f ms, %,.0f op/s, diario de %,d bytes%n",
+                total, hilos, escritura / 1e6, total / (escritura / 1e9), Files.size(archivo));
+
+        inicio = System.nanoTime();
+        HomeSolutionPersistente reabierto = new HomeSolutionPersistente(archivo, true, 0);
+        long lectura = System.nanoTime() - inicio;
+        System.out.printf("Reconstrucción desde el diario: %.1f ms (%,.0f registros/s)%n",
+                lectura / 1e6, (total + hilos) / (lectura / 1e9));
+        reabierto.close();
+        Files.delete(archivo);
+    }
+}
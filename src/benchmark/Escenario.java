@@ -0,0 +1,146 @@
+package benchmark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import entidades.DatosProyecto;
+import entidades.HomeSolution;
+import entidades.HomeSolutionInstrumentada;
+import entidades.IHomeSolution;
+import entidades.Tarea;
+
+/**
+ * Sistema armado para los benchmarks: E empleados (mitad de planta, mitad
+ * contratados), P proyectos de T tareas cada uno. Un tercio de los proyectos
+ * está finalizado; entre la mitad de los demás se reparte la mitad de los
+ * empleados (una tarea por proyecto por vuelta), así quedan proyectos activos,
+ * pendientes y empleados libres para asignar.
+ *
+ * Además del sistema guarda qué tareas están asignadas y a quién, para que los
+ * benchmarks que modifican puedan elegir argumentos válidos sin consultar al
+ * sistema en el tiempo medido.
+ */
+class Escenario {
+    private static final String[] CATEGORIAS = {"INICIAL", "TECNICO", "EXPERTO"};
+
+    final int empleados;
+    final int proyectos;
+    final int tareas;
+    final HomeSolution base;
+    final IHomeSolution sistema;
+    final int muestreo;
+    final String[] titulos;
+
+    // proyectos sin finalizar y, entre ellos, los que quedaron pendientes
+    final int[] sinFinalizar;
+    final int[] pendientes;
+    // tareas asignadas: proyecto, posición del título y legajo del responsable
+    final int[] asignadasProyecto;
+    final int[] asignadasTitulo;
+    final int[] asignadasLegajo;
+    final ArrayDeque<Integer> libres;
+
+    // muestreo > 0: los casos llaman al sistema a través de HomeSolutionInstrumentada con ese muestreo
+    Escenario(int empleados, int proyectos, int tareas, int muestreo) {
+        this.empleados = empleados;
+        this.proyectos = proyectos;
+        this.tareas = tareas;
+        this.muestreo = muestreo;
+        this.base = new HomeSolution();
+        this.sistema = muestreo > 0 ? new HomeSolutionInstrumentada(base, muestreo) : base;
+
+        String[] nombres = new String[empleados];
+        double[] valores = new double[empleados];
+        String[] categorias = new String[empleados];
+        for (int i = 0; i < empleados; i++) {
+            nombres[i] = "Empleado " + (i + 1);
+            boolean planta = i % 2 == 1;
+            valores[i] = planta ? 20000 + (i % 50) * 1000 : 1000 + (i % 50) * 100;
+            categorias[i] = planta ? CATEGORIAS[i % 3] : null;
+        }
+        base.registrarEmpleados(nombres, valores, categorias);
+
+        this.titulos = new String[tareas];
+        String[] descripciones = new String[tareas];
+        double[] dias = new double[tareas];
+        for (int j = 0; j < tareas; j++) {
+            titulos[j] = "Tarea " + j;
+            descripciones[j] = "Descripción " + j;
+            dias[j] = 0.5 + j % 5;
+        }
+        String[] cliente = {"Cliente", "cliente@mail.com", "123456"};
+        List<DatosProyecto> lote = new ArrayList<>(proyectos);
+        for (int i = 1; i <= proyectos; i++) {
+            lote.add(new DatosProyecto(titulos, descripciones, dias, "Calle " + i, cliente,
+                    "2025-01-01", "2025-12-31"));
+        }
+        base.registrarProyectos(lote);
+
+        List<Integer> abiertos = new ArrayList<>();
+        for (int numero = 1; numero <= proyectos; numero++) {
+            if (numero % 3 == 0)
+                base.finalizarProyecto(numero, "2025-12-31");
+            else
+                abiertos.add(numero);
+        }
+        this.sinFinalizar = abiertos.stream().mapToInt(Integer::intValue).toArray();
+
+        // la primera mitad de los proyectos abiertos recibe empleados; la otra queda pendiente
+        int conEmpleados = (sinFinalizar.length + 1) / 2;
+        int ocupar = Math.min(empleados / 2, conEmpleados * tareas);
+        this.asignadasProyecto = new int[ocupar];
+        this.asignadasTitulo = new int[ocupar];
+        this.asignadasLegajo = new int[ocupar];
+        boolean[] activo = new boolean[proyectos + 1];
+        try {
+            for (int k = 0; k < ocupar; k++) {
+                int numero = sinFinalizar[k % conEmpleados];
+                int titulo = k / conEmpleados;
+                base.asignarResponsableEnTarea(numero, titulos[titulo]);
+                asignadasProyecto[k] = numero;
+                asignadasTitulo[k] = titulo;
+                asignadasLegajo[k] = ((Tarea) base.tareasDeUnProyecto(numero)[titulo]).obtenerEmpleado().getLegajo();
+                activo[numero] = true;
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo armar el escenario", e);
+        }
+
+        List<Integer> sinEmpezar = new ArrayList<>();
+        for (int numero : sinFinalizar) {
+            if (!activo[numero])
+                sinEmpezar.add(numero);
+        }
+        this.pendientes = sinEmpezar.stream().mapToInt(Integer::intValue).toArray();
+        this.libres = new ArrayDeque<>();
+        for (Object legajo : base.empleadosNoAsignados()) {
+            libres.add((Integer) legajo);
+        }
+    }
+
+    int proyecto(int i) {
+        return 1 + Math.floorMod(i, proyectos);
+    }
+
+    int sinFinalizar(int i) {
+        return sinFinalizar[Math.floorMod(i, sinFinalizar.length)];
+    }
+
+    int legajo(int i) {
+        return 1 + Math.floorMod(i, empleados);
+    }
+
+    // Tareas sin asignar de proyectos pendientes, recorridas proyecto por proyecto en cada vuelta
+    int tareasPendientes() {
+        return pendientes.length * tareas;
+    }
+
+    int pendiente(int i) {
+        return pendientes[i % pendientes.length];
+    }
+
+    String tituloPendiente(int i) {
+        return titulos[i / pendientes.length];
+    }
+}
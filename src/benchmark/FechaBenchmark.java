@@ -0,0 +1,141 @@
+package benchmark;
+
+import java.util.Locale;
+import java.util.function.IntUnaryOperator;
+
+import entidades.Fecha;
+
+/**
+ * Sumar días a una Fecha (por día de época) contra la versión anterior, que
+ * avanzaba mes por mes, para distintas cantidades de días; y comparar fechas.
+ * Ejecutar con: java benchmark.FechaBenchmark
+ */
+public class FechaBenchmark {
+    private static final int FECHAS = 1024;
+    private static final int RONDAS = 5;
+    private static final long MEDICION_NS = 500_000_000L;
+
+    private static volatile Object sumidero;
+
+    public static void main(String[] args) {
+        Fecha[] fechas = new Fecha[FECHAS];
+        FechaConCiclo[] anteriores = new FechaConCiclo[FECHAS];
+        for (int i = 0; i < FECHAS; i++) {
+            fechas[i] = new Fecha(1 + i % 28, 1 + i % 12, 1990 + i % 40);
+            anteriores[i] = new FechaConCiclo(1 + i % 28, 1 + i % 12, 1990 + i % 40);
+        }
+
+        System.out.printf("%-22s %14s %14s%n", "", "ciclo ns/op", "época ns/op");
+        for (int dias : new int[] {1, 30, 365, 3653, -3653}) {
+            double ciclo = medir(i -> anteriores[i].sumarDias(dias).getDia());
+            double epoca = medir(i -> fechas[i].sumarDias(dias).getDia());
+            System.out.printf(Locale.ROOT, "%-22s %14.1f %14.1f%n", "sumarDias(" + dias + ")", ciclo, epoca);
+        }
+        double ciclo = medir(i -> anteriores[i].comparar(anteriores[(i + 1) % FECHAS]));
+        double epoca = medir(i -> fechas[i].comparar(fechas[(i + 1) % FECHAS]));
+        System.out.printf(Locale.ROOT, "%-22s %14.1f %14.1f%n", "comparar", ciclo, epoca);
+    }
+
+    // Mejor de varias rondas de ns por llamada, después de una ronda de calentamiento
+    private static double medir(IntUnaryOperator operacion) {
+        double mejor = Double.MAX_VALUE;
+        for (int ronda = 0; ronda <= RONDAS; ronda++) {
+            long operaciones = 0;
+            int suma = 0;
+            long inicio = System.nanoTime();
+            long nanos;
+            do {
+                for (int i = 0; i < FECHAS; i++) {
+                    suma += operacion.applyAsInt(i);
+                }
+                operaciones += FECHAS;
+                nanos = System.nanoTime() - inicio;
+            } while (nanos < MEDICION_NS);
+            sumidero = suma;
+            if (ronda > 0)
+                mejor = Math.min(mejor, (double) nanos / operaciones);
+        }
+        return mejor;
+    }
+
+    // La Fecha de antes, que suma y resta avanzando mes por mes
+    private static final class FechaConCiclo {
+        private static final int[] DIAS_POR_MES = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+        private final int dia;
+        private final int mes;
+        private final int anio;
+
+        FechaConCiclo(int dia, int mes, int anio) {
+            if (anio < 1 || mes < 1 || mes > 12 || dia < 1 || dia > diasEnMes(mes, anio))
+                throw new IllegalArgumentException("Fecha inválida: " + dia + "/" + mes + "/" + anio);
+            this.dia = dia;
+            this.mes = mes;
+            this.anio = anio;
+        }
+
+        private static int diasEnMes(int m, int a) {
+            if (m == 2 && ((a % 4 == 0 && a % 100 != 0) || a % 400 == 0))
+                return 29;
+            return DIAS_POR_MES[m - 1];
+        }
+
+        FechaConCiclo sumarDias(int cantidad) {
+            if (cantidad < 0)
+                return restarDias(-cantidad);
+            int nuevoDia = dia;
+            int nuevoMes = mes;
+            int nuevoAnio = anio;
+            while (cantidad > 0) {
+                int diasMes = diasEnMes(nuevoMes, nuevoAnio);
+                if (nuevoDia + cantidad <= diasMes) {
+                    nuevoDia += cantidad;
+                    cantidad = 0;
+                } else {
+                    cantidad -= (diasMes - nuevoDia + 1);
+                    nuevoDia = 1;
+                    nuevoMes++;
+                    if (nuevoMes > 12) {
+                        nuevoMes = 1;
+                        nuevoAnio++;
+                    }
+                }
+            }
+            return new FechaConCiclo(nuevoDia, nuevoMes, nuevoAnio);
+        }
+
+        FechaConCiclo restarDias(int cantidad) {
+            if (cantidad < 0)
+                return sumarDias(-cantidad);
+            int nuevoDia = dia;
+            int nuevoMes = mes;
+            int nuevoAnio = anio;
+            while (cantidad > 0) {
+                if (nuevoDia > cantidad) {
+                    nuevoDia -= cantidad;
+                    cantidad = 0;
+                } else {
+                    cantidad -= nuevoDia;
+                    nuevoMes--;
+                    if (nuevoMes < 1) {
+                        nuevoMes = 12;
+                        nuevoAnio--;
+                    }
+                    nuevoDia = diasEnMes(nuevoMes, nuevoAnio);
+                }
+            }
+            return new FechaConCiclo(nuevoDia, nuevoMes, nuevoAnio);
+        }
+
+        int comparar(FechaConCiclo otra) {
+            if (anio != otra.anio) return anio < otra.anio ? -1 : 1;
+            if (mes != otra.mes) return mes < otra.mes ? -1 : 1;
+            if (dia != otra.dia) return dia < otra.dia ? -1 : 1;
+            return 0;
+        }
+
+        int getDia() {
+            return dia;
+        }
+    }
+}
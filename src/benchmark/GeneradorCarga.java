@@ -0,0 +1,413 @@
+package benchmark;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import entidades.DatosProyecto;
+import entidades.GrabadorSesion;
+import entidades.IHomeSolution;
+import entidades.Traza.Operacion;
+
+/**
+ * Carga sintética reproducible (misma semilla, mismas llamadas) con la forma de
+ * los datos reales: cantidad de tareas por proyecto muy despareja (Pareto), una
+ * mezcla de empleados de planta y contratados, retrasos que llegan en ráfagas
+ * sobre un mismo proyecto y una historia larga de proyectos finalizados.
+ *
+ * Primero arma el estado inicial con registros en lote (empleados, proyectos, una
+ * parte asignada y la mayoría de la historia finalizada); esa parte no se mide.
+ * Después hace la cantidad pedida de operaciones elegidas al azar según la
+ * mezcla, llevando un modelo propio de qué tareas están sin asignar o en curso y
+ * cuántos empleados quedan libres para que casi todas las llamadas sean válidas.
+ * Con traza=archivo todo pasa por GrabadorSesion y se puede reproducir con
+ * ReproductorTraza.
+ *
+ * Ejecutar con: java benchmark.GeneradorCarga [clave=valor ...]
+ *   semilla=42 empleados=1000 proyectos=5000 operaciones=200000 planta=0.4
+ *   historia=0.7 tareas=1.5 (alfa de Pareto; menor, más despareja) rafagas=0.05
+ *   mezcla=asignar:20,retraso:8,... (ver MEZCLA) implementacion=simple traza=archivo
+ */
+public class GeneradorCarga {
+    private static final String[] CATEGORIAS = {"INICIAL", "TECNICO", "EXPERTO"};
+    private static final String[] CLIENTE = {"Cliente", "cliente@mail.com", "123456"};
+
+    // Peso por defecto de cada tipo de operación
+    private static final String MEZCLA = "empleado:1,proyecto:4,asignar:20,reasignar:4,retraso:6,tarea:3,"
+            + "finalizarTarea:12,finalizarProyecto:3,costo:15,consulta:12,listado:12,empleados:8";
+
+    private static volatile Object sumidero;
+
+    private final Random random;
+    private final IHomeSolution sistema;
+    private final double planta;
+    private final double alfaTareas;
+    private final double rafagas;
+    private final String[] tipos;
+    private final int[] pesosAcumulados;
+
+    private final List<ProyectoModelo> abiertos = new ArrayList<>();
+    private int ultimoProyecto;
+    private int ultimoLegajo;
+    private int libres;
+    private int tareasExtra;
+    // ráfaga de retrasos en curso: proyecto y cuántos faltan
+    private ProyectoModelo enRafaga;
+    private int restantesRafaga;
+
+    private static final class ProyectoModelo {
+        final int numero;
+        final List<String> sinAsignar = new ArrayList<>();
+        final List<String> enCurso = new ArrayList<>();
+
+        ProyectoModelo(int numero, String[] titulos) {
+            this.numero = numero;
+            sinAsignar.addAll(Arrays.asList(titulos));
+        }
+    }
+
+    GeneradorCarga(IHomeSolution sistema, long semilla, double planta, double alfaTareas, double rafagas,
+                   String mezcla) {
+        this.random = new Random(semilla);
+        this.sistema = sistema;
+        this.planta = planta;
+        this.alfaTareas = alfaTareas;
+        this.rafagas = rafagas;
+        String[] partes = mezcla.split(",");
+        this.tipos = new String[partes.length];
+        this.pesosAcumulados = new int[partes.length];
+        int acumulado = 0;
+        for (int i = 0; i < partes.length; i++) {
+            String[] par = partes[i].split(":");
+            tipos[i] = par[0].trim();
+            acumulado += Integer.parseInt(par[1].trim());
+            pesosAcumulados[i] = acumulado;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0)
+                throw new IllegalArgumentException("Se esperaba clave=valor: " + arg);
+            opciones.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        long semilla = Long.parseLong(opciones.getOrDefault("semilla", "42"));
+        int empleados = Integer.parseInt(opciones.getOrDefault("empleados", "1000"));
+        int proyectos = Integer.parseInt(opciones.getOrDefault("proyectos", "5000"));
+        int operaciones = Integer.parseInt(opciones.getOrDefault("operaciones", "200000"));
+        double planta = Double.parseDouble(opciones.getOrDefault("planta", "0.4"));
+        double historia = Double.parseDouble(opciones.getOrDefault("historia", "0.7"));
+        double alfa = Double.parseDouble(opciones.getOrDefault("tareas", "1.5"));
+        double rafagas = Double.parseDouble(opciones.getOrDefault("rafagas", "0.05"));
+        String mezcla = opciones.getOrDefault("mezcla", MEZCLA);
+        String implementacion = opciones.getOrDefault("implementacion", "simple");
+
+        IHomeSolution base = ReproductorTraza.crearSistema(implementacion);
+        GrabadorSesion grabador = opciones.containsKey("traza")
+                ? new GrabadorSesion(base, Paths.get(opciones.get("traza"))) : null;
+        GeneradorCarga generador = new GeneradorCarga(grabador != null ? grabador : base, semilla, planta, alfa,
+                rafagas, mezcla);
+
+        long inicio = System.nanoTime();
+        generador.armar(empleados, proyectos, historia);
+        System.out.printf("Estado inicial: %d empleados, %d proyectos (%d abiertos) en %.1f ms%n",
+                empleados, proyectos, generador.abiertos.size(), (System.nanoTime() - inicio) / 1e6);
+
+        Latencias latencias = new Latencias();
+        inicio = System.nanoTime();
+        for (int i = 0; i < operaciones; i++) {
+            generador.siguiente(latencias);
+        }
+        long total = System.nanoTime() - inicio;
+        if (grabador != null)
+            grabador.close();
+        if (base instanceof AutoCloseable)
+            ((AutoCloseable) base).close();
+        latencias.imprimir(System.out, total);
+    }
+
+    // ============================================================
+    // ESTADO INICIAL
+    // ============================================================
+
+    void armar(int empleados, int proyectos, double historia) throws Exception {
+        String[] nombres = new String[empleados];
+        double[] valores = new double[empleados];
+        String[] categorias = new String[empleados];
+        for (int i = 0; i < empleados; i++) {
+            nombres[i] = "Empleado " + (i + 1);
+            boolean esPlanta = random.nextDouble() < planta;
+            valores[i] = esPlanta ? 20000 + random.nextInt(60000) : 1000 + random.nextInt(9000);
+            categorias[i] = esPlanta ? CATEGORIAS[random.nextInt(CATEGORIAS.length)] : null;
+        }
+        sistema.registrarEmpleados(nombres, valores, categorias);
+        ultimoLegajo = empleados;
+        libres = empleados;
+
+        List<DatosProyecto> lote = new ArrayList<>(proyectos);
+        List<String[]> titulosPorProyecto = new ArrayList<>(proyectos);
+        for (int i = 1; i <= proyectos; i++) {
+            String[] titulos = titulos();
+            titulosPorProyecto.add(titulos);
+            lote.add(new DatosProyecto(titulos, new String[titulos.length], dias(titulos.length), "Calle " + i,
+                    CLIENTE, "2025-01-01", "2025-12-31"));
+        }
+        sistema.registrarProyectos(lote);
+        ultimoProyecto = proyectos;
+
+        // la historia: se trabaja en cada proyecto y se finaliza; el resto queda abierto
+        for (int numero = 1; numero <= proyectos; numero++) {
+            ProyectoModelo p = new ProyectoModelo(numero, titulosPorProyecto.get(numero - 1));
+            if (random.nextDouble() < historia) {
+                if (libres > 0)
+                    asignar(p, null);
+                sistema.finalizarProyecto(numero, "2025-12-31");
+                libres += p.enCurso.size();
+            } else {
+                abiertos.add(p);
+                if (libres > empleados / 2 && random.nextBoolean())
+                    asignar(p, null);
+            }
+        }
+    }
+
+    // ============================================================
+    // OPERACIONES
+    // ============================================================
+
+    void siguiente(Latencias latencias) {
+        String tipo = restantesRafaga > 0 ? "retraso" : elegirTipo();
+        long inicio = System.nanoTime();
+        Operacion operacion;
+        boolean error = false;
+        try {
+            operacion = hacer(tipo);
+        } catch (Exception e) {
+            operacion = ultimaOperacion;
+            error = true;
+        }
+        latencias.registrar(operacion, System.nanoTime() - inicio, error);
+    }
+
+    // la operación que se estaba haciendo cuando saltó una excepción
+    private Operacion ultimaOperacion;
+
+    private Operacion hacer(String tipo) throws Exception {
+        switch (tipo) {
+            case "empleado":
+                if (random.nextDouble() < planta) {
+                    ultimaOperacion = Operacion.REGISTRAR_EMPLEADO_PLANTA;
+                    sistema.registrarEmpleado("Nuevo", 20000 + random.nextInt(60000),
+                            CATEGORIAS[random.nextInt(CATEGORIAS.length)]);
+                } else {
+                    ultimaOperacion = Operacion.REGISTRAR_EMPLEADO;
+                    sistema.registrarEmpleado("Nuevo", 1000 + random.nextInt(9000));
+                }
+                ultimoLegajo++;
+                libres++;
+                return ultimaOperacion;
+            case "proyecto": {
+                ultimaOperacion = Operacion.REGISTRAR_PROYECTO;
+                String[] titulos = titulos();
+                sistema.registrarProyecto(titulos, new String[titulos.length], dias(titulos.length),
+                        "Calle " + (ultimoProyecto + 1), CLIENTE, "2026-01-01", "2026-06-30");
+                abiertos.add(new ProyectoModelo(++ultimoProyecto, titulos));
+                return ultimaOperacion;
+            }
+            case "asignar": {
+                ProyectoModelo p = buscar(true);
+                if (p == null || libres == 0)
+                    return consulta();
+                ultimaOperacion = random.nextBoolean() ? Operacion.ASIGNAR_RESPONSABLE : Operacion.ASIGNAR_MENOS_RETRASO;
+                asignarUna(p, ultimaOperacion);
+                return ultimaOperacion;
+            }
+            case "reasignar": {
+                ProyectoModelo p = buscar(false);
+                if (p == null || libres == 0)
+                    return consulta();
+                ultimaOperacion = Operacion.REASIGNAR_MENOS_RETRASO;
+                sistema.reasignarEmpleadoConMenosRetraso(p.numero, elegir(p.enCurso));
+                return ultimaOperacion;
+            }
+            case "retraso": {
+                ProyectoModelo p = restantesRafaga > 0 && !enRafaga.enCurso.isEmpty() ? enRafaga : buscar(false);
+                if (restantesRafaga > 0)
+                    restantesRafaga--;
+                if (p == null)
+                    return consulta();
+                if (restantesRafaga == 0 && random.nextDouble() < rafagas) {
+                    enRafaga = p;
+                    restantesRafaga = 5 + random.nextInt(16);
+                }
+                ultimaOperacion = Operacion.REGISTRAR_RETRASO;
+                sistema.registrarRetrasoEnTarea(p.numero, elegir(p.enCurso), 0.5 * (1 + random.nextInt(6)));
+                return ultimaOperacion;
+            }
+            case "tarea": {
+                if (abiertos.isEmpty())
+                    return consulta();
+                ProyectoModelo p = elegir(abiertos);
+                String titulo = "Extra " + (++tareasExtra);
+                ultimaOperacion = Operacion.AGREGAR_TAREA;
+                sistema.agregarTareaEnProyecto(p.numero, titulo, "", 1 + random.nextInt(5));
+                p.sinAsignar.add(titulo);
+                return ultimaOperacion;
+            }
+            case "finalizarTarea": {
+                ProyectoModelo p = buscar(false);
+                if (p == null)
+                    return consulta();
+                int i = random.nextInt(p.enCurso.size());
+                ultimaOperacion = Operacion.FINALIZAR_TAREA;
+                sistema.finalizarTarea(p.numero, p.enCurso.get(i));
+                p.enCurso.remove(i);
+                libres++;
+                return ultimaOperacion;
+            }
+            case "finalizarProyecto": {
+                if (abiertos.isEmpty())
+                    return consulta();
+                int i = random.nextInt(abiertos.size());
+                ProyectoModelo p = abiertos.get(i);
+                ultimaOperacion = Operacion.FINALIZAR_PROYECTO;
+                sistema.finalizarProyecto(p.numero, "2026-12-31");
+                abiertos.set(i, abiertos.get(abiertos.size() - 1));
+                abiertos.remove(abiertos.size() - 1);
+                libres += p.enCurso.size();
+                if (p == enRafaga)
+                    restantesRafaga = 0;
+                return ultimaOperacion;
+            }
+            case "costo":
+                ultimaOperacion = Operacion.COSTO_PROYECTO;
+                sumidero = sistema.costoProyecto(1 + random.nextInt(ultimoProyecto));
+                return ultimaOperacion;
+            case "consulta":
+                return consulta();
+            case "listado":
+                switch (random.nextInt(3)) {
+                    case 0:
+                        ultimaOperacion = Operacion.PROYECTOS_ACTIVOS;
+                        sumidero = sistema.proyectosActivos();
+                        break;
+                    case 1:
+                        ultimaOperacion = Operacion.PROYECTOS_PENDIENTES;
+                        sumidero = sistema.proyectosPendientes();
+                        break;
+                    default:
+                        ultimaOperacion = Operacion.PROYECTOS_FINALIZADOS;
+                        sumidero = sistema.proyectosFinalizados();
+                }
+                return ultimaOperacion;
+            case "empleados":
+                switch (random.nextInt(3)) {
+                    case 0:
+                        ultimaOperacion = Operacion.EMPLEADOS;
+                        sumidero = sistema.empleados();
+                        break;
+                    case 1:
+                        ultimaOperacion = Operacion.EMPLEADOS_NO_ASIGNADOS;
+                        sumidero = sistema.empleadosNoAsignados();
+                        break;
+                    default:
+                        ultimaOperacion = Operacion.CANTIDAD_RETRASOS;
+                        sumidero = sistema.consultarCantidadRetrasosEmpleado(1 + random.nextInt(ultimoLegajo));
+                }
+                return ultimaOperacion;
+            default:
+                throw new IllegalArgumentException("Tipo de operación desconocido en la mezcla: " + tipo);
+        }
+    }
+
+    // Consulta sobre un proyecto cualquiera, también cuando la operación elegida no tiene argumentos válidos
+    private Operacion consulta() {
+        int numero = 1 + random.nextInt(ultimoProyecto);
+        switch (random.nextInt(3)) {
+            case 0:
+                ultimaOperacion = Operacion.CONSULTAR_PROYECTO;
+                sumidero = sistema.consultarProyecto(numero);
+                break;
+            case 1:
+                ultimaOperacion = Operacion.TAREAS_DE_PROYECTO;
+                sumidero = sistema.tareasDeUnProyecto(numero);
+                break;
+            default:
+                ultimaOperacion = Operacion.EMPLEADOS_ASIGNADOS;
+                sumidero = sistema.empleadosAsignadosAProyecto(numero);
+        }
+        return ultimaOperacion;
+    }
+
+    // ============================================================
+    // MODELO
+    // ============================================================
+
+    private String elegirTipo() {
+        int r = random.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < tipos.length; i++) {
+            if (r < pesosAcumulados[i])
+                return tipos[i];
+        }
+        return tipos[tipos.length - 1];
+    }
+
+    // Un proyecto abierto con tareas sin asignar (o en curso), probando algunos al azar
+    private ProyectoModelo buscar(boolean sinAsignar) {
+        for (int intento = 0; intento < 8 && !abiertos.isEmpty(); intento++) {
+            ProyectoModelo p = elegir(abiertos);
+            if (!(sinAsignar ? p.sinAsignar : p.enCurso).isEmpty())
+                return p;
+        }
+        return null;
+    }
+
+    // Asigna todas las tareas que se pueda (operacion null) o una sola
+    private void asignar(ProyectoModelo p, Operacion operacion) throws Exception {
+        while (!p.sinAsignar.isEmpty() && libres > 0) {
+            asignarUna(p, operacion == null ? Operacion.ASIGNAR_RESPONSABLE : operacion);
+            if (operacion != null)
+                return;
+        }
+    }
+
+    private void asignarUna(ProyectoModelo p, Operacion operacion) throws Exception {
+        int i = random.nextInt(p.sinAsignar.size());
+        String titulo = p.sinAsignar.get(i);
+        if (operacion == Operacion.ASIGNAR_MENOS_RETRASO)
+            sistema.asignarResponsableMenosRetraso(p.numero, titulo);
+        else
+            sistema.asignarResponsableEnTarea(p.numero, titulo);
+        p.sinAsignar.remove(i);
+        p.enCurso.add(titulo);
+        libres--;
+    }
+
+    // Cantidad de tareas con distribución de Pareto (mínimo 1, cola larga, tope 200)
+    private String[] titulos() {
+        int cantidad = (int) Math.min(200, Math.floor(Math.pow(1 - random.nextDouble(), -1 / alfaTareas)));
+        String[] titulos = new String[Math.max(1, cantidad)];
+        for (int j = 0; j < titulos.length; j++) {
+            titulos[j] = "Tarea " + (j + 1);
+        }
+        return titulos;
+    }
+
+    private double[] dias(int cantidad) {
+        double[] dias = new double[cantidad];
+        for (int j = 0; j < cantidad; j++) {
+            dias[j] = 0.5 * (1 + random.nextInt(20));
+        }
+        return dias;
+    }
+
+    private <T> T elegir(List<T> lista) {
+        return lista.get(random.nextInt(lista.size()));
+    }
+}
@@ -0,0 +1,90 @@
+package benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import entidades.DatosProyecto;
+import entidades.Estado;
+import entidades.HomeSolution;
+
+/**
+ * Tiempo de guardar y de volver a cargar una instantánea con 10^6 tareas
+ * (100.000 proyectos de 10 tareas y 10.000 empleados, parte asignados y parte
+ * de los proyectos finalizados), completa y en modo diferido.
+ * Ejecutar con: java -Xmx2g benchmark.InstantaneaBenchmark
+ */
+public class InstantaneaBenchmark {
+    private static final int EMPLEADOS = 10_000;
+    private static final int PROYECTOS = 100_000;
+    private static final int TAREAS = 10;
+
+    public static void main(String[] args) throws Exception {
+        HomeSolution sistema = new HomeSolution();
+        String[] nombres = new String[EMPLEADOS];
+        double[] valores = new double[EMPLEADOS];
+        String[] categorias = new String[EMPLEADOS];
+        for (int i = 0; i < EMPLEADOS; i++) {
+            nombres[i] = "Empleado " + i;
+            valores[i] = i % 2 == 0 ? 1000 + i : 20000 + i;
+            categorias[i] = i % 2 == 0 ? null : "TECNICO";
+        }
+        sistema.registrarEmpleados(nombres, valores, categorias);
+
+        String[] titulos = new String[TAREAS];
+        String[] descripciones = new String[TAREAS];
+        double[] dias = new double[TAREAS];
+        for (int j = 0; j < TAREAS; j++) {
+            titulos[j] = "Tarea " + j;
+            descripciones[j] = "Descripción de la tarea " + j;
+            dias[j] = 1 + j;
+        }
+        String[] cliente = {"Cliente", "cliente@mail.com", "123456"};
+        List<DatosProyecto> lote = new ArrayList<>(PROYECTOS);
+        for (int i = 0; i < PROYECTOS; i++) {
+            lote.add(new DatosProyecto(titulos, descripciones, dias, "Calle " + i, cliente, "2025-01-01", "2025-12-31"));
+        }
+        sistema.registrarProyectos(lote);
+        sistema.asignarTareasPendientes();
+        for (int numero = 1; numero <= PROYECTOS / 2; numero++) {
+            if (numero % 3 == 0)
+                sistema.finalizarProyecto(numero, "2025-12-31");
+        }
+
+        Path archivo = Files.createTempFile("homesolution", ".foto");
+        long inicio = System.nanoTime();
+        sistema.guardarInstantanea(archivo);
+        long guardado = System.nanoTime() - inicio;
+        System.out.printf("Guardar %,d tareas: %.1f ms, %,d bytes%n",
+                PROYECTOS * TAREAS, guardado / 1e6, Files.size(archivo));
+
+        sistema = null;
+        System.gc();
+        HomeSolution cargado = null;
+        for (int ronda = 1; ronda <= 3; ronda++) {
+            inicio = System.nanoTime();
+            cargado = HomeSolution.cargarInstantanea(archivo);
+            long carga = System.nanoTime() - inicio;
+            System.out.printf("Ronda %d, cargar: %.1f ms (%d proyectos activos)%n",
+                    ronda, carga / 1e6, cargado.cantidadProyectos(Estado.activo));
+        }
+        for (int ronda = 1; ronda <= 3; ronda++) {
+            cargado = null;
+            System.gc();
+            long memoriaAntes = usada();
+            inicio = System.nanoTime();
+            cargado = HomeSolution.cargarInstantaneaDiferida(archivo);
+            long carga = System.nanoTime() - inicio;
+            System.gc();
+            System.out.printf("Ronda %d, cargar diferido: %.1f ms, %,d KB de heap (%d proyectos sin leer)%n",
+                    ronda, carga / 1e6, (usada() - memoriaAntes) / 1024, cargado.proyectosSinLeer());
+        }
+        Files.delete(archivo);
+    }
+
+    private static long usada() {
+        Runtime r = Runtime.getRuntime();
+        return r.totalMemory() - r.freeMemory();
+    }
+}
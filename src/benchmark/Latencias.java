@@ -0,0 +1,56 @@
+package benchmark;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import entidades.Traza.Operacion;
+
+/**
+ * Latencias de cada llamada, agrupadas por operación, y el informe con
+ * throughput y percentiles que imprimen GeneradorCarga y ReproductorTraza.
+ */
+class Latencias {
+    private final Map<Operacion, long[]> muestras = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, Integer> cantidades = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, Integer> errores = new EnumMap<>(Operacion.class);
+    private long total;
+
+    void registrar(Operacion operacion, long nanos, boolean error) {
+        int cantidad = cantidades.getOrDefault(operacion, 0);
+        long[] valores = muestras.get(operacion);
+        if (valores == null || valores.length == cantidad) {
+            valores = valores == null ? new long[1024] : Arrays.copyOf(valores, cantidad * 2);
+            muestras.put(operacion, valores);
+        }
+        valores[cantidad] = nanos;
+        cantidades.put(operacion, cantidad + 1);
+        if (error)
+            errores.merge(operacion, 1, Integer::sum);
+        total++;
+    }
+
+    // Throughput total sobre el tiempo de pared, y por operación cantidad, errores y percentiles en µs
+    void imprimir(PrintStream salida, long nanosTotales) {
+        salida.printf(Locale.ROOT, "%d llamadas en %.2f s: %.0f op/s%n", total, nanosTotales / 1e9,
+                total / (nanosTotales / 1e9));
+        salida.printf("%-26s %9s %7s %10s %10s %10s %10s %10s%n",
+                "operación", "llamadas", "errores", "p50 µs", "p90 µs", "p99 µs", "p99.9 µs", "máx µs");
+        for (Map.Entry<Operacion, Integer> e : cantidades.entrySet()) {
+            int cantidad = e.getValue();
+            long[] valores = Arrays.copyOf(muestras.get(e.getKey()), cantidad);
+            Arrays.sort(valores);
+            salida.printf(Locale.ROOT, "%-26s %9d %7d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    e.getKey().name(), cantidad, errores.getOrDefault(e.getKey(), 0),
+                    percentil(valores, 0.50), percentil(valores, 0.90), percentil(valores, 0.99),
+                    percentil(valores, 0.999), valores[cantidad - 1] / 1e3);
+        }
+    }
+
+    private static double percentil(long[] ordenados, double p) {
+        int posicion = (int) Math.ceil(p * ordenados.length) - 1;
+        return ordenados[Math.max(0, posicion)] / 1e3;
+    }
+}
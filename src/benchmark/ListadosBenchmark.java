@@ -0,0 +1,130 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import entidades.Estado;
+import entidades.HomeSolution;
+import entidades.Tarea;
+import entidades.Tupla;
+import entidades.VisitanteFila;
+
+/**
+ * Bytes asignados en el heap y tiempo por llamada de cada listado, en la versión
+ * que arma la lista (o el Object[]) y en la que pasa las filas a un visitante
+ * (ver HomeSolution.recorrer*), sobre un Escenario. Los bytes salen del contador
+ * por hilo de com.sun.management.ThreadMXBean, así que no dependen de cuándo pase
+ * el GC; con esos bytes y el tiempo se informa la tasa de asignación en MB/s.
+ *
+ * Ejecutar con: java benchmark.ListadosBenchmark [empleados] [proyectos] [tareas]
+ *   (por defecto 10000 10000 10)
+ */
+public class ListadosBenchmark {
+    private static final long CALENTAMIENTO_NS = 500_000_000L;
+    private static final long MEDICION_NS = 1_000_000_000L;
+
+    private static volatile long sumidero;
+
+    @FunctionalInterface
+    private interface Llamada {
+        long llamar(int i) throws Exception;
+    }
+
+    // Suma los ids y largos de los textos para que el JIT no descarte el recorrido
+    private static final class Suma implements VisitanteFila, Consumer<Tarea> {
+        long total;
+
+        @Override
+        public void visitar(int id, String texto) {
+            total += id + texto.length();
+        }
+
+        @Override
+        public void accept(Tarea t) {
+            total += t.getTitulo().length();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int empleados = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int proyectos = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int tareas = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        Escenario e = new Escenario(empleados, proyectos, tareas, 0);
+        HomeSolution s = e.base;
+        Suma suma = new Suma();
+
+        System.out.printf("%d empleados, %d proyectos de %d tareas%n", empleados, proyectos, tareas);
+        System.out.printf("%-44s %14s %12s %10s%n", "", "bytes/op", "ns/op", "MB/s");
+
+        medir("empleados", i -> filas(s.empleados()));
+        medir("recorrerEmpleados", i -> {
+            s.recorrerEmpleados(suma);
+            return suma.total;
+        });
+        medir("empleadosNoAsignados", i -> s.empleadosNoAsignados().length);
+        medir("recorrerEmpleadosNoAsignados", i -> {
+            s.recorrerEmpleadosNoAsignados(suma);
+            return suma.total;
+        });
+        medir("proyectosActivos", i -> filas(s.proyectosActivos()));
+        medir("recorrerProyectos(activo)", i -> {
+            s.recorrerProyectos(Estado.activo, suma);
+            return suma.total;
+        });
+        medir("proyectosPendientes", i -> filas(s.proyectosPendientes()));
+        medir("recorrerProyectos(pendiente)", i -> {
+            s.recorrerProyectos(Estado.pendiente, suma);
+            return suma.total;
+        });
+        medir("empleadosAsignadosAProyecto", i -> filas(s.empleadosAsignadosAProyecto(e.sinFinalizar(i))));
+        medir("recorrerEmpleadosAsignados", i -> {
+            s.recorrerEmpleadosAsignados(e.sinFinalizar(i), suma);
+            return suma.total;
+        });
+        medir("tareasDeUnProyecto", i -> s.tareasDeUnProyecto(e.proyecto(i)).length);
+        medir("recorrerTareas", i -> {
+            s.recorrerTareas(e.proyecto(i), suma);
+            return suma.total;
+        });
+    }
+
+    private static long filas(List<Tupla<Integer, String>> lista) {
+        long total = 0;
+        for (Tupla<Integer, String> fila : lista) {
+            total += fila.getValor1() + fila.getValor2().length();
+        }
+        return total;
+    }
+
+    private static void medir(String nombre, Llamada llamada) throws Exception {
+        com.sun.management.ThreadMXBean hilos =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+        correr(llamada, CALENTAMIENTO_NS);
+
+        long bytesAntes = hilos.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        long operaciones = correr(llamada, MEDICION_NS);
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(hilo) - bytesAntes;
+
+        System.out.printf(Locale.ROOT, "%-44s %14.1f %12.1f %10.1f%n", nombre,
+                (double) bytes / operaciones, (double) nanos / operaciones, bytes / 1e6 / (nanos / 1e9));
+    }
+
+    private static long correr(Llamada llamada, long duracion) throws Exception {
+        long operaciones = 0;
+        long total = 0;
+        long inicio = System.nanoTime();
+        do {
+            for (int i = 0; i < 16; i++) {
+                total += llamada.llamar((int) operaciones + i);
+            }
+            operaciones += 16;
+        } while (System.nanoTime() - inicio < duracion);
+        sumidero = total;
+        return operaciones;
+    }
+}
@@ -0,0 +1,332 @@
+package benchmark;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import entidades.DatosProyecto;
+
+/**
+ * Tiempo promedio por llamada (ns/op) de cada operación de IHomeSolution, para
+ * todas las combinaciones de cantidad de empleados, proyectos y tareas por
+ * proyecto pedidas (ver Escenario).
+ *
+ * Por cada operación: calentamiento, y después varias rondas de tiempo fijo; el
+ * puntaje es el promedio de las rondas y el error el intervalo del 99,9% (normal).
+ * Las consultas comparten un escenario; cada operación que modifica arma el suyo,
+ * y si agota los argumentos válidos (por ejemplo, tareas sin asignar) se arma otro
+ * fuera del tiempo medido. Los resultados se imprimen y se guardan en JSON con la
+ * forma de los de JMH (benchmark, mode, params, primaryMetric) para compararlos
+ * entre versiones.
+ *
+ * Ejecutar con: java -Xmx4g benchmark.OperacionesBenchmark [clave=valor ...]
+ *   empleados=100,10000  proyectos=100,10000  tareas=10   (listas separadas por coma)
+ *   casos=costoProyecto,consultarProyecto   (por defecto, todos)
+ *   calentamiento=1000  medicion=1000  (ms)  rondas=5  salida=operaciones.json
+ *   envoltorio=ninguno|instrumentado  muestreo=1   (con instrumentado se mide el
+ *   costo de HomeSolutionInstrumentada comparando contra una corrida sin envoltorio)
+ * Para 10^6: empleados=1000000 proyectos=1000000 tareas=1, con -Xmx de varios GB.
+ */
+public class OperacionesBenchmark {
+    private static volatile Object sumidero;
+
+    @FunctionalInterface
+    private interface Llamada {
+        Object llamar(Escenario e, int i) throws Exception;
+    }
+
+    private static final class Caso {
+        final String nombre;
+        final boolean modifica;
+        final ToIntFunction<Escenario> disponibles;
+        final Llamada llamada;
+
+        Caso(String nombre, boolean modifica, ToIntFunction<Escenario> disponibles, Llamada llamada) {
+            this.nombre = nombre;
+            this.modifica = modifica;
+            this.disponibles = disponibles;
+            this.llamada = llamada;
+        }
+    }
+
+    private static Caso consulta(String nombre, Llamada llamada) {
+        return new Caso(nombre, false, e -> Integer.MAX_VALUE, llamada);
+    }
+
+    private static Caso modificacion(String nombre, ToIntFunction<Escenario> disponibles, Llamada llamada) {
+        return new Caso(nombre, true, disponibles, llamada);
+    }
+
+    private static final ToIntFunction<Escenario> SIEMPRE = e -> Integer.MAX_VALUE;
+    // las altas se cortan cada tanto para que el sistema no crezca sin límite durante la medición
+    private static final ToIntFunction<Escenario> ALTAS = e -> 100_000;
+    private static final ToIntFunction<Escenario> LOTES = e -> 1_000;
+
+    static List<Caso> casos() {
+        List<Caso> casos = new ArrayList<>();
+        String[] cliente = {"Cliente", "cliente@mail.com", "123456"};
+
+        casos.add(modificacion("registrarEmpleado", ALTAS, (e, i) -> {
+            e.sistema.registrarEmpleado("Nuevo", 1000);
+            return null;
+        }));
+        casos.add(modificacion("registrarEmpleadoPlanta", ALTAS, (e, i) -> {
+            e.sistema.registrarEmpleado("Nuevo", 30000, "TECNICO");
+            return null;
+        }));
+        casos.add(modificacion("registrarEmpleados", LOTES, (e, i) -> {
+            String[] nombres = new String[100];
+            double[] valores = new double[100];
+            Arrays.fill(nombres, "Nuevo");
+            Arrays.fill(valores, 1000);
+            return e.sistema.registrarEmpleados(nombres, valores, null);
+        }));
+        casos.add(modificacion("registrarProyecto", ALTAS, (e, i) -> {
+            double[] dias = new double[e.tareas];
+            Arrays.fill(dias, 1);
+            e.sistema.registrarProyecto(e.titulos, e.titulos, dias, "Nueva 1", cliente, "2025-01-01", "2025-12-31");
+            return null;
+        }));
+        casos.add(modificacion("registrarProyectos", LOTES, (e, i) -> {
+            double[] dias = new double[e.tareas];
+            Arrays.fill(dias, 1);
+            List<DatosProyecto> lote = new ArrayList<>(100);
+            for (int k = 0; k < 100; k++) {
+                lote.add(new DatosProyecto(e.titulos, e.titulos, dias, "Nueva " + k, cliente, "2025-01-01", "2025-12-31"));
+            }
+            return e.sistema.registrarProyectos(lote);
+        }));
+
+        // asignaciones: una tarea pendiente distinta por llamada, mientras haya empleados libres
+        ToIntFunction<Escenario> asignables = e -> Math.min(e.libres.size(), e.tareasPendientes());
+        casos.add(modificacion("asignarResponsableEnTarea", asignables, (e, i) -> {
+            e.sistema.asignarResponsableEnTarea(e.pendiente(i), e.tituloPendiente(i));
+            return null;
+        }));
+        casos.add(modificacion("asignarResponsableMenosRetraso", asignables, (e, i) -> {
+            e.sistema.asignarResponsableMenosRetraso(e.pendiente(i), e.tituloPendiente(i));
+            return null;
+        }));
+        casos.add(modificacion("asignarTareasPendientes", e -> 1, (e, i) -> e.base.asignarTareasPendientes()));
+
+        // reasignaciones: el responsable anterior queda libre, así que se pueden repetir
+        ToIntFunction<Escenario> reasignables = e -> e.libres.isEmpty() || e.asignadasProyecto.length == 0
+                ? 0 : Integer.MAX_VALUE;
+        casos.add(modificacion("reasignarEmpleadoEnProyecto", reasignables, (e, i) -> {
+            int k = i % e.asignadasProyecto.length;
+            Integer nuevo = e.libres.poll();
+            e.sistema.reasignarEmpleadoEnProyecto(e.asignadasProyecto[k], nuevo, e.titulos[e.asignadasTitulo[k]]);
+            e.libres.add(e.asignadasLegajo[k]);
+            e.asignadasLegajo[k] = nuevo;
+            return null;
+        }));
+        casos.add(modificacion("reasignarEmpleadoConMenosRetraso", reasignables, (e, i) -> {
+            int k = i % e.asignadasProyecto.length;
+            e.sistema.reasignarEmpleadoConMenosRetraso(e.asignadasProyecto[k], e.titulos[e.asignadasTitulo[k]]);
+            return null;
+        }));
+        casos.add(modificacion("registrarRetrasoEnTarea", e -> e.asignadasProyecto.length == 0 ? 0 : Integer.MAX_VALUE,
+                (e, i) -> {
+                    int k = i % e.asignadasProyecto.length;
+                    e.sistema.registrarRetrasoEnTarea(e.asignadasProyecto[k], e.titulos[e.asignadasTitulo[k]], 0.5);
+                    return null;
+                }));
+        casos.add(modificacion("agregarTareaEnProyecto", ALTAS, (e, i) -> {
+            e.sistema.agregarTareaEnProyecto(e.sinFinalizar(i), "Extra " + i, "", 1);
+            return null;
+        }));
+        casos.add(modificacion("finalizarTarea", e -> e.asignadasProyecto.length, (e, i) -> {
+            e.sistema.finalizarTarea(e.asignadasProyecto[i], e.titulos[e.asignadasTitulo[i]]);
+            return null;
+        }));
+        casos.add(modificacion("finalizarProyecto", e -> e.sinFinalizar.length, (e, i) -> {
+            e.sistema.finalizarProyecto(e.sinFinalizar[i], "2026-01-31");
+            return null;
+        }));
+
+        casos.add(consulta("costoProyecto", (e, i) -> e.sistema.costoProyecto(e.proyecto(i))));
+        casos.add(consulta("consultarProyecto", (e, i) -> e.sistema.consultarProyecto(e.proyecto(i))));
+        casos.add(consulta("estaFinalizado", (e, i) -> e.sistema.estaFinalizado(e.proyecto(i))));
+        casos.add(consulta("empleadosAsignadosAProyecto", (e, i) -> e.sistema.empleadosAsignadosAProyecto(e.proyecto(i))));
+        casos.add(consulta("tareasProyectoNoAsignadas", (e, i) -> e.sistema.tareasProyectoNoAsignadas(e.sinFinalizar(i))));
+        casos.add(consulta("tareasDeUnProyecto", (e, i) -> e.sistema.tareasDeUnProyecto(e.proyecto(i))));
+        casos.add(consulta("consultarDomicilioProyecto", (e, i) -> e.sistema.consultarDomicilioProyecto(e.proyecto(i))));
+        casos.add(consulta("proyectosFinalizados", (e, i) -> e.sistema.proyectosFinalizados()));
+        casos.add(consulta("proyectosPendientes", (e, i) -> e.sistema.proyectosPendientes()));
+        casos.add(consulta("proyectosActivos", (e, i) -> e.sistema.proyectosActivos()));
+        casos.add(consulta("empleadosNoAsignados", (e, i) -> e.sistema.empleadosNoAsignados()));
+        casos.add(consulta("empleados", (e, i) -> e.sistema.empleados()));
+        casos.add(consulta("consultarCantidadRetrasosEmpleado",
+                (e, i) -> e.sistema.consultarCantidadRetrasosEmpleado(e.legajo(i))));
+        casos.add(consulta("tieneRestrasos", (e, i) -> e.sistema.tieneRestrasos(e.legajo(i))));
+        return casos;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual < 0)
+                throw new IllegalArgumentException("Se esperaba clave=valor: " + arg);
+            opciones.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        int[] empleados = enteros(opciones.getOrDefault("empleados", "100,10000"));
+        int[] proyectos = enteros(opciones.getOrDefault("proyectos", "100,10000"));
+        int[] tareas = enteros(opciones.getOrDefault("tareas", "10"));
+        long calentamiento = Long.parseLong(opciones.getOrDefault("calentamiento", "1000"));
+        long medicion = Long.parseLong(opciones.getOrDefault("medicion", "1000"));
+        int rondas = Integer.parseInt(opciones.getOrDefault("rondas", "5"));
+        String salida = opciones.getOrDefault("salida", "operaciones.json");
+        String envoltorio = opciones.getOrDefault("envoltorio", "ninguno");
+        if (!envoltorio.equals("ninguno") && !envoltorio.equals("instrumentado"))
+            throw new IllegalArgumentException("Envoltorio desconocido: " + envoltorio);
+        int muestreo = envoltorio.equals("instrumentado")
+                ? Integer.parseInt(opciones.getOrDefault("muestreo", "1")) : 0;
+        List<String> elegidos = opciones.containsKey("casos")
+                ? Arrays.asList(opciones.get("casos").split(",")) : null;
+
+        List<String> resultados = new ArrayList<>();
+        for (int e : empleados) {
+            for (int p : proyectos) {
+                for (int t : tareas) {
+                    Map<String, String> parametros = new LinkedHashMap<>();
+                    parametros.put("empleados", String.valueOf(e));
+                    parametros.put("proyectos", String.valueOf(p));
+                    parametros.put("tareas", String.valueOf(t));
+                    parametros.put("envoltorio", envoltorio);
+                    parametros.put("muestreo", String.valueOf(muestreo));
+                    System.out.printf("# empleados=%d proyectos=%d tareas=%d envoltorio=%s muestreo=%d%n",
+                            e, p, t, envoltorio, muestreo);
+
+                    Escenario compartido = null;
+                    for (Caso caso : casos()) {
+                        if (elegidos != null && !elegidos.contains(caso.nombre))
+                            continue;
+                        if (compartido == null && !caso.modifica)
+                            compartido = new Escenario(e, p, t, muestreo);
+                        Escenario escenario = caso.modifica ? new Escenario(e, p, t, muestreo) : compartido;
+                        if (caso.disponibles.applyAsInt(escenario) == 0) {
+                            System.out.printf("%-36s sin argumentos válidos en este escenario%n", caso.nombre);
+                            continue;
+                        }
+                        Corrida corrida = new Corrida(caso, escenario, e, p, t);
+                        corrida.medir(calentamiento);
+                        double[] rondasNs = new double[rondas];
+                        for (int r = 0; r < rondas; r++) {
+                            rondasNs[r] = corrida.medir(medicion);
+                        }
+                        double promedio = Arrays.stream(rondasNs).average().orElse(0);
+                        double error = error(rondasNs, promedio);
+                        System.out.printf(Locale.ROOT, "%-36s %14.1f +- %10.1f ns/op%n", caso.nombre, promedio, error);
+                        resultados.add(json(caso.nombre, parametros, promedio, error, rondasNs));
+                    }
+                }
+            }
+        }
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(salida), StandardCharsets.UTF_8))) {
+            out.println("[");
+            for (int i = 0; i < resultados.size(); i++) {
+                out.print(resultados.get(i));
+                out.println(i + 1 < resultados.size() ? "," : "");
+            }
+            out.println("]");
+        }
+        System.out.println("Resultados en " + salida);
+    }
+
+    // Escenario en uso de un caso y cuántos de sus argumentos válidos ya se usaron;
+    // sigue de una ronda a la otra
+    private static final class Corrida {
+        final Caso caso;
+        final int empleados;
+        final int proyectos;
+        final int tareas;
+        Escenario escenario;
+        int usadas;
+        int disponibles;
+
+        Corrida(Caso caso, Escenario escenario, int empleados, int proyectos, int tareas) {
+            this.caso = caso;
+            this.empleados = empleados;
+            this.proyectos = proyectos;
+            this.tareas = tareas;
+            this.escenario = escenario;
+            this.disponibles = caso.disponibles.applyAsInt(escenario);
+        }
+
+        // Llama a la operación durante duracion ms de tiempo medido y devuelve ns/op. Las
+        // llamadas van de a tandas para no leer el reloj en cada una; si el escenario se
+        // agota se arma otro y ese armado no cuenta
+        double medir(long duracion) throws Exception {
+            long limite = duracion * 1_000_000L;
+            long nanos = 0;
+            long operaciones = 0;
+            Object ultimo = null;
+            while (nanos < limite) {
+                if (usadas == disponibles) {
+                    escenario = new Escenario(empleados, proyectos, tareas, escenario.muestreo);
+                    usadas = 0;
+                    disponibles = caso.disponibles.applyAsInt(escenario);
+                }
+                int tanda = Math.min(64, disponibles - usadas);
+                long inicio = System.nanoTime();
+                for (int k = 0; k < tanda; k++) {
+                    ultimo = caso.llamada.llamar(escenario, usadas + k);
+                }
+                nanos += System.nanoTime() - inicio;
+                usadas += tanda;
+                operaciones += tanda;
+            }
+            sumidero = ultimo;
+            return (double) nanos / operaciones;
+        }
+    }
+
+    private static double error(double[] valores, double promedio) {
+        if (valores.length < 2)
+            return Double.NaN;
+        double suma = 0;
+        for (double v : valores) {
+            suma += (v - promedio) * (v - promedio);
+        }
+        double desvio = Math.sqrt(suma / (valores.length - 1));
+        return 3.29 * desvio / Math.sqrt(valores.length);
+    }
+
+    private static String json(String nombre, Map<String, String> parametros, double puntaje, double error,
+                               double[] rondas) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("  {\"benchmark\": \"benchmark.OperacionesBenchmark.").append(nombre)
+          .append("\", \"mode\": \"avgt\", \"params\": {");
+        int i = 0;
+        for (Map.Entry<String, String> e : parametros.entrySet()) {
+            sb.append(i++ == 0 ? "" : ", ").append('"').append(e.getKey()).append("\": \"")
+              .append(e.getValue()).append('"');
+        }
+        sb.append("}, \"primaryMetric\": {\"score\": ").append(numero(puntaje))
+          .append(", \"scoreError\": ").append(numero(error))
+          .append(", \"scoreUnit\": \"ns/op\", \"rawData\": [[");
+        for (int r = 0; r < rondas.length; r++) {
+            sb.append(r == 0 ? "" : ", ").append(numero(rondas[r]));
+        }
+        return sb.append("]]}}").toString();
+    }
+
+    private static String numero(double valor) {
+        return Double.isNaN(valor) ? "\"NaN\"" : String.format(Locale.ROOT, "%.3f", valor);
+    }
+
+    private static int[] enteros(String lista) {
+        return Arrays.stream(lista.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
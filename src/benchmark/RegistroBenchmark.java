@@ -0,0 +1,95 @@
+package benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import entidades.RegistroDenso;
+
+/**
+ * Compara el HashMap<Integer, ...> que usaba HomeSolution con RegistroDenso
+ * para 10^6 identificadores secuenciales: tiempo de carga, tiempo de búsqueda
+ * al azar y memoria ocupada por la estructura.
+ * Ejecutar con: java -Xms2g -Xmx2g benchmark.RegistroBenchmark
+ */
+public class RegistroBenchmark {
+    private static final int CANTIDAD = 1_000_000;
+    private static final int CONSULTAS = 20_000_000;
+    private static final int RONDAS = 5;
+
+    public static void main(String[] args) {
+        Object valor = new Object();
+        int[] ids = new int[CONSULTAS];
+        Random random = new Random(42);
+        for (int i = 0; i < CONSULTAS; i++) {
+            ids[i] = 1 + random.nextInt(CANTIDAD);
+        }
+
+        long antes = memoriaUsada();
+        long inicio = System.nanoTime();
+        Map<Integer, Object> mapa = new HashMap<>();
+        for (int id = 1; id <= CANTIDAD; id++) {
+            mapa.put(id, valor);
+        }
+        long cargaMapa = System.nanoTime() - inicio;
+        long memoriaMapa = memoriaUsada() - antes;
+
+        antes = memoriaUsada();
+        inicio = System.nanoTime();
+        RegistroDenso<Object> registro = new RegistroDenso<>();
+        for (int id = 1; id <= CANTIDAD; id++) {
+            registro.put(id, valor);
+        }
+        long cargaRegistro = System.nanoTime() - inicio;
+        long memoriaRegistro = memoriaUsada() - antes;
+
+        System.out.printf("Carga de %,d elementos: HashMap %.1f ms, RegistroDenso %.1f ms%n",
+                CANTIDAD, cargaMapa / 1e6, cargaRegistro / 1e6);
+        System.out.printf("Memoria: HashMap %,d bytes (%.1f por elemento), RegistroDenso %,d bytes (%.1f por elemento)%n",
+                memoriaMapa, (double) memoriaMapa / CANTIDAD, memoriaRegistro, (double) memoriaRegistro / CANTIDAD);
+
+        for (int ronda = 1; ronda <= RONDAS; ronda++) {
+            long tiempoMapa = buscarEnMapa(mapa, ids);
+            long tiempoRegistro = buscarEnRegistro(registro, ids);
+            System.out.printf("Ronda %d: HashMap %.2f ns/búsqueda, RegistroDenso %.2f ns/búsqueda%n", ronda,
+                    (double) tiempoMapa / CONSULTAS, (double) tiempoRegistro / CONSULTAS);
+        }
+    }
+
+    private static long buscarEnMapa(Map<Integer, Object> mapa, int[] ids) {
+        long inicio = System.nanoTime();
+        int encontrados = 0;
+        for (int id : ids) {
+            if (mapa.get(id) != null)
+                encontrados++;
+        }
+        long tiempo = System.nanoTime() - inicio;
+        verificar(encontrados, ids.length);
+        return tiempo;
+    }
+
+    private static long buscarEnRegistro(RegistroDenso<Object> registro, int[] ids) {
+        long inicio = System.nanoTime();
+        int encontrados = 0;
+        for (int id : ids) {
+            if (registro.get(id) != null)
+                encontrados++;
+        }
+        long tiempo = System.nanoTime() - inicio;
+        verificar(encontrados, ids.length);
+        return tiempo;
+    }
+
+    private static void verificar(int encontrados, int esperados) {
+        if (encontrados != esperados)
+            throw new IllegalStateException("Faltan elementos: " + encontrados + " de " + esperados);
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,93 @@
+package benchmark;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import entidades.HomeSolution;
+import entidades.HomeSolutionComandos;
+import entidades.HomeSolutionConcurrente;
+import entidades.IHomeSolution;
+import entidades.Traza;
+
+/**
+ * Reproduce una traza grabada con GrabadorSesion (o con GeneradorCarga) sobre un
+ * sistema vacío y muestra throughput y percentiles de latencia por operación.
+ *
+ * En modo rápido las llamadas se hacen una detrás de otra. En modo original se
+ * respeta cuándo se hizo cada una en la grabación, y la latencia se cuenta desde
+ * ese momento programado: si el sistema se atrasa, la espera entra en la medición.
+ * También cuenta las llamadas cuyo resultado (ok o tipo de excepción) no coincide
+ * con el grabado.
+ *
+ * Ejecutar con: java benchmark.ReproductorTraza archivo [modo=rapido|original]
+ *               [implementacion=simple|concurrente|comandos]
+ */
+public class ReproductorTraza {
+    private static volatile Object sumidero;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Uso: java benchmark.ReproductorTraza archivo [modo=rapido|original] "
+                    + "[implementacion=simple|concurrente|comandos]");
+            return;
+        }
+        String modo = "rapido";
+        String implementacion = "simple";
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("modo="))
+                modo = args[i].substring(5);
+            else if (args[i].startsWith("implementacion="))
+                implementacion = args[i].substring(15);
+            else
+                throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+        }
+        boolean original = modo.equals("original");
+        if (!original && !modo.equals("rapido"))
+            throw new IllegalArgumentException("Modo desconocido: " + modo);
+
+        List<Traza.Llamada> llamadas = Traza.leer(Paths.get(args[0]));
+        IHomeSolution sistema = crearSistema(implementacion);
+        Latencias latencias = new Latencias();
+        int distintas = 0;
+        long inicio = System.nanoTime();
+        for (Traza.Llamada llamada : llamadas) {
+            long programada = inicio + llamada.getTiempo();
+            if (original) {
+                long falta;
+                while ((falta = programada - System.nanoTime()) > 0)
+                    LockSupport.parkNanos(falta);
+            }
+            long desde = original ? programada : System.nanoTime();
+            String resultado = "ok";
+            try {
+                sumidero = llamada.getOperacion().ejecutar(sistema, llamada.getArgumentos());
+            } catch (Exception e) {
+                resultado = e.getClass().getSimpleName();
+            }
+            latencias.registrar(llamada.getOperacion(), System.nanoTime() - desde, !resultado.equals("ok"));
+            if (!resultado.equals(llamada.getResultado()))
+                distintas++;
+        }
+        long total = System.nanoTime() - inicio;
+        if (sistema instanceof AutoCloseable)
+            ((AutoCloseable) sistema).close();
+
+        System.out.printf("Traza %s, modo %s, %s%n", args[0], modo, implementacion);
+        latencias.imprimir(System.out, total);
+        System.out.printf("Resultados distintos a los grabados: %d%n", distintas);
+    }
+
+    static IHomeSolution crearSistema(String implementacion) {
+        switch (implementacion) {
+            case "simple":
+                return new HomeSolution();
+            case "concurrente":
+                return new HomeSolutionConcurrente();
+            case "comandos":
+                return new HomeSolutionComandos();
+            default:
+                throw new IllegalArgumentException("Implementación desconocida: " + implementacion);
+        }
+    }
+}
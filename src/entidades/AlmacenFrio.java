@@ -0,0 +1,229 @@
+package entidades;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Almacenamiento en disco de proyectos finalizados.
+ *
+ * Cada proyecto se escribe al final de un archivo de segmento ([largo][registro],
+ * con los textos en línea y los empleados por legajo) y en memoria queda solo un
+ * resumen con número, dirección, costo final y dónde está el registro. Si el
+ * proyecto se vuelve a escribir (por ejemplo al finalizar una tarea) se agrega una
+ * versión nueva y el resumen pasa a apuntar a ella. Cuando las versiones viejas
+ * ocupan más de la mitad del segmento, los registros vigentes se corren al
+ * principio y el archivo se trunca; cada compactación copia a lo sumo lo que se
+ * desperdició desde la anterior.
+ *
+ * Los proyectos que se leen quedan en un caché LRU de tamaño fijo. El costo de un
+ * proyecto guardado acá es el que quedó fijo al finalizarlo (ver Proyecto), el
+ * mismo que tendría en memoria. Todos los métodos son synchronized porque las
+ * consultas también modifican el caché.
+ */
+final class AlmacenFrio implements Closeable {
+    private static final byte FORMATO = 1;
+
+    private final FileChannel segmento;
+    private final RegistroDenso<Resumen> resumenes;
+    private final Map<Integer, Proyecto> cache;
+    private final BufferRegistro registro;
+    private long fin;
+    // bytes de versiones viejas que siguen en el segmento
+    private long basura;
+
+    AlmacenFrio(Path archivo, int capacidadCache) throws IOException {
+        if (capacidadCache < 0)
+            throw new IllegalArgumentException("La capacidad del caché no puede ser negativa.");
+        this.segmento = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.resumenes = new RegistroDenso<>();
+        this.cache = new LinkedHashMap<Integer, Proyecto>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Proyecto> mayor) {
+                return size() > capacidadCache;
+            }
+        };
+        this.registro = new BufferRegistro();
+        this.fin = 0;
+        this.basura = 0;
+    }
+
+    private static final class Resumen {
+        private final int numero;
+        private final String direccion;
+        private final double costo;
+        private final long posicion;
+        private final int largo;
+
+        Resumen(int numero, String direccion, double costo, long posicion, int largo) {
+            this.numero = numero;
+            this.direccion = direccion;
+            this.costo = costo;
+            this.posicion = posicion;
+            this.largo = largo;
+        }
+    }
+
+    synchronized void guardar(Proyecto p) throws IOException {
+        ByteBuffer contenido = serializar(p);
+        int largo = contenido.remaining();
+        ByteBuffer cabecera = ByteBuffer.allocate(4).putInt(0, largo);
+        long posicion = fin;
+        escribir(cabecera, posicion);
+        escribir(contenido, posicion + 4);
+        fin = posicion + 4 + largo;
+        Resumen anterior = resumenes.get(p.getNumero());
+        if (anterior != null)
+            basura += 4 + anterior.largo;
+        resumenes.put(p.getNumero(), new Resumen(p.getNumero(), p.getDireccion(), p.getCostoFinal(),
+                posicion + 4, largo));
+        if (cache.containsKey(p.getNumero()))
+            cache.put(p.getNumero(), p);
+        if (basura > fin / 2)
+            compactar();
+    }
+
+    // Corre los registros vigentes al principio, en el orden en que están: cada uno
+    // va a una posición anterior a la suya, así no pisa a uno que falta mover
+    private void compactar() throws IOException {
+        List<Resumen> vigentes = new ArrayList<>(resumenes.tamanio());
+        for (Resumen r : resumenes) {
+            vigentes.add(r);
+        }
+        vigentes.sort((a, b) -> Long.compare(a.posicion, b.posicion));
+        long destino = 0;
+        for (Resumen r : vigentes) {
+            long desde = r.posicion - 4;
+            if (desde != destino) {
+                ByteBuffer b = ByteBuffer.allocate(4 + r.largo);
+                while (b.hasRemaining()) {
+                    if (segmento.read(b, desde + b.position()) < 0)
+                        throw new IOException("Segmento de proyectos finalizados incompleto.");
+                }
+                b.flip();
+                escribir(b, destino);
+                resumenes.put(r.numero, new Resumen(r.numero, r.direccion, r.costo, destino + 4, r.largo));
+            }
+            destino += 4 + r.largo;
+        }
+        segmento.truncate(destino);
+        fin = destino;
+        basura = 0;
+    }
+
+    synchronized boolean contiene(int numero) {
+        return resumenes.contiene(numero);
+    }
+
+    synchronized String direccion(int numero) {
+        return resumenes.get(numero).direccion;
+    }
+
+    synchronized double costo(int numero) {
+        return resumenes.get(numero).costo;
+    }
+
+    synchronized int cantidad() {
+        return resumenes.tamanio();
+    }
+
+    synchronized int enCache() {
+        return cache.size();
+    }
+
+    // Desde el caché si está; si no, del segmento, y queda en el caché
+    synchronized Proyecto leer(int numero, HomeSolution sistema) throws IOException {
+        Proyecto p = cache.get(numero);
+        if (p == null) {
+            p = leerSinCachear(numero, sistema);
+            cache.put(numero, p);
+        }
+        return p;
+    }
+
+    // Para recorridos completos (instantáneas) que no deben desplazar lo que está en caché
+    synchronized Proyecto leerSinCachear(int numero, HomeSolution sistema) throws IOException {
+        Proyecto p = cache.get(numero);
+        if (p != null)
+            return p;
+        Resumen r = resumenes.get(numero);
+        ByteBuffer b = ByteBuffer.allocate(r.largo);
+        while (b.hasRemaining()) {
+            if (segmento.read(b, r.posicion + b.position()) < 0)
+                throw new IOException("Segmento de proyectos finalizados incompleto.");
+        }
+        b.flip();
+        p = deserializar(b, sistema);
+        p.fijarCosto(r.costo);
+        return p;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        cache.clear();
+        segmento.close();
+    }
+
+    private void escribir(ByteBuffer datos, long posicion) throws IOException {
+        while (datos.hasRemaining()) {
+            posicion += segmento.write(datos, posicion);
+        }
+    }
+
+    private ByteBuffer serializar(Proyecto p) {
+        Cliente c = p.getCliente();
+        registro.empezar(FORMATO).ponerEntero(p.getNumero()).ponerEntero(p.getEstado().ordinal())
+                .ponerTextos(c == null ? null : new String[] {c.getNombre(), c.getEmail(), c.getTelefono()})
+                .ponerTexto(p.getDireccion()).ponerTexto(p.getFechaInicio())
+                .ponerTexto(p.getFechaEstimada()).ponerTexto(p.getFechaReal());
+        registro.ponerEntero(p.getTareas().size());
+        for (Tarea t : p.getTareas()) {
+            registro.ponerTexto(t.getTitulo()).ponerTexto(t.getDescripcion())
+                    .ponerDouble(t.getDiasNecesarios()).ponerDouble(t.obtenerDiasRetraso())
+                    .ponerEnteroONulo(t.estaAsignada() ? t.obtenerEmpleado().getLegajo() : null)
+                    .ponerEntero(t.estaFinalizada() ? 1 : 0);
+        }
+        registro.ponerEntero(p.getHistorialEmpleados().size());
+        for (Empleado e : p.getHistorialEmpleados()) {
+            registro.ponerEntero(e.getLegajo());
+        }
+        return registro.contenido();
+    }
+
+    private static Proyecto deserializar(ByteBuffer b, HomeSolution sistema) throws IOException {
+        if (b.get() != FORMATO)
+            throw new IOException("Formato de proyecto finalizado desconocido.");
+        int numero = b.getInt();
+        Estado estado = Estado.values()[b.getInt()];
+        String[] cliente = BufferRegistro.leerTextos(b);
+        String direccion = BufferRegistro.leerTexto(b);
+        String inicio = BufferRegistro.leerTexto(b);
+        String estimada = BufferRegistro.leerTexto(b);
+        String real = BufferRegistro.leerTexto(b);
+        int cantTareas = b.getInt();
+        List<Tarea> tareas = new ArrayList<>(cantTareas);
+        for (int i = 0; i < cantTareas; i++) {
+            Tarea t = new Tarea(BufferRegistro.leerTexto(b), BufferRegistro.leerTexto(b), b.getDouble());
+            double retraso = b.getDouble();
+            Integer legajo = BufferRegistro.leerEnteroONulo(b);
+            t.restaurar(retraso, legajo == null ? null : sistema.buscarEmpleado(legajo), b.getInt() == 1);
+            tareas.add(t);
+        }
+        int cantHistorial = b.getInt();
+        List<Empleado> historial = new ArrayList<>(cantHistorial);
+        for (int i = 0; i < cantHistorial; i++) {
+            historial.add(sistema.buscarEmpleado(b.getInt()));
+        }
+        Proyecto p = new Proyecto(numero, cliente, direccion, tareas, inicio, estimada);
+        p.restaurar(estado, real, historial);
+        return p;
+    }
+}
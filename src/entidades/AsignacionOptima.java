@@ -0,0 +1,166 @@
+package entidades;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Asignación de tareas a empleados de costo total mínimo (método húngaro por
+ * caminos de aumento más cortos, O(n²·m) para n filas y m columnas, n <= m).
+ *
+ * Darle una tarea a un empleado cuesta lo que él cobraría por ella
+ * (calcularPago de la duración de la tarea) más una penalización por cada retraso
+ * que ya tiene. Si hay más tareas que empleados se resuelve la matriz traspuesta:
+ * cada empleado recibe una tarea y las demás quedan sin asignar.
+ *
+ * La matriz de costos se arma en paralelo, una fila por tarea. La resolución es
+ * secuencial: cada camino de aumento depende de los potenciales del anterior y los
+ * barridos por columna son demasiado cortos para repartirlos entre hilos.
+ *
+ * La matriz es un único double[] de filas * columnas, así que tiene un tope de
+ * MAXIMO_CELDAS (128 MB, unas 4096 tareas por 4096 empleados).
+ */
+public class AsignacionOptima {
+    public static final int MAXIMO_CELDAS = 1 << 24;
+
+    private final int filas;
+    private final int columnas;
+    private final boolean traspuesta;
+    private final double[] costos;
+
+    public AsignacionOptima(List<Tarea> tareas, List<Empleado> empleados, double penalizacion) {
+        if (penalizacion < 0)
+            throw new IllegalArgumentException("La penalización no puede ser negativa.");
+        int cantTareas = tareas.size();
+        int cantEmpleados = empleados.size();
+        if ((long) cantTareas * cantEmpleados > MAXIMO_CELDAS)
+            throw new IllegalArgumentException("Demasiadas combinaciones para asignar de una vez: "
+                    + cantTareas + " tareas por " + cantEmpleados + " empleados (máximo "
+                    + MAXIMO_CELDAS + ").");
+        this.traspuesta = cantTareas > cantEmpleados;
+        this.filas = traspuesta ? cantEmpleados : cantTareas;
+        this.columnas = traspuesta ? cantTareas : cantEmpleados;
+        this.costos = new double[filas * columnas];
+
+        Tarea[] t = tareas.toArray(new Tarea[0]);
+        Empleado[] e = empleados.toArray(new Empleado[0]);
+        IntStream.range(0, cantTareas).parallel().forEach(i -> {
+            double duracion = t[i].obtenerDuracion();
+            for (int j = 0; j < cantEmpleados; j++) {
+                double costo = e[j].calcularPago(duracion) + penalizacion * e[j].getCantidadRetrasos();
+                if (traspuesta)
+                    costos[j * columnas + i] = costo;
+                else
+                    costos[i * columnas + j] = costo;
+            }
+        });
+    }
+
+    /**
+     * @return Para cada tarea, la posición en la lista de empleados de quien la
+     *         recibe, o -1 si queda sin asignar.
+     */
+    public int[] resolver() {
+        int[] columnaDeFila = hungaro();
+        if (!traspuesta)
+            return columnaDeFila;
+        int[] empleadoDeTarea = new int[columnas];
+        Arrays.fill(empleadoDeTarea, -1);
+        for (int fila = 0; fila < filas; fila++) {
+            empleadoDeTarea[columnaDeFila[fila]] = fila;
+        }
+        return empleadoDeTarea;
+    }
+
+    // Camino de aumento más corto desde cada fila (Dijkstra sobre los costos reducidos
+    // costo - v, al estilo Jonker-Volgenant). Las columnas se reacomodan en "orden" en tres
+    // zonas: [0, listas) ya tienen distancia definitiva, [listas, frente) están a la distancia
+    // mínima actual y [frente, columnas) falta alcanzarlas. Las del mínimo se revisan todas
+    // juntas y, si alguna está libre, el camino termina ahí; con costos tan parejos como
+    // pago x duración eso corta la mayoría de los caminos enseguida.
+    private int[] hungaro() {
+        int[] columnaDeFila = new int[filas];
+        int[] filaDeColumna = new int[columnas];
+        int[] previa = new int[columnas];
+        int[] orden = new int[columnas];
+        double[] v = new double[columnas];
+        double[] distancia = new double[columnas];
+        Arrays.fill(filaDeColumna, -1);
+
+        for (int libre = 0; libre < filas; libre++) {
+            int base = libre * columnas;
+            for (int j = 0; j < columnas; j++) {
+                distancia[j] = costos[base + j] - v[j];
+                previa[j] = libre;
+                orden[j] = j;
+            }
+            int listas = 0;
+            int frente = 0;
+            int ultimaDefinitiva = -1;
+            int destino = -1;
+            double minimo = 0;
+
+            while (destino == -1) {
+                if (frente == listas) {
+                    ultimaDefinitiva = listas - 1;
+                    minimo = distancia[orden[frente++]];
+                    for (int k = frente; k < columnas; k++) {
+                        int j = orden[k];
+                        double d = distancia[j];
+                        if (d <= minimo) {
+                            if (d < minimo) {
+                                frente = listas;
+                                minimo = d;
+                            }
+                            orden[k] = orden[frente];
+                            orden[frente++] = j;
+                        }
+                    }
+                    for (int k = listas; k < frente; k++) {
+                        if (filaDeColumna[orden[k]] < 0) {
+                            destino = orden[k];
+                            break;
+                        }
+                    }
+                    if (destino != -1)
+                        break;
+                }
+
+                int j1 = orden[listas++];
+                int fila = filaDeColumna[j1];
+                int baseFila = fila * columnas;
+                double h = costos[baseFila + j1] - v[j1] - minimo;
+                for (int k = frente; k < columnas; k++) {
+                    int j = orden[k];
+                    double d = costos[baseFila + j] - v[j] - h;
+                    if (d < distancia[j]) {
+                        previa[j] = fila;
+                        if (d == minimo) {
+                            if (filaDeColumna[j] < 0) {
+                                destino = j;
+                                break;
+                            }
+                            orden[k] = orden[frente];
+                            orden[frente++] = j;
+                        }
+                        distancia[j] = d;
+                    }
+                }
+            }
+
+            for (int k = 0; k <= ultimaDefinitiva; k++) {
+                int j = orden[k];
+                v[j] += distancia[j] - minimo;
+            }
+            int fila;
+            do {
+                fila = previa[destino];
+                filaDeColumna[destino] = fila;
+                int j = destino;
+                destino = columnaDeFila[fila];
+                columnaDeFila[fila] = j;
+            } while (fila != libre);
+        }
+        return columnaDeFila;
+    }
+}
@@ -0,0 +1,92 @@
+package entidades;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice inverso de empleado a las tareas de las que es responsable.
+ * Guarda todas las tareas que tienen al empleado como responsable (incluidas
+ * las finalizadas, porque siguen sumando en el costo) y, aparte, la última
+ * asignación para responder en O(1) dónde está trabajando.
+ *
+ * Los cambios se hacen con el monitor del índice; la última asignación está en
+ * un mapa concurrente y se consulta sin locks.
+ */
+public class AsignacionesEmpleados implements ObservadorPago {
+    private Map<Integer, List<Tupla<Proyecto, Tarea>>> tareasPorLegajo;
+    private Map<Integer, Tupla<Proyecto, Tarea>> ultimaAsignacion;
+
+    public AsignacionesEmpleados() {
+        this.tareasPorLegajo = new HashMap<>();
+        this.ultimaAsignacion = new ConcurrentHashMap<>();
+    }
+
+    synchronized void registrar(Empleado e, Proyecto p, Tarea t) {
+        Tupla<Proyecto, Tarea> asignacion = new Tupla<>(p, t);
+        tareasPorLegajo.computeIfAbsent(e.getLegajo(), k -> new ArrayList<>()).add(asignacion);
+        ultimaAsignacion.put(e.getLegajo(), asignacion);
+    }
+
+    // Tarea que ya no está en curso (leída de una instantánea): cuenta para el pago
+    // pero no cambia dónde está trabajando el empleado
+    synchronized void registrarHistorica(Empleado e, Proyecto p, Tarea t) {
+        tareasPorLegajo.computeIfAbsent(e.getLegajo(), k -> new ArrayList<>()).add(new Tupla<>(p, t));
+    }
+
+    synchronized void quitar(Empleado e, Proyecto p, Tarea t) {
+        List<Tupla<Proyecto, Tarea>> tareas = tareasPorLegajo.get(e.getLegajo());
+        if (tareas == null)
+            return;
+        Iterator<Tupla<Proyecto, Tarea>> it = tareas.iterator();
+        while (it.hasNext()) {
+            Tupla<Proyecto, Tarea> asignacion = it.next();
+            if (asignacion.getValor1() == p && asignacion.getValor2() == t) {
+                it.remove();
+                break;
+            }
+        }
+        Tupla<Proyecto, Tarea> ultima = ultimaAsignacion.get(e.getLegajo());
+        if (ultima != null && ultima.getValor1() == p && ultima.getValor2() == t)
+            ultimaAsignacion.remove(e.getLegajo());
+    }
+
+    // Saca todas las tareas del proyecto, por ejemplo al pasarlo a disco
+    synchronized void quitarProyecto(Proyecto p) {
+        for (Tarea t : p.getTareas()) {
+            if (t.estaAsignada())
+                quitar(t.obtenerEmpleado(), p, t);
+        }
+    }
+
+    // Proyecto y tarea en los que trabaja hoy el empleado, o null si está libre
+    public Tupla<Proyecto, Tarea> actual(int legajo) {
+        Tupla<Proyecto, Tarea> ultima = ultimaAsignacion.get(legajo);
+        if (ultima == null || ultima.getValor2().estaFinalizada() || ultima.getValor1().estaFinalizado())
+            return null;
+        return ultima;
+    }
+
+    // Copia: se puede recorrer mientras otro hilo asigna o quita tareas
+    public synchronized List<Tupla<Proyecto, Tarea>> tareasDe(int legajo) {
+        List<Tupla<Proyecto, Tarea>> tareas = tareasPorLegajo.get(legajo);
+        return tareas == null ? new ArrayList<>() : new ArrayList<>(tareas);
+    }
+
+    // Se recontabilizan solo las tareas del empleado; el costo de cada proyecto se
+    // actualiza después, cuando ya están al día todas sus tareas
+    @Override
+    public void pagoModificado(Empleado e) {
+        // se recorre una copia, sin el monitor: cada proyecto se actualiza con el suyo
+        List<Tupla<Proyecto, Tarea>> tareas = tareasDe(e.getLegajo());
+        for (Tupla<Proyecto, Tarea> asignacion : tareas) {
+            asignacion.getValor1().contabilizar(asignacion.getValor2());
+        }
+        for (Tupla<Proyecto, Tarea> asignacion : tareas) {
+            asignacion.getValor1().actualizarCosto(asignacion.getValor2());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package entidades;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffer reutilizable para armar un registro binario, y lectura de los mismos
+ * campos desde un ByteBuffer. Los textos van como largo + UTF-8 y los arreglos
+ * como cantidad + elementos; un largo -1 representa null.
+ */
+final class BufferRegistro {
+    private ByteBuffer datos = ByteBuffer.allocate(256);
+
+    BufferRegistro empezar(byte tipo) {
+        datos.clear();
+        datos.put(tipo);
+        return this;
+    }
+
+    // Los datos escritos, listos para leer; se invalidan con el próximo empezar
+    ByteBuffer contenido() {
+        ByteBuffer contenido = datos.duplicate();
+        contenido.flip();
+        return contenido;
+    }
+
+    BufferRegistro ponerEntero(int valor) {
+        lugar(4).putInt(valor);
+        return this;
+    }
+
+    BufferRegistro ponerEnteroONulo(Integer valor) {
+        lugar(1).put((byte) (valor == null ? 0 : 1));
+        return valor == null ? this : ponerEntero(valor);
+    }
+
+    BufferRegistro ponerDouble(double valor) {
+        lugar(8).putDouble(valor);
+        return this;
+    }
+
+    BufferRegistro ponerTexto(String texto) {
+        if (texto == null)
+            return ponerEntero(-1);
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        ponerEntero(bytes.length);
+        lugar(bytes.length).put(bytes);
+        return this;
+    }
+
+    BufferRegistro ponerTextos(String[] textos) {
+        if (textos == null)
+            return ponerEntero(-1);
+        ponerEntero(textos.length);
+        for (String t : textos) {
+            ponerTexto(t);
+        }
+        return this;
+    }
+
+    BufferRegistro ponerDoubles(double[] valores) {
+        if (valores == null)
+            return ponerEntero(-1);
+        ponerEntero(valores.length);
+        for (double v : valores) {
+            ponerDouble(v);
+        }
+        return this;
+    }
+
+    private ByteBuffer lugar(int bytes) {
+        if (datos.remaining() < bytes) {
+            ByteBuffer mayor = ByteBuffer.allocate(Math.max(datos.capacity() * 2, datos.position() + bytes));
+            datos.flip();
+            mayor.put(datos);
+            datos = mayor;
+        }
+        return datos;
+    }
+
+    static Integer leerEnteroONulo(ByteBuffer b) {
+        return b.get() == 0 ? null : b.getInt();
+    }
+
+    static String leerTexto(ByteBuffer b) {
+        int largo = b.getInt();
+        if (largo < 0)
+            return null;
+        byte[] bytes = new byte[largo];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static String[] leerTextos(ByteBuffer b) {
+        int cantidad = b.getInt();
+        if (cantidad < 0)
+            return null;
+        String[] textos = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            textos[i] = leerTexto(b);
+        }
+        return textos;
+    }
+
+    static double[] leerDoubles(ByteBuffer b) {
+        int cantidad = b.getInt();
+        if (cantidad < 0)
+            return null;
+        double[] valores = new double[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            valores[i] = b.getDouble();
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,163 @@
+package entidades;
+
+import java.util.Arrays;
+
+/**
+ * Días reservados de cada empleado sobre un horizonte de HORIZONTE días, un bit
+ * por día. Las filas de todos los empleados van seguidas en un único long[]
+ * (PALABRAS longs por legajo), así consultar un rango para toda la planta es
+ * recorrer el arreglo con una o dos máscaras por empleado.
+ *
+ * Cada fila tiene su propio origen: arranca en el primer día que reserva el
+ * empleado (redondeado a 64) y se corre de a palabras, hacia atrás o hacia
+ * adelante, solo sobre palabras vacías de esa fila. Una reserva que no entra en el
+ * horizonte sin perder otra se recorta: los días que quedan afuera se toman como
+ * libres. Así una reserva lejana nunca borra las de otros empleados ni las propias.
+ * Todos los métodos usan el monitor del calendario: reservan proyectos de franjas
+ * distintas.
+ */
+final class CalendarioEmpleados {
+    static final int PALABRAS = 16;
+    static final int HORIZONTE = PALABRAS * 64;
+    private static final int SIN_ORIGEN = Integer.MIN_VALUE;
+
+    private long[] dias = new long[16 * PALABRAS];
+    // día de época del bit 0 de cada fila, múltiplo de 64, o SIN_ORIGEN si está vacía
+    private int[] origenes = sinOrigen(16);
+
+    // Marca [desde, hasta) como ocupados para el empleado
+    synchronized void reservar(int legajo, int desde, int hasta) {
+        if (hasta <= desde)
+            return;
+        asegurarCapacidad(legajo);
+        int base = legajo * PALABRAS;
+        int origen = origenes[legajo];
+        if (origen == SIN_ORIGEN)
+            origen = Math.floorDiv(desde, 64) * 64;
+        if (desde < origen) {
+            int palabras = (int) Math.min(((long) origen - desde + 63) / 64, vaciasAlFinal(base));
+            correrAtras(base, palabras);
+            origen -= palabras * 64;
+        }
+        if ((long) hasta - origen > HORIZONTE) {
+            // sin pasar de largo el comienzo de la reserva nueva
+            long necesarias = ((long) hasta - origen - HORIZONTE + 63) / 64;
+            int hastaDesde = Math.max(0, Math.floorDiv(desde - origen, 64));
+            int palabras = (int) Math.min(necesarias, Math.min(vaciasAlPrincipio(base), hastaDesde));
+            correrAdelante(base, palabras);
+            origen += palabras * 64;
+        }
+        origenes[legajo] = origen;
+        desde = Math.max(desde, origen);
+        hasta = (int) Math.min(hasta, (long) origen + HORIZONTE);
+        if (hasta <= desde)
+            return;
+        int primero = desde - origen;
+        int ultimo = hasta - origen - 1;
+        for (int palabra = primero >>> 6; palabra <= ultimo >>> 6; palabra++) {
+            dias[base + palabra] |= mascara(palabra, primero, ultimo);
+        }
+    }
+
+    // Deja libre toda la fila del empleado
+    synchronized void liberar(int legajo) {
+        if (legajo < origenes.length) {
+            Arrays.fill(dias, legajo * PALABRAS, (legajo + 1) * PALABRAS, 0);
+            origenes[legajo] = SIN_ORIGEN;
+        }
+    }
+
+    /**
+     * Primer legajo entre desdeLegajo y hastaLegajo (inclusive) que no tiene ningún
+     * día reservado en [desde, hasta), o 0 si no hay ninguno.
+     */
+    synchronized int siguienteLibre(int desdeLegajo, int hastaLegajo, int desde, int hasta) {
+        int conFila = Math.min(hastaLegajo, origenes.length - 1);
+        for (int legajo = desdeLegajo; legajo <= conFila; legajo++) {
+            if (libre(legajo, desde, hasta))
+                return legajo;
+        }
+        // los legajos sin fila todavía no reservaron nada
+        int sinFila = Math.max(desdeLegajo, conFila + 1);
+        return sinFila <= hastaLegajo ? sinFila : 0;
+    }
+
+    private boolean libre(int legajo, int desde, int hasta) {
+        int origen = origenes[legajo];
+        if (origen == SIN_ORIGEN)
+            return true;
+        desde = Math.max(desde, origen);
+        hasta = (int) Math.min(hasta, (long) origen + HORIZONTE);
+        if (hasta <= desde)
+            return true;
+        int base = legajo * PALABRAS;
+        int primero = desde - origen;
+        int ultimo = hasta - origen - 1;
+        int primeraPalabra = primero >>> 6;
+        int ultimaPalabra = ultimo >>> 6;
+        if ((dias[base + primeraPalabra] & mascara(primeraPalabra, primero, ultimo)) != 0
+                || (dias[base + ultimaPalabra] & mascara(ultimaPalabra, primero, ultimo)) != 0)
+            return false;
+        for (int palabra = primeraPalabra + 1; palabra < ultimaPalabra; palabra++) {
+            if (dias[base + palabra] != 0)
+                return false;
+        }
+        return true;
+    }
+
+    // Bits de la palabra que caen entre los días primero y ultimo (relativos al origen)
+    private static long mascara(int palabra, int primero, int ultimo) {
+        long mascara = -1L;
+        if (palabra == primero >>> 6)
+            mascara &= -1L << (primero & 63);
+        if (palabra == ultimo >>> 6)
+            mascara &= -1L >>> (63 - (ultimo & 63));
+        return mascara;
+    }
+
+    private int vaciasAlPrincipio(int base) {
+        int vacias = 0;
+        while (vacias < PALABRAS && dias[base + vacias] == 0)
+            vacias++;
+        return vacias;
+    }
+
+    private int vaciasAlFinal(int base) {
+        int vacias = 0;
+        while (vacias < PALABRAS && dias[base + PALABRAS - 1 - vacias] == 0)
+            vacias++;
+        return vacias;
+    }
+
+    // La fila pierde sus primeras palabras, que están vacías
+    private void correrAdelante(int base, int palabras) {
+        if (palabras == 0)
+            return;
+        System.arraycopy(dias, base + palabras, dias, base, PALABRAS - palabras);
+        Arrays.fill(dias, base + PALABRAS - palabras, base + PALABRAS, 0);
+    }
+
+    // La fila pierde sus últimas palabras, que están vacías
+    private void correrAtras(int base, int palabras) {
+        if (palabras == 0)
+            return;
+        System.arraycopy(dias, base, dias, base + palabras, PALABRAS - palabras);
+        Arrays.fill(dias, base, base + palabras, 0);
+    }
+
+    private void asegurarCapacidad(int legajo) {
+        if (legajo < origenes.length)
+            return;
+        int filas = Math.max(legajo + 1, origenes.length * 3 / 2);
+        int anteriores = origenes.length;
+        dias = Arrays.copyOf(dias, filas * PALABRAS);
+        origenes = Arrays.copyOf(origenes, filas);
+        Arrays.fill(origenes, anteriores, filas, SIN_ORIGEN);
+    }
+
+    private static int[] sinOrigen(int filas) {
+        int[] origenes = new int[filas];
+        Arrays.fill(origenes, SIN_ORIGEN);
+        return origenes;
+    }
+}
@@ -0,0 +1,54 @@
+package entidades;
+
+/**
+ * Datos para registrar un proyecto dentro de un lote; son los mismos
+ * parámetros que recibe IHomeSolution.registrarProyecto.
+ */
+public class DatosProyecto {
+    private String[] titulos;
+    private String[] descripcion;
+    private double[] dias;
+    private String domicilio;
+    private String[] cliente;
+    private String inicio;
+    private String fin;
+
+    public DatosProyecto(String[] titulos, String[] descripcion, double[] dias,
+                         String domicilio, String[] cliente, String inicio, String fin) {
+        this.titulos = titulos;
+        this.descripcion = descripcion;
+        this.dias = dias;
+        this.domicilio = domicilio;
+        this.cliente = cliente;
+        this.inicio = inicio;
+        this.fin = fin;
+    }
+
+    public String[] getTitulos() {
+        return titulos;
+    }
+
+    public String[] getDescripcion() {
+        return descripcion;
+    }
+
+    public double[] getDias() {
+        return dias;
+    }
+
+    public String getDomicilio() {
+        return domicilio;
+    }
+
+    public String[] getCliente() {
+        return cliente;
+    }
+
+    public String getInicio() {
+        return inicio;
+    }
+
+    public String getFin() {
+        return fin;
+    }
+}
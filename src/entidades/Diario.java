@@ -0,0 +1,265 @@
+package entidades;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Archivo de solo agregado con registros binarios [largo][crc32][datos], precedidos
+ * por el número de generación del diario.
+ *
+ * Las escrituras se agrupan: los registros se acumulan en memoria y un hilo
+ * aparte toma todo lo acumulado, lo escribe y hace un único force, así una ráfaga
+ * de operaciones comparte el mismo fsync. Al abrir se vuelven a leer todos los
+ * registros; el primero incompleto o con crc distinto marca el final (una
+ * escritura cortada por una caída) y el archivo se trunca ahí.
+ *
+ * Al rotar (después de guardar una instantánea) el diario se reemplaza por uno vacío
+ * de la generación siguiente; la instantánea guarda qué generación y hasta dónde cubre.
+ */
+final class Diario implements AutoCloseable {
+    private static final int CABECERA = 8;
+    private static final int CABECERA_ARCHIVO = 8;
+    private static final int LARGO_MAXIMO = 64 << 20;
+
+    private final Path archivo;
+    private FileChannel canal;
+    private long generacion;
+    private final CRC32 crc;
+    private final Thread escritor;
+    private ByteBuffer pendiente;
+    private ByteBuffer enEscritura;
+    private long agregados;
+    private long durables;
+    private boolean abierto;
+    private IOException error;
+
+    private Diario(Path archivo, FileChannel canal, long generacion) {
+        this.archivo = archivo;
+        this.canal = canal;
+        this.generacion = generacion;
+        this.crc = new CRC32();
+        this.pendiente = ByteBuffer.allocateDirect(1 << 16);
+        this.enEscritura = ByteBuffer.allocateDirect(1 << 16);
+        this.abierto = true;
+        this.escritor = new Thread(this::escribir, "HomeSolution-diario");
+        escritor.setDaemon(true);
+    }
+
+    // Abre (o crea, con generación 0) el diario; después hay que llamar a reproducir
+    static Diario abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() < CABECERA_ARCHIVO) {
+                canal.truncate(0);
+                escribirCabecera(canal, 0);
+            }
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA_ARCHIVO);
+            while (cabecera.hasRemaining() && canal.read(cabecera, cabecera.position()) >= 0) {
+            }
+            return new Diario(archivo, canal, cabecera.getLong(0));
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private static void escribirCabecera(FileChannel canal, long generacion) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA_ARCHIVO).putLong(0, generacion);
+        while (cabecera.hasRemaining()) {
+            canal.write(cabecera, cabecera.position());
+        }
+        canal.force(true);
+    }
+
+    long generacion() {
+        return generacion;
+    }
+
+    // Pasa a aplicar, en orden, cada registro válido a partir de la posición desde
+    // (0 para todo el diario), descarta lo que sigue al último válido y empieza a escribir
+    void reproducir(long desde, Consumer<ByteBuffer> aplicar) throws IOException {
+        long inicio = Math.max(desde, CABECERA_ARCHIVO);
+        if (inicio > canal.size())
+            throw new IOException("La posición " + desde + " está fuera del diario.");
+        long validos = leerRegistros(inicio, aplicar);
+        if (validos < canal.size())
+            canal.truncate(validos);
+        canal.position(validos);
+        escritor.start();
+    }
+
+    private long leerRegistros(long desde, Consumer<ByteBuffer> aplicar) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(1 << 20);
+        long leidoHasta = desde;
+        long validos = desde;
+        while (true) {
+            int leidos = canal.read(b, leidoHasta);
+            if (leidos > 0)
+                leidoHasta += leidos;
+            b.flip();
+            boolean corrupto = false;
+            while (b.remaining() >= CABECERA) {
+                int inicio = b.position();
+                int largo = b.getInt(inicio);
+                if (largo < 0 || largo > LARGO_MAXIMO) {
+                    corrupto = true;
+                    break;
+                }
+                if (b.remaining() < CABECERA + largo)
+                    break;
+                ByteBuffer datos = b.slice(inicio + CABECERA, largo);
+                crc.reset();
+                crc.update(datos.duplicate());
+                if ((int) crc.getValue() != b.getInt(inicio + 4)) {
+                    corrupto = true;
+                    break;
+                }
+                aplicar.accept(datos);
+                b.position(inicio + CABECERA + largo);
+                validos += CABECERA + largo;
+            }
+            if (corrupto || leidos < 0)
+                return validos;
+            b.compact();
+            if (!b.hasRemaining()) {
+                ByteBuffer mayor = ByteBuffer.allocate(b.capacity() * 2);
+                b.flip();
+                mayor.put(b);
+                b = mayor;
+            }
+        }
+    }
+
+    // Copia el registro al lote pendiente; devuelve su número para esperar a que sea durable
+    synchronized long agregar(ByteBuffer registro) {
+        if (!abierto)
+            throw new IllegalStateException("El diario está cerrado.");
+        int largo = registro.remaining();
+        if (pendiente.remaining() < CABECERA + largo) {
+            ByteBuffer mayor = ByteBuffer.allocateDirect(Math.max(pendiente.capacity() * 2,
+                    pendiente.position() + CABECERA + largo));
+            pendiente.flip();
+            mayor.put(pendiente);
+            pendiente = mayor;
+        }
+        crc.reset();
+        crc.update(registro.duplicate());
+        pendiente.putInt(largo).putInt((int) crc.getValue()).put(registro);
+        notifyAll();
+        return ++agregados;
+    }
+
+    // Lanza si el diario ya no acepta registros: está cerrado o falló una escritura
+    synchronized void verificar() {
+        if (error != null)
+            throw new IllegalStateException("No se pudo escribir el diario.", error);
+        if (!abierto)
+            throw new IllegalStateException("El diario está cerrado.");
+    }
+
+    // Espera a que todo lo agregado esté en disco y devuelve hasta dónde llega el diario
+    synchronized long vaciar() throws IOException {
+        esperar(agregados);
+        return canal.position();
+    }
+
+    // Reemplaza el diario por uno vacío de la generación siguiente. Quien llama tiene que
+    // haber vaciado el diario y no agregar registros mientras tanto
+    synchronized void rotar() throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            escribirCabecera(nuevo, generacion + 1);
+            nuevo.position(CABECERA_ARCHIVO);
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            nuevo.close();
+            throw e;
+        }
+        canal.close();
+        canal = nuevo;
+        generacion++;
+    }
+
+    // Espera a que el registro esté escrito y forzado a disco
+    synchronized void esperar(long numero) {
+        boolean interrumpido = false;
+        while (durables < numero && error == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido)
+            Thread.currentThread().interrupt();
+        if (durables < numero)
+            throw new IllegalStateException("No se pudo escribir el diario.", error);
+    }
+
+    private void escribir() {
+        while (true) {
+            long hasta;
+            FileChannel destino;
+            synchronized (this) {
+                while (pendiente.position() == 0 && abierto) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pendiente.position() == 0)
+                    return;
+                ByteBuffer lleno = pendiente;
+                pendiente = enEscritura;
+                enEscritura = lleno;
+                hasta = agregados;
+                destino = canal;
+            }
+            try {
+                enEscritura.flip();
+                while (enEscritura.hasRemaining()) {
+                    destino.write(enEscritura);
+                }
+                destino.force(false);
+                enEscritura.clear();
+            } catch (IOException e) {
+                synchronized (this) {
+                    error = e;
+                    abierto = false;
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                durables = hasta;
+                notifyAll();
+            }
+        }
+    }
+
+    // Escribe lo pendiente y cierra el archivo
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            abierto = false;
+            notifyAll();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+}
@@ -4,8 +4,11 @@ package entidades;
 public abstract class Empleado {
     protected String nombre;
     protected int legajo;
-    protected boolean ocupado;
-    protected int cantidadRetrasos;
+    // ocupación y retrasos cambian con el monitor del índice de libres (ver monitor())
+    protected volatile boolean ocupado;
+    protected volatile int cantidadRetrasos;
+    private EmpleadosLibres libres;
+    private ObservadorPago observadorPago;
 
     public Empleado(String nombre, int legajo) {
         if (nombre == null || nombre.isEmpty() || legajo <= 0)
@@ -16,12 +19,41 @@ public abstract class Empleado {
         this.cantidadRetrasos = 0;
     }
 
+    // Vincula al empleado con el índice de libres del sistema
+    void registrarEn(EmpleadosLibres libres) {
+        this.libres = libres;
+        if (!ocupado)
+            libres.agregar(this);
+    }
+
+    // Restaura el estado guardado en una instantánea; se llama antes de registrarEn
+    void restaurar(int cantidadRetrasos, boolean ocupado) {
+        this.cantidadRetrasos = cantidadRetrasos;
+        this.ocupado = ocupado;
+    }
+
+    void observarPago(ObservadorPago observador) {
+        this.observadorPago = observador;
+    }
+
+    // Ocupa al empleado de forma atómica: si otro hilo lo tomó antes, falla
     public void asignar() {
-        ocupado = true;
+        synchronized (monitor()) {
+            if (ocupado)
+                throw new IllegalArgumentException("El empleado no está disponible");
+            if (libres != null)
+                libres.quitar(this);
+            ocupado = true;
+        }
     }
 
     public void liberar() {
-        ocupado = false;
+        synchronized (monitor()) {
+            boolean estabaOcupado = ocupado;
+            ocupado = false;
+            if (estabaOcupado && libres != null)
+                libres.agregar(this);
+        }
     }
 
     public boolean estaLibre() {
@@ -29,7 +61,30 @@ public abstract class Empleado {
     }
 
     public void registrarRetraso() {
-        cantidadRetrasos++;
+        boolean cambiaPago;
+        synchronized (monitor()) {
+            // la cantidad de retrasos es parte de la clave del índice: se saca y se vuelve a agregar
+            boolean indexado = !ocupado && libres != null;
+            cambiaPago = pagoCambiaConRetraso();
+            if (indexado)
+                libres.quitar(this);
+            cantidadRetrasos++;
+            if (indexado)
+                libres.agregar(this);
+        }
+        // fuera del monitor: el aviso recorre y actualiza otros proyectos
+        if (cambiaPago)
+            notificarCambioDePago();
+    }
+
+    // Con el monitor de los libres, elegir un empleado y ocuparlo es una sola operación
+    private Object monitor() {
+        return libres != null ? libres : this;
+    }
+
+    // Indica si el próximo retraso modifica lo que cobra el empleado
+    public boolean pagoCambiaConRetraso() {
+        return false;
     }
 
     public int getCantidadRetrasos() {
@@ -48,9 +103,16 @@ public abstract class Empleado {
         return ocupado;
     }
 
-    // Método abstracto: se sobreescribe en subclases
+    protected void notificarCambioDePago() {
+        if (observadorPago != null)
+            observadorPago.pagoModificado(this);
+    }
+
+    // Métodos abstractos: se sobreescriben en subclases
     public abstract double calcularPago(double dias);
 
+    public abstract void modificarValor(double valor);
+
     @Override
     public String toString() {
         return legajo + " - " + nombre + " (Retrasos: " + cantidadRetrasos + ")";
@@ -24,6 +24,12 @@ public class EmpleadoContratado extends Empleado {
         if (valorHora <= 0)
             throw new IllegalArgumentException("Valor hora inválido.");
         this.valorHora = valorHora;
+        notificarCambioDePago();
+    }
+
+    @Override
+    public void modificarValor(double valor) {
+        setValorHora(valor);
     }
 
     @Override
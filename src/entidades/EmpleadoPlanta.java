@@ -9,12 +9,17 @@ public class EmpleadoPlanta extends Empleado {
         super(nombre, legajo);
         if (valorDia <= 0)
             throw new IllegalArgumentException("Valor día inválido.");
-        if (!categoria.equals("INICIAL") && !categoria.equals("TÉCNICO") && !categoria.equals("EXPERTO"))
+        if (!categoriaValida(categoria))
             throw new IllegalArgumentException("Categoría inválida.");
         this.valorDia = valorDia;
         this.categoria = categoria;
     }
 
+    // Las mismas categorías que ofrece FormularioEmpleado
+    public static boolean categoriaValida(String categoria) {
+        return "INICIAL".equals(categoria) || "TECNICO".equals(categoria) || "EXPERTO".equals(categoria);
+    }
+
     @Override
     public double calcularPago(double diasTrabajados) {
         double pago = valorDia * diasTrabajados;
@@ -25,6 +30,12 @@ public class EmpleadoPlanta extends Empleado {
         return pago;
     }
 
+    // El primer retraso le hace perder el adicional del 2%
+    @Override
+    public boolean pagoCambiaConRetraso() {
+        return cantidadRetrasos == 0;
+    }
+
     public double getValorDia() {
         return valorDia;
     }
@@ -33,6 +44,12 @@ public class EmpleadoPlanta extends Empleado {
         if (valorDia <= 0)
             throw new IllegalArgumentException("Valor día inválido.");
         this.valorDia = valorDia;
+        notificarCambioDePago();
+    }
+
+    @Override
+    public void modificarValor(double valor) {
+        setValorDia(valor);
     }
 
     public String getCategoria() {
@@ -0,0 +1,91 @@
+package entidades;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice de los empleados que no tienen tarea asignada.
+ * Se mantiene ordenado de dos formas: por cantidad de retrasos (desempatando
+ * por legajo) para las asignaciones "menos retraso", y por legajo para la
+ * asignación de cualquier empleado libre. Lo actualiza el propio Empleado
+ * cuando se asigna, se libera o registra un retraso.
+ *
+ * Los cambios y las elecciones se hacen con el monitor del índice, una sección
+ * corta que también usa Empleado para ocuparse; el listado por legajo y la
+ * cantidad se leen sin locks (los conjuntos son concurrentes), así un listado
+ * no espera a nadie y ve cada empleado como estaba al pasar por él.
+ */
+public class EmpleadosLibres {
+    private static final Comparator<Empleado> POR_RETRASOS =
+            Comparator.comparingInt(Empleado::getCantidadRetrasos).thenComparingInt(Empleado::getLegajo);
+    private static final Comparator<Empleado> POR_LEGAJO =
+            Comparator.comparingInt(Empleado::getLegajo);
+
+    private final ConcurrentSkipListSet<Empleado> porRetrasos;
+    private final ConcurrentSkipListSet<Empleado> porLegajo;
+    // el size() de los conjuntos concurrentes recorre todo: la cantidad se lleva aparte
+    private volatile int cantidad;
+
+    public EmpleadosLibres() {
+        this.porRetrasos = new ConcurrentSkipListSet<>(POR_RETRASOS);
+        this.porLegajo = new ConcurrentSkipListSet<>(POR_LEGAJO);
+    }
+
+    synchronized void agregar(Empleado e) {
+        porRetrasos.add(e);
+        if (porLegajo.add(e))
+            cantidad++;
+    }
+
+    synchronized void quitar(Empleado e) {
+        porRetrasos.remove(e);
+        if (porLegajo.remove(e))
+            cantidad--;
+    }
+
+    // Devuelve el libre de menor legajo, o null si no hay ninguno
+    public synchronized Empleado primero() {
+        return porLegajo.isEmpty() ? null : porLegajo.first();
+    }
+
+    // Devuelve el libre con menos retrasos (a igualdad, el de menor legajo), o null
+    public synchronized Empleado menosRetrasos() {
+        return porRetrasos.isEmpty() ? null : porRetrasos.first();
+    }
+
+    // Los primeros libres por legajo, en el orden en que los elegiría primero()
+    synchronized List<Empleado> primeros(int cantidad) {
+        List<Empleado> elegidos = new ArrayList<>(Math.min(cantidad, this.cantidad));
+        for (Empleado e : porLegajo) {
+            if (elegidos.size() == cantidad)
+                break;
+            elegidos.add(e);
+        }
+        return elegidos;
+    }
+
+    public boolean contiene(Empleado e) {
+        return porLegajo.contains(e);
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    public List<Integer> legajos() {
+        List<Integer> legajos = new ArrayList<>(cantidad);
+        for (Empleado e : porLegajo) {
+            legajos.add(e.getLegajo());
+        }
+        return legajos;
+    }
+
+    // Legajo y nombre de cada libre, en orden de legajo
+    public void recorrer(VisitanteFila visitante) {
+        for (Empleado e : porLegajo) {
+            visitante.visitar(e.getLegajo(), e.getNombre());
+        }
+    }
+}
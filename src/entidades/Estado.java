@@ -1,7 +1,32 @@
 package entidades;
 
-public class Estado {
-    public static final String activo="ACTIVO";
-    public static final String pendiente="PENDIENTE";
-    public static final String finalizado="FINALIZADO";
+import java.util.EnumSet;
+
+public enum Estado {
+    pendiente("PENDIENTE"),
+    activo("ACTIVO"),
+    finalizado("FINALIZADO");
+
+    private final String texto;
+    private EnumSet<Estado> siguientes;
+
+    // Tabla de transiciones: un proyecto pendiente puede activarse o cerrarse sin haber empezado
+    static {
+        pendiente.siguientes = EnumSet.of(activo, finalizado);
+        activo.siguientes = EnumSet.of(finalizado);
+        finalizado.siguientes = EnumSet.noneOf(Estado.class);
+    }
+
+    Estado(String texto) {
+        this.texto = texto;
+    }
+
+    public boolean puedePasarA(Estado nuevo) {
+        return siguientes.contains(nuevo);
+    }
+
+    @Override
+    public String toString() {
+        return texto;
+    }
 }
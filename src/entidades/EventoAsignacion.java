@@ -0,0 +1,57 @@
+package entidades;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder por cada decisión de asignación: a quién se
+ * eligió, con qué criterio y entre cuántos libres. Viene apagado; se prende con
+ * una configuración de JFR que tenga enabled=true para homesolution.Asignacion
+ * (igual que homesolution.Costo y homesolution.Estado). Apagado, begin y
+ * shouldCommit no hacen nada y el evento no llega a crearse.
+ */
+@Name("homesolution.Asignacion")
+@Label("Asignación")
+@Category("HomeSolution")
+@Description("Elección del responsable de una tarea")
+@Enabled(false)
+@StackTrace(false)
+final class EventoAsignacion extends Event {
+    @Label("Proyecto")
+    int numero;
+
+    @Label("Tarea")
+    String titulo;
+
+    @Label("Legajo")
+    @Description("Legajo del empleado elegido, 0 si no había ninguno")
+    int legajo;
+
+    @Label("Criterio")
+    String criterio;
+
+    @Label("Libres")
+    @Description("Empleados libres entre los que se eligió")
+    int libres;
+
+    @Label("Candidatos revisados")
+    @Description("Empleados que se compararon para elegir; 1 cuando el índice de libres da el elegido directo")
+    int revisados;
+
+    void emitir(String criterio, int numero, String titulo, Empleado elegido, int libres, int revisados) {
+        if (!shouldCommit())
+            return;
+        this.criterio = criterio;
+        this.numero = numero;
+        this.titulo = titulo;
+        this.legajo = elegido == null ? 0 : elegido.getLegajo();
+        this.libres = libres;
+        this.revisados = revisados;
+        commit();
+    }
+}
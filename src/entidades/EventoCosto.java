@@ -0,0 +1,49 @@
+package entidades;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder por cada actualización del costo de un
+ * proyecto, con la tarea (y su responsable) que la provocó y cuántas tareas se
+ * recorrieron. Apagado por defecto, ver EventoAsignacion.
+ */
+@Name("homesolution.Costo")
+@Label("Actualización de costo")
+@Category("HomeSolution")
+@Enabled(false)
+@StackTrace(false)
+final class EventoCosto extends Event {
+    @Label("Proyecto")
+    int numero;
+
+    @Label("Tarea")
+    @Description("Tarea cuyo cambio provocó la actualización, vacío si fue el proyecto entero")
+    String titulo;
+
+    @Label("Legajo")
+    @Description("Responsable de esa tarea, 0 si no tiene")
+    int legajo;
+
+    @Label("Tareas recorridas")
+    int tareasVisitadas;
+
+    @Label("Costo")
+    double costo;
+
+    void emitir(int numero, Tarea causa, int tareasVisitadas, double costo) {
+        if (!shouldCommit())
+            return;
+        this.numero = numero;
+        this.titulo = causa == null ? "" : causa.getTitulo();
+        this.legajo = causa == null || causa.obtenerEmpleado() == null ? 0 : causa.obtenerEmpleado().getLegajo();
+        this.tareasVisitadas = tareasVisitadas;
+        this.costo = costo;
+        commit();
+    }
+}
@@ -0,0 +1,45 @@
+package entidades;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder por cada cambio de estado de un proyecto.
+ * Apagado por defecto, ver EventoAsignacion.
+ */
+@Name("homesolution.Estado")
+@Label("Cambio de estado")
+@Category("HomeSolution")
+@Enabled(false)
+@StackTrace(false)
+final class EventoEstado extends Event {
+    @Label("Proyecto")
+    int numero;
+
+    @Label("Tarea")
+    String titulo;
+
+    @Label("Legajo")
+    int legajo;
+
+    @Label("Anterior")
+    String anterior;
+
+    @Label("Nuevo")
+    String nuevo;
+
+    void emitir(int numero, Tarea causa, Estado anterior, Estado nuevo) {
+        if (!shouldCommit())
+            return;
+        this.numero = numero;
+        this.titulo = causa == null ? "" : causa.getTitulo();
+        this.legajo = causa == null || causa.obtenerEmpleado() == null ? 0 : causa.obtenerEmpleado().getLegajo();
+        this.anterior = anterior.name();
+        this.nuevo = nuevo.name();
+        commit();
+    }
+}
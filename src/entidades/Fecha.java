@@ -1,102 +1,182 @@
 package entidades;
 
+/**
+ * Fecha del calendario gregoriano. Además de día, mes y año guarda la cantidad de
+ * días desde el 1/1/1970 (día de época), así sumar o restar días y comparar son
+ * cuentas con un int; la conversión entre los dos es una fórmula cerrada, sin
+ * recorrer meses.
+ */
 public class Fecha {
 
-    private int dia;
-    private int mes;
-    private int anio;
+    private final int dia;
+    private final int mes;
+    private final int anio;
+    private final int diaEpoca;
 
  
     private static final int[] DIAS_POR_MES = 
         { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
 
+    // 1/1/0001 y el mayor día de época que la conversión hace sin desbordar
+    private static final int DIA_EPOCA_MINIMO = -719162;
+    private static final int DIA_EPOCA_MAXIMO = Integer.MAX_VALUE - 719468;
 
+
+    /**
+     * @throws IllegalArgumentException Si no es una fecha válida, o si es anterior al
+     *         año 1 o posterior al mayor día de época que entra en un int.
+     */
     public Fecha(int dia, int mes, int anio) {
-        if (!esFechaValida(dia, mes, anio)) {
+        long epoca = esFechaValida(dia, mes, anio) ? diaEpoca(dia, mes, anio) : Long.MAX_VALUE;
+        if (epoca > DIA_EPOCA_MAXIMO) {
             throw new IllegalArgumentException("Fecha inválida: " + dia + "/" + mes + "/" + anio);
         }
         this.dia = dia;
         this.mes = mes;
         this.anio = anio;
+        this.diaEpoca = (int) epoca;
+    }
+
+    private Fecha(int dia, int mes, int anio, int diaEpoca) {
+        this.dia = dia;
+        this.mes = mes;
+        this.anio = anio;
+        this.diaEpoca = diaEpoca;
+    }
+
+    private Fecha(int diaEpoca) {
+        // civil a partir de días (H. Hinnant), con eras de 400 años que empiezan el 1 de marzo;
+        // desde el año 1 z es positivo y alcanza la división entera
+        int z = diaEpoca + 719468;
+        int era = z / 146097;
+        int diaDeEra = z - era * 146097;
+        int anioDeEra = (diaDeEra - diaDeEra / 1460 + diaDeEra / 36524 - diaDeEra / 146096) / 365;
+        int diaDelAnio = diaDeEra - (365 * anioDeEra + anioDeEra / 4 - anioDeEra / 100);
+        int mesDesdeMarzo = (5 * diaDelAnio + 2) / 153;
+        this.dia = diaDelAnio - (153 * mesDesdeMarzo + 2) / 5 + 1;
+        this.mes = mesDesdeMarzo < 10 ? mesDesdeMarzo + 3 : mesDesdeMarzo - 9;
+        this.anio = anioDeEra + era * 400 + (mes <= 2 ? 1 : 0);
+        this.diaEpoca = diaEpoca;
+    }
+
+    /**
+     * @param diaEpoca Días desde el 1/1/1970 (negativo para fechas anteriores).
+     * @throws IllegalArgumentException Si cae antes del año 1.
+     */
+    public static Fecha deDiaEpoca(long diaEpoca) {
+        if (diaEpoca < DIA_EPOCA_MINIMO || diaEpoca > DIA_EPOCA_MAXIMO) {
+            throw new IllegalArgumentException("Fecha inválida: día " + diaEpoca + " desde 1/1/1970");
+        }
+        return new Fecha((int) diaEpoca);
+    }
+
+    /**
+     * Lee una fecha escrita como yyyy-MM-dd (la de los formularios) o dd/MM/yyyy (la de toString).
+     * @throws IllegalArgumentException Si no tiene ninguno de los dos formatos o no es una fecha válida.
+     */
+    public static Fecha desdeTexto(String texto) {
+        return new Fecha(diaEpocaDeTexto(texto));
+    }
+
+    // Como desdeTexto pero solo el día de época, sin crear la Fecha
+    public static int diaEpocaDeTexto(String texto) {
+        int d, m, a;
+        if (texto != null && texto.length() == 10 && texto.charAt(4) == '-' && texto.charAt(7) == '-') {
+            a = digitos(texto, 0, 4);
+            m = digitos(texto, 5, 7);
+            d = digitos(texto, 8, 10);
+        } else if (texto != null && texto.length() == 10 && texto.charAt(2) == '/' && texto.charAt(5) == '/') {
+            d = digitos(texto, 0, 2);
+            m = digitos(texto, 3, 5);
+            a = digitos(texto, 6, 10);
+        } else {
+            throw new IllegalArgumentException("Fecha inválida: " + texto);
+        }
+        if (!esFechaValida(d, m, a)) {
+            throw new IllegalArgumentException("Fecha inválida: " + texto);
+        }
+        // con cuatro dígitos de año siempre entra en un int
+        return (int) diaEpoca(d, m, a);
+    }
+
+    // Valor de los dígitos entre desde y hasta, o -1 si hay algo que no es dígito
+    private static int digitos(String texto, int desde, int hasta) {
+        int valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    // Texto yyyy-MM-dd de un día de época, el formato en que se registran los proyectos
+    public static String textoIso(int diaEpoca) {
+        Fecha f = new Fecha(diaEpoca);
+        char[] texto = {
+            (char) ('0' + f.anio / 1000 % 10), (char) ('0' + f.anio / 100 % 10),
+            (char) ('0' + f.anio / 10 % 10), (char) ('0' + f.anio % 10), '-',
+            (char) ('0' + f.mes / 10), (char) ('0' + f.mes % 10), '-',
+            (char) ('0' + f.dia / 10), (char) ('0' + f.dia % 10)
+        };
+        return new String(texto);
+    }
+
+    // días desde el 1/1/1970 (H. Hinnant, days_from_civil); en long porque con años
+    // muy grandes era * 146097 no entra en un int
+    private static long diaEpoca(int d, int m, int a) {
+        int anioDesdeMarzo = m <= 2 ? a - 1 : a;
+        int era = Math.floorDiv(anioDesdeMarzo, 400);
+        int anioDeEra = anioDesdeMarzo - era * 400;
+        int diaDelAnio = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + d - 1;
+        int diaDeEra = anioDeEra * 365 + anioDeEra / 4 - anioDeEra / 100 + diaDelAnio;
+        return era * 146097L + diaDeEra - 719468;
     }
 
 
 
-    private boolean esFechaValida(int d, int m, int a) {
+    private static boolean esFechaValida(int d, int m, int a) {
         if (a < 1 || m < 1 || m > 12 || d < 1) return false;
         int diasMes = diasEnMes(m, a);
         return d <= diasMes;
     }
 
-    private int diasEnMes(int m, int a) {
+    private static int diasEnMes(int m, int a) {
         if (m == 2 && esBisiesto(a)) return 29;
         return DIAS_POR_MES[m - 1];
     }
 
-    private boolean esBisiesto(int a) {
+    private static boolean esBisiesto(int a) {
         return (a % 4 == 0 && a % 100 != 0) || (a % 400 == 0);
     }
 
 
 
     public Fecha sumarDias(int cantidad) {
-        if (cantidad < 0) return restarDias(-cantidad);
-
-        int nuevoDia = dia;
-        int nuevoMes = mes;
-        int nuevoAnio = anio;
-
-        while (cantidad > 0) {
-            int diasMes = diasEnMes(nuevoMes, nuevoAnio);
-            if (nuevoDia + cantidad <= diasMes) {
-                nuevoDia += cantidad;
-                cantidad = 0;
-            } else {
-                cantidad -= (diasMes - nuevoDia + 1);
-                nuevoDia = 1;
-                nuevoMes++;
-                if (nuevoMes > 12) {
-                    nuevoMes = 1;
-                    nuevoAnio++;
-                }
-            }
-        }
-
-        return new Fecha(nuevoDia, nuevoMes, nuevoAnio);
+        return mover((long) cantidad);
     }
 
     public Fecha restarDias(int cantidad) {
-        if (cantidad < 0) return sumarDias(-cantidad);
-
-        int nuevoDia = dia;
-        int nuevoMes = mes;
-        int nuevoAnio = anio;
-
-        while (cantidad > 0) {
-            if (nuevoDia > cantidad) {
-                nuevoDia -= cantidad;
-                cantidad = 0;
-            } else {
-                cantidad -= nuevoDia;
-                nuevoMes--;
-                if (nuevoMes < 1) {
-                    nuevoMes = 12;
-                    nuevoAnio--;
-                }
-                nuevoDia = diasEnMes(nuevoMes, nuevoAnio);
-            }
-        }
+        return mover(-(long) cantidad);
+    }
 
-        return new Fecha(nuevoDia, nuevoMes, nuevoAnio);
+    // Si no cambia el mes alcanza con el día; si no, se convierte desde el día de época
+    private Fecha mover(long cantidad) {
+        long nuevoDia = dia + cantidad;
+        if (nuevoDia >= 1 && nuevoDia <= diasEnMes(mes, anio))
+            return new Fecha((int) nuevoDia, mes, anio, (int) (diaEpoca + cantidad));
+        return deDiaEpoca(diaEpoca + cantidad);
+    }
+
+    // Días desde esta fecha hasta otra: positivo si la otra es posterior
+    public int diasHasta(Fecha otra) {
+        return otra.diaEpoca - diaEpoca;
     }
 
 
 
     public int comparar(Fecha otra) {
-        if (this.anio != otra.anio) return this.anio < otra.anio ? -1 : 1;
-        if (this.mes != otra.mes) return this.mes < otra.mes ? -1 : 1;
-        if (this.dia != otra.dia) return this.dia < otra.dia ? -1 : 1;
-        return 0;
+        return Integer.compare(diaEpoca, otra.diaEpoca);
     }
 
     public boolean esIgual(Fecha otra) {
@@ -131,4 +211,8 @@ public class Fecha {
     public int getAnio() {
         return anio;
     }
+
+    public int getDiaEpoca() {
+        return diaEpoca;
+    }
 }
\ No newline at end of file
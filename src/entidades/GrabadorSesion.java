@@ -0,0 +1,279 @@
+package entidades;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import entidades.Traza.Operacion;
+
+/**
+ * IHomeSolution que pasa cada llamada a otro sistema y la anota en una traza
+ * (ver Traza): momento, operación, argumentos y si terminó bien o con qué
+ * excepción. La traza se puede reproducir con benchmark.ReproductorTraza.
+ *
+ * Las llamadas se anotan en el orden en que terminan, bajo un lock propio; la
+ * traza se vacía a disco en close.
+ */
+public class GrabadorSesion implements IHomeSolution, Closeable {
+    private final IHomeSolution sistema;
+    private final BufferedWriter salida;
+    private final long inicio;
+
+    public GrabadorSesion(IHomeSolution sistema, Path archivo) throws IOException {
+        this.sistema = sistema;
+        this.salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8);
+        this.inicio = System.nanoTime();
+    }
+
+    @FunctionalInterface
+    private interface Llamada<T> {
+        T hacer() throws Exception;
+    }
+
+    private <T> T grabar(Operacion operacion, Llamada<T> llamada, Object... argumentos) throws Exception {
+        long momento = System.nanoTime() - inicio;
+        try {
+            T resultado = llamada.hacer();
+            anotar(momento, operacion, "ok", argumentos);
+            return resultado;
+        } catch (Exception e) {
+            anotar(momento, operacion, e.getClass().getSimpleName(), argumentos);
+            throw e;
+        }
+    }
+
+    // Para las operaciones que no declaran excepciones verificadas
+    private <T> T grabarSinVerificadas(Operacion operacion, Llamada<T> llamada, Object... argumentos) {
+        try {
+            return grabar(operacion, llamada, argumentos);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private synchronized void anotar(long momento, Operacion operacion, String resultado, Object[] argumentos) {
+        try {
+            Traza.escribir(salida, new Traza.Llamada(momento, operacion, resultado, argumentos));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        salida.close();
+    }
+
+    // ============================================================
+    // REGISTRO
+    // ============================================================
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor) throws IllegalArgumentException {
+        grabarSinVerificadas(Operacion.REGISTRAR_EMPLEADO, () -> {
+            sistema.registrarEmpleado(nombre, valor);
+            return null;
+        }, nombre, valor);
+    }
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor, String categoria) throws IllegalArgumentException {
+        grabarSinVerificadas(Operacion.REGISTRAR_EMPLEADO_PLANTA, () -> {
+            sistema.registrarEmpleado(nombre, valor, categoria);
+            return null;
+        }, nombre, valor, categoria);
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarEmpleados(String[] nombres, double[] valores, String[] categorias)
+            throws IllegalArgumentException {
+        return grabarSinVerificadas(Operacion.REGISTRAR_EMPLEADOS,
+                () -> sistema.registrarEmpleados(nombres, valores, categorias), nombres, valores, categorias);
+    }
+
+    @Override
+    public void registrarProyecto(String[] titulos, String[] descripcion, double[] dias,
+                                  String domicilio, String[] cliente, String inicio, String fin)
+            throws IllegalArgumentException {
+        grabarSinVerificadas(Operacion.REGISTRAR_PROYECTO, () -> {
+            sistema.registrarProyecto(titulos, descripcion, dias, domicilio, cliente, inicio, fin);
+            return null;
+        }, titulos, descripcion, dias, domicilio, cliente, inicio, fin);
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarProyectos(List<DatosProyecto> proyectos) throws IllegalArgumentException {
+        return grabarSinVerificadas(Operacion.REGISTRAR_PROYECTOS, () -> sistema.registrarProyectos(proyectos), proyectos);
+    }
+
+    // ============================================================
+    // OPERACIONES
+    // ============================================================
+
+    @Override
+    public void asignarResponsableEnTarea(Integer numero, String titulo) throws Exception {
+        grabar(Operacion.ASIGNAR_RESPONSABLE, () -> {
+            sistema.asignarResponsableEnTarea(numero, titulo);
+            return null;
+        }, numero, titulo);
+    }
+
+    @Override
+    public void asignarResponsableMenosRetraso(Integer numero, String titulo) throws Exception {
+        grabar(Operacion.ASIGNAR_MENOS_RETRASO, () -> {
+            sistema.asignarResponsableMenosRetraso(numero, titulo);
+            return null;
+        }, numero, titulo);
+    }
+
+    @Override
+    public void registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias)
+            throws IllegalArgumentException {
+        grabarSinVerificadas(Operacion.REGISTRAR_RETRASO, () -> {
+            sistema.registrarRetrasoEnTarea(numero, titulo, cantidadDias);
+            return null;
+        }, numero, titulo, cantidadDias);
+    }
+
+    @Override
+    public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias)
+            throws IllegalArgumentException {
+        grabarSinVerificadas(Operacion.AGREGAR_TAREA, () -> {
+            sistema.agregarTareaEnProyecto(numero, titulo, descripcion, dias);
+            return null;
+        }, numero, titulo, descripcion, dias);
+    }
+
+    @Override
+    public void finalizarTarea(Integer numero, String titulo) throws Exception {
+        grabar(Operacion.FINALIZAR_TAREA, () -> {
+            sistema.finalizarTarea(numero, titulo);
+            return null;
+        }, numero, titulo);
+    }
+
+    @Override
+    public void finalizarProyecto(Integer numero, String fin) throws IllegalArgumentException {
+        grabarSinVerificadas(Operacion.FINALIZAR_PROYECTO, () -> {
+            sistema.finalizarProyecto(numero, fin);
+            return null;
+        }, numero, fin);
+    }
+
+    @Override
+    public void reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) throws Exception {
+        grabar(Operacion.REASIGNAR_EMPLEADO, () -> {
+            sistema.reasignarEmpleadoEnProyecto(numero, legajo, titulo);
+            return null;
+        }, numero, legajo, titulo);
+    }
+
+    @Override
+    public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) throws Exception {
+        grabar(Operacion.REASIGNAR_MENOS_RETRASO, () -> {
+            sistema.reasignarEmpleadoConMenosRetraso(numero, titulo);
+            return null;
+        }, numero, titulo);
+    }
+
+    // ============================================================
+    // CONSULTAS
+    // ============================================================
+
+    @Override
+    public double costoProyecto(Integer numero) {
+        return grabarSinVerificadas(Operacion.COSTO_PROYECTO, () -> sistema.costoProyecto(numero), numero);
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosFinalizados() {
+        return grabarSinVerificadas(Operacion.PROYECTOS_FINALIZADOS, sistema::proyectosFinalizados);
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosPendientes() {
+        return grabarSinVerificadas(Operacion.PROYECTOS_PENDIENTES, sistema::proyectosPendientes);
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosActivos() {
+        return grabarSinVerificadas(Operacion.PROYECTOS_ACTIVOS, sistema::proyectosActivos);
+    }
+
+    @Override
+    public Object[] empleadosNoAsignados() {
+        return grabarSinVerificadas(Operacion.EMPLEADOS_NO_ASIGNADOS, sistema::empleadosNoAsignados);
+    }
+
+    @Override
+    public boolean estaFinalizado(Integer numero) {
+        return grabarSinVerificadas(Operacion.ESTA_FINALIZADO, () -> sistema.estaFinalizado(numero), numero);
+    }
+
+    @Override
+    public int consultarCantidadRetrasosEmpleado(Integer legajo) {
+        return grabarSinVerificadas(Operacion.CANTIDAD_RETRASOS,
+                () -> sistema.consultarCantidadRetrasosEmpleado(legajo), legajo);
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero) {
+        return grabarSinVerificadas(Operacion.EMPLEADOS_ASIGNADOS,
+                () -> sistema.empleadosAsignadosAProyecto(numero), numero);
+    }
+
+    @Override
+    public Object[] tareasProyectoNoAsignadas(Integer numero) {
+        return grabarSinVerificadas(Operacion.TAREAS_NO_ASIGNADAS,
+                () -> sistema.tareasProyectoNoAsignadas(numero), numero);
+    }
+
+    @Override
+    public Object[] tareasDeUnProyecto(Integer numero) {
+        return grabarSinVerificadas(Operacion.TAREAS_DE_PROYECTO, () -> sistema.tareasDeUnProyecto(numero), numero);
+    }
+
+    @Override
+    public String consultarDomicilioProyecto(Integer numero) {
+        return grabarSinVerificadas(Operacion.DOMICILIO_PROYECTO,
+                () -> sistema.consultarDomicilioProyecto(numero), numero);
+    }
+
+    @Override
+    public boolean tieneRestrasos(Integer legajo) {
+        return grabarSinVerificadas(Operacion.TIENE_RETRASOS, () -> sistema.tieneRestrasos(legajo), legajo);
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> empleados() {
+        return grabarSinVerificadas(Operacion.EMPLEADOS, sistema::empleados);
+    }
+
+    @Override
+    public String consultarProyecto(Integer numero) {
+        return grabarSinVerificadas(Operacion.CONSULTAR_PROYECTO, () -> sistema.consultarProyecto(numero), numero);
+    }
+
+    @Override
+    public Tupla<Integer, String> asignacionActual(Integer legajo) {
+        return grabarSinVerificadas(Operacion.ASIGNACION_ACTUAL, () -> sistema.asignacionActual(legajo), legajo);
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosEntre(String desde, String hasta) {
+        return grabarSinVerificadas(Operacion.PROYECTOS_ENTRE, () -> sistema.proyectosEntre(desde, hasta),
+                desde, hasta);
+    }
+
+    @Override
+    public String toString() {
+        return sistema.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package entidades;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas logarítmicas fijas: 8
+ * cubetas por potencia de dos, así el percentil que se informa está a lo sumo un
+ * 12,5% por encima del real. Registrar es sumar en un AtomicLongArray, sin locks
+ * ni objetos nuevos.
+ */
+final class HistogramaLatencias {
+    private static final int BITS_SUBCUBETA = 3;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int CUBETAS = (64 - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final AtomicLong suma = new AtomicLong();
+    private final AtomicLong maximo = new AtomicLong();
+
+    void registrar(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        cubetas.incrementAndGet(cubeta(nanos));
+        suma.addAndGet(nanos);
+        long actual;
+        while (nanos > (actual = maximo.get()) && !maximo.compareAndSet(actual, nanos)) {
+        }
+    }
+
+    static int cubeta(long nanos) {
+        if (nanos < SUBCUBETAS)
+            return (int) nanos;
+        int exponente = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + sub;
+    }
+
+    // Mayor valor que cae en la cubeta
+    static long limiteSuperior(int cubeta) {
+        if (cubeta < SUBCUBETAS)
+            return cubeta;
+        int exponente = cubeta / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        long ancho = 1L << (exponente - BITS_SUBCUBETA);
+        return (SUBCUBETAS + cubeta % SUBCUBETAS) * ancho + ancho - 1;
+    }
+
+    /**
+     * Copia de los contadores en un momento dado. Las llamadas que se registran
+     * mientras se copia pueden quedar contadas solo en parte.
+     */
+    Foto foto() {
+        long[] copia = new long[CUBETAS];
+        long cantidad = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            cantidad += copia[i];
+        }
+        return new Foto(copia, cantidad, suma.get(), maximo.get());
+    }
+
+    void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas.set(i, 0);
+        }
+        suma.set(0);
+        maximo.set(0);
+    }
+
+    static final class Foto {
+        private final long[] cubetas;
+        private final long cantidad;
+        private final long suma;
+        private final long maximo;
+
+        private Foto(long[] cubetas, long cantidad, long suma, long maximo) {
+            this.cubetas = cubetas;
+            this.cantidad = cantidad;
+            this.suma = suma;
+            this.maximo = maximo;
+        }
+
+        long cantidad() {
+            return cantidad;
+        }
+
+        double promedio() {
+            return cantidad == 0 ? 0 : (double) suma / cantidad;
+        }
+
+        long maximo() {
+            return maximo;
+        }
+
+        // Percentil p (entre 0 y 1) en nanosegundos, acotado por el máximo visto
+        long percentil(double p) {
+            if (cantidad == 0)
+                return 0;
+            long objetivo = Math.max(1, (long) Math.ceil(p * cantidad));
+            long acumulado = 0;
+            for (int i = 0; i < cubetas.length; i++) {
+                acumulado += cubetas[i];
+                if (acumulado >= objetivo)
+                    return Math.min(limiteSuperior(i), maximo);
+            }
+            return maximo;
+        }
+    }
+}
@@ -1,47 +1,105 @@
 package entidades;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class HomeSolution implements IHomeSolution {
 
-    private Map<Integer, Empleado> empleados;
-    private Map<Integer, Proyecto> proyectos;
-    private List<Empleado> empleadosLibres;
-    private int contadorProyectos;
-    private int contadorLegajos;
+    private RegistroDenso<Empleado> empleados;
+    private RegistroDenso<Proyecto> proyectos;
+    private EmpleadosLibres empleadosLibres;
+    private ProyectosPorEstado proyectosPorEstado;
+    private IntervalosProyectos intervalos;
+    private CalendarioEmpleados calendario;
+    private AsignacionesEmpleados asignaciones;
+    private ProyectosDiferidos diferidos;
+    private AlmacenFrio frios;
+    private AtomicInteger contadorProyectos;
+    private AtomicInteger contadorLegajos;
 
     public HomeSolution() {
-        this.empleados = new HashMap<>();
-        this.proyectos = new HashMap<>();
-        this.empleadosLibres = new ArrayList<>();
-        this.contadorProyectos = 0;
-        this.contadorLegajos = 0;
+        this.empleados = new RegistroDenso<>();
+        this.proyectos = new RegistroDenso<>();
+        this.empleadosLibres = new EmpleadosLibres();
+        this.proyectosPorEstado = new ProyectosPorEstado();
+        this.intervalos = new IntervalosProyectos();
+        this.calendario = new CalendarioEmpleados();
+        this.asignaciones = new AsignacionesEmpleados();
+        this.contadorProyectos = new AtomicInteger();
+        this.contadorLegajos = new AtomicInteger();
     }
 
 
 
     @Override
     public void registrarEmpleado(String nombre, double valor) throws IllegalArgumentException {
-        if (nombre == null || nombre.isEmpty() || valor <= 0)
-            throw new IllegalArgumentException("Datos inválidos para empleado contratado.");
+        String error = validarEmpleado(nombre, valor, null);
+        if (error != null)
+            throw new IllegalArgumentException(error);
 
-        contadorLegajos++;
-        EmpleadoContratado emp = new EmpleadoContratado(nombre, contadorLegajos, valor);
-        empleados.put(emp.getLegajo(), emp);
-        empleadosLibres.add(emp);
+        crearEmpleado(contadorLegajos.incrementAndGet(), nombre, valor, null);
     }
 
     @Override
     public void registrarEmpleado(String nombre, double valor, String categoria) throws IllegalArgumentException {
-        if (nombre == null || nombre.isEmpty() || valor <= 0)
-            throw new IllegalArgumentException("Datos inválidos para empleado de planta.");
-        if (!categoria.equals("INICIAL") && !categoria.equals("TECNICO") && !categoria.equals("EXPERTO"))
+        if (categoria == null)
             throw new IllegalArgumentException("Categoría inválida.");
+        String error = validarEmpleado(nombre, valor, categoria);
+        if (error != null)
+            throw new IllegalArgumentException(error);
+
+        crearEmpleado(contadorLegajos.incrementAndGet(), nombre, valor, categoria);
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarEmpleados(String[] nombres, double[] valores, String[] categorias)
+            throws IllegalArgumentException {
+        if (nombres == null || valores == null || nombres.length != valores.length
+                || (categorias != null && categorias.length != nombres.length))
+            throw new IllegalArgumentException("Los datos de los empleados no tienen el mismo largo.");
+
+        // Primero se valida todo el lote, así se sabe cuántos legajos hacen falta
+        String[] errores = new String[nombres.length];
+        int validos = 0;
+        for (int i = 0; i < nombres.length; i++) {
+            errores[i] = validarEmpleado(nombres[i], valores[i], categorias == null ? null : categorias[i]);
+            if (errores[i] == null) validos++;
+        }
+
+        int legajo = contadorLegajos.getAndAdd(validos) + 1;
+        empleados.asegurarCapacidad(legajo + validos - 1);
+        List<ResultadoRegistro> resultados = new ArrayList<>(nombres.length);
+        for (int i = 0; i < nombres.length; i++) {
+            if (errores[i] != null) {
+                resultados.add(ResultadoRegistro.rechazo(errores[i]));
+                continue;
+            }
+            crearEmpleado(legajo, nombres[i], valores[i], categorias == null ? null : categorias[i]);
+            resultados.add(ResultadoRegistro.exito(legajo++));
+        }
+        return resultados;
+    }
+
+    // Sin categoría es un empleado contratado. Devuelve el motivo del rechazo o null si los datos son válidos
+    String validarEmpleado(String nombre, double valor, String categoria) {
+        if (nombre == null || nombre.isEmpty() || valor <= 0)
+            return categoria == null ? "Datos inválidos para empleado contratado."
+                                     : "Datos inválidos para empleado de planta.";
+        if (categoria != null && !EmpleadoPlanta.categoriaValida(categoria))
+            return "Categoría inválida.";
+        return null;
+    }
 
-        contadorLegajos++;
-        EmpleadoPlanta emp = new EmpleadoPlanta(nombre, contadorLegajos, valor, categoria);
-        empleados.put(emp.getLegajo(), emp);
-        empleadosLibres.add(emp);
+    private void crearEmpleado(int legajo, String nombre, double valor, String categoria) {
+        Empleado emp = categoria == null ? new EmpleadoContratado(nombre, legajo, valor)
+                                         : new EmpleadoPlanta(nombre, legajo, valor, categoria);
+        empleados.put(legajo, emp);
+        emp.registrarEn(empleadosLibres);
+        emp.observarPago(asignaciones);
     }
 
 
@@ -51,77 +109,257 @@ public class HomeSolution implements IHomeSolution {
                                   String domicilio, String[] cliente, String inicio, String fin)
             throws IllegalArgumentException {
 
+        validarProyecto(titulos, descripcion, dias, cliente, inicio, fin);
+        crearProyecto(reservarNumeroProyecto(), titulos, descripcion, dias, domicilio, cliente, inicio, fin);
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarProyectos(List<DatosProyecto> lote) throws IllegalArgumentException {
+        if (lote == null)
+            throw new IllegalArgumentException("Lote de proyectos inexistente.");
+
+        String[] errores = new String[lote.size()];
+        int validos = 0;
+        for (int i = 0; i < errores.length; i++) {
+            DatosProyecto d = lote.get(i);
+            errores[i] = d == null ? "Datos del proyecto incompletos."
+                    : errorProyecto(d.getTitulos(), d.getDescripcion(), d.getDias(), d.getCliente(),
+                                    d.getInicio(), d.getFin());
+            if (errores[i] == null) validos++;
+        }
+
+        int numero = reservarNumerosProyecto(validos);
+        proyectos.asegurarCapacidad(numero + validos - 1);
+        List<ResultadoRegistro> resultados = new ArrayList<>(errores.length);
+        for (int i = 0; i < errores.length; i++) {
+            if (errores[i] != null) {
+                resultados.add(ResultadoRegistro.rechazo(errores[i]));
+                continue;
+            }
+            DatosProyecto d = lote.get(i);
+            crearProyecto(numero, d.getTitulos(), d.getDescripcion(), d.getDias(),
+                          d.getDomicilio(), d.getCliente(), d.getInicio(), d.getFin());
+            resultados.add(ResultadoRegistro.exito(numero++));
+        }
+        return resultados;
+    }
+
+    void validarProyecto(String[] titulos, String[] descripcion, double[] dias, String[] cliente,
+                         String inicio, String fin) {
+        String error = errorProyecto(titulos, descripcion, dias, cliente, inicio, fin);
+        if (error != null)
+            throw new IllegalArgumentException(error);
+    }
+
+    // Revisa todo lo que después rechazarían Proyecto, Tarea y Cliente, para no reservar
+    // un número que no se va a usar. Devuelve el motivo del rechazo o null
+    String errorProyecto(String[] titulos, String[] descripcion, double[] dias, String[] cliente,
+                         String inicio, String fin) {
         if (titulos == null || descripcion == null || dias == null || cliente == null)
-            throw new IllegalArgumentException("Datos del proyecto incompletos.");
+            return "Datos del proyecto incompletos.";
         if (titulos.length == 0)
-            throw new IllegalArgumentException("Debe haber al menos una tarea.");
+            return "Debe haber al menos una tarea.";
+        if (descripcion.length != titulos.length || dias.length != titulos.length)
+            return "Los datos de las tareas no tienen el mismo largo.";
+        Set<String> vistos = new HashSet<>(titulos.length * 4 / 3 + 1);
+        for (int i = 0; i < titulos.length; i++) {
+            if (titulos[i] == null || titulos[i].isEmpty())
+                return "El título no puede estar vacío";
+            if (dias[i] <= 0)
+                return "Los días necesarios tienen que ser mayores a 0";
+            if (!vistos.add(titulos[i]))
+                return "Ya existe una tarea con el título " + titulos[i];
+        }
+        if (cliente.length >= 3 && (cliente[0] == null || cliente[0].isEmpty()))
+            return "El nombre del cliente no puede estar vacío";
+        try {
+            if (Fecha.diaEpocaDeTexto(fin) < Fecha.diaEpocaDeTexto(inicio))
+                return "La fecha estimada de fin no puede ser anterior al inicio";
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
 
-        contadorProyectos++;
+    // El número se entrega de forma atómica, así se puede reservar antes de tomar cualquier lock
+    int reservarNumeroProyecto() {
+        return contadorProyectos.incrementAndGet();
+    }
 
-        List<Tarea> listaTareas = new ArrayList<>();
+    // Reserva de una vez un rango de números consecutivos; devuelve el primero
+    int reservarNumerosProyecto(int cantidad) {
+        return contadorProyectos.getAndAdd(cantidad) + 1;
+    }
+
+    void crearProyecto(int numero, String[] titulos, String[] descripcion, double[] dias,
+                       String domicilio, String[] cliente, String inicio, String fin) {
+        List<Tarea> listaTareas = new ArrayList<>(titulos.length);
         for (int i = 0; i < titulos.length; i++) {
             listaTareas.add(new Tarea(titulos[i], descripcion[i], dias[i]));
         }
 
-        Proyecto proyecto = new Proyecto(contadorProyectos, cliente, domicilio, listaTareas, inicio, fin);
-        proyectos.put(contadorProyectos, proyecto);
+        Proyecto proyecto = new Proyecto(numero, cliente, domicilio, listaTareas, inicio, fin);
+        proyectos.put(numero, proyecto);
+        proyectosPorEstado.agregar(proyecto);
+        proyecto.agregarObservador(proyectosPorEstado);
+        intervalos.agregar(numero, proyecto.getDiaInicio(), proyecto.getDiaFinReal());
     }
 
 
     @Override
     public Object[] empleadosNoAsignados() {
-        List<Integer> libres = new ArrayList<>();
-        for (Empleado e : empleados.values()) {
-            if (e.estaLibre())
-                libres.add(e.getLegajo());
+        return empleadosLibres.legajos().toArray();
+    }
+
+    // Variantes de los listados que pasan cada fila a un visitante: sin lista ni Tupla por fila
+
+    public void recorrerEmpleadosNoAsignados(VisitanteFila visitante) {
+        empleadosLibres.recorrer(visitante);
+    }
+
+    public void recorrerProyectos(Estado estado, VisitanteFila visitante) {
+        proyectosPorEstado.recorrer(estado, visitante);
+    }
+
+    public void recorrerEmpleados(VisitanteFila visitante) {
+        int ultimo = contadorLegajos.get();
+        for (int legajo = 1; legajo <= ultimo; legajo++) {
+            Empleado e = empleados.get(legajo);
+            if (e != null)
+                visitante.visitar(legajo, e.getNombre());
+        }
+    }
+
+    // Mismos empleados y orden que empleadosAsignadosAProyecto
+    public void recorrerEmpleadosAsignados(Integer numero, VisitanteFila visitante) {
+        Proyecto p = buscarProyecto(numero);
+        if (p == null)
+            throw new IllegalArgumentException("Proyecto inexistente.");
+        List<Tarea> tareas = p.obtenerTareas();
+        for (int i = 0; i < tareas.size(); i++) {
+            Empleado e = responsableEnCurso(tareas.get(i));
+            if (e != null && !responsableAntes(tareas, i, e))
+                visitante.visitar(e.getLegajo(), e.getNombre());
+        }
+    }
+
+    public void recorrerTareas(Integer numero, Consumer<Tarea> visitante) {
+        Proyecto p = buscarProyecto(numero);
+        if (p == null)
+            throw new IllegalArgumentException("Proyecto inexistente.");
+        List<Tarea> tareas = p.obtenerTareas();
+        for (int i = 0; i < tareas.size(); i++) {
+            visitante.accept(tareas.get(i));
+        }
+    }
+
+    public void recorrerTareasNoAsignadas(Integer numero, Consumer<Tarea> visitante) {
+        Proyecto p = buscarProyecto(numero);
+        if (p == null)
+            throw new IllegalArgumentException("Proyecto inexistente.");
+        if (p.estaFinalizado())
+            throw new IllegalArgumentException("El proyecto está finalizado.");
+        List<Tarea> tareas = p.obtenerTareas();
+        for (int i = 0; i < tareas.size(); i++) {
+            if (!tareas.get(i).estaAsignada())
+                visitante.accept(tareas.get(i));
+        }
+    }
+
+    private static Empleado responsableEnCurso(Tarea t) {
+        return t.estaAsignada() && !t.estaFinalizada() ? t.obtenerEmpleado() : null;
+    }
+
+    // Un empleado con varias tareas en curso se informa una sola vez, en la primera
+    private static boolean responsableAntes(List<Tarea> tareas, int hasta, Empleado e) {
+        for (int i = 0; i < hasta; i++) {
+            if (responsableEnCurso(tareas.get(i)) == e)
+                return true;
         }
-        return libres.toArray();
+        return false;
     }
 
     @Override
     public boolean estaFinalizado(Integer numero) {
-        Proyecto p = proyectos.get(numero);
+        if (numero != null && esFrio(numero))
+            return true;
+        Proyecto p = buscarProyecto(numero);
         if (p == null) throw new IllegalArgumentException("Proyecto inexistente.");
         return p.estaFinalizado();
     }
 
     @Override
     public List<Tupla<Integer, String>> proyectosActivos() {
-        List<Tupla<Integer, String>> lista = new ArrayList<>();
-        for (Proyecto p : proyectos.values()) {
-            if (p.estaActivo())
-                lista.add(new Tupla<>(p.getNumero(), p.getDireccion()));
-        }
-        return lista;
+        return proyectosPorEstado.listar(Estado.activo);
     }
 
     @Override
     public List<Tupla<Integer, String>> proyectosPendientes() {
-        List<Tupla<Integer, String>> lista = new ArrayList<>();
-        for (Proyecto p : proyectos.values()) {
-            if (p.estaPendiente())
-                lista.add(new Tupla<>(p.getNumero(), p.getDireccion()));
-        }
-        return lista;
+        return proyectosPorEstado.listar(Estado.pendiente);
     }
 
     @Override
     public List<Tupla<Integer, String>> proyectosFinalizados() {
-        List<Tupla<Integer, String>> lista = new ArrayList<>();
-        for (Proyecto p : proyectos.values()) {
-            if (p.estaFinalizado())
-                lista.add(new Tupla<>(p.getNumero(), p.getDireccion()));
-        }
-        return lista;
+        return proyectosPorEstado.listar(Estado.finalizado);
     }
 
 
 
+    public int cantidadProyectos(Estado estado) {
+        return proyectosPorEstado.cantidad(estado);
+    }
+
+    /**
+     * Números de los proyectos pendientes y activos ordenados por fecha estimada de
+     * fin (a igual fecha, por número). Ordena claves long con la fecha ya leída en la
+     * parte alta y el número en la baja, sin comparar textos ni crear objetos por proyecto.
+     * La fecha sale del índice por estado, así no se leen los proyectos diferidos.
+     */
+    public int[] proyectosPorFechaEstimada() {
+        List<Integer> numeros = proyectosPorEstado.numeros(Estado.pendiente);
+        numeros.addAll(proyectosPorEstado.numeros(Estado.activo));
+        long[] claves = new long[numeros.size()];
+        for (int i = 0; i < claves.length; i++) {
+            int numero = numeros.get(i);
+            claves[i] = ((long) proyectosPorEstado.finEstimado(numero) << 32) | numero;
+        }
+        Arrays.sort(claves);
+        int[] ordenados = new int[claves.length];
+        for (int i = 0; i < claves.length; i++) {
+            ordenados[i] = (int) claves[i];
+        }
+        return ordenados;
+    }
+
+    /**
+     * Legajos, en orden, de los empleados que no tienen ningún día reservado entre
+     * desde (incluido) y hasta (excluido). Cada tarea asignada reserva a su
+     * responsable desde el inicio del proyecto tantos días como su duración, con
+     * los retrasos; así se puede planificar a alguien que hoy está ocupado para
+     * después de que termine.
+     * @throws IllegalArgumentException Si alguna fecha es inválida o hasta no es posterior a desde.
+     */
+    public int[] empleadosDisponibles(String desde, String hasta) {
+        int primero = Fecha.diaEpocaDeTexto(desde);
+        int fin = Fecha.diaEpocaDeTexto(hasta);
+        if (fin <= primero)
+            throw new IllegalArgumentException("El rango termina antes de empezar.");
+        int ultimo = contadorLegajos.get();
+        int[] disponibles = new int[ultimo];
+        int cantidad = 0;
+        for (int legajo = calendario.siguienteLibre(1, ultimo, primero, fin); legajo != 0;
+             legajo = calendario.siguienteLibre(legajo + 1, ultimo, primero, fin)) {
+            if (empleados.get(legajo) != null)
+                disponibles[cantidad++] = legajo;
+        }
+        return Arrays.copyOf(disponibles, cantidad);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("======== HOME SOLUTION ========\n");
-        for (Proyecto p : proyectos.values()) {
+        for (Proyecto p : todosLosProyectos()) {
             sb.append(p.toString()).append("\n------------------------------\n");
         }
         return sb.toString();
@@ -132,63 +370,72 @@ public class HomeSolution implements IHomeSolution {
 
 @Override
 public void asignarResponsableEnTarea(Integer numero, String titulo) throws Exception {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null) throw new Exception("Proyecto inexistente.");
     if (p.estaFinalizado()) throw new Exception("El proyecto ya está finalizado.");
 
-    // buscamos un empleado libre cualquiera
-    Empleado libre = null;
-    for (Empleado e : empleados.values()) {
-        if (e.estaLibre()) {
-            libre = e;
-            break;
-        }
+    EventoAsignacion evento = new EventoAsignacion();
+    evento.begin();
+    int cantidadLibres;
+    Empleado libre;
+    // elegir y ocupar con el monitor de los libres: otro hilo puede estar eligiendo para otro proyecto
+    synchronized (empleadosLibres) {
+        cantidadLibres = empleadosLibres.cantidad();
+        // tomamos el empleado libre de menor legajo
+        libre = empleadosLibres.primero();
+        if (libre != null)
+            asignar(p, titulo, libre);
     }
 
     if (libre == null) {
+        evento.emitir("primero libre", numero, titulo, null, 0, 0);
         throw new Exception("No hay empleados disponibles.");
     }
-
-    p.asignarEmpleadoTarea(titulo, libre);
-    empleadosLibres.remove(libre);
+    evento.emitir("primero libre", numero, titulo, libre, cantidadLibres, 1);
 }
 
 @Override
 public void asignarResponsableMenosRetraso(Integer numero, String titulo) throws Exception {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null) throw new Exception("Proyecto inexistente.");
     if (p.estaFinalizado()) throw new Exception("El proyecto ya está finalizado.");
 
-    // buscamos el empleado libre con menos retrasos
-    Empleado mejor = null;
-    for (Empleado e : empleados.values()) {
-        if (e.estaLibre()) {
-            if (mejor == null || e.getCantidadRetrasos() < mejor.getCantidadRetrasos())
-                mejor = e;
-        }
+    EventoAsignacion evento = new EventoAsignacion();
+    evento.begin();
+    int cantidadLibres;
+    Empleado mejor;
+    synchronized (empleadosLibres) {
+        cantidadLibres = empleadosLibres.cantidad();
+        // el índice de libres ya está ordenado por cantidad de retrasos
+        mejor = empleadosLibres.menosRetrasos();
+        if (mejor != null)
+            asignar(p, titulo, mejor);
     }
 
     if (mejor == null) {
+        evento.emitir("menos retraso", numero, titulo, null, 0, 0);
         throw new Exception("No hay empleados disponibles.");
     }
-
-    p.asignarEmpleadoTarea(titulo, mejor);
-    empleadosLibres.remove(mejor);
+    evento.emitir("menos retraso", numero, titulo, mejor, cantidadLibres, 1);
 }
 
 @Override
 public void registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias)
         throws IllegalArgumentException {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null)
         throw new IllegalArgumentException("Proyecto inexistente.");
     p.registrarRetraso(titulo, cantidadDias);
+    // la reserva se alarga con el retraso
+    Tarea t = p.buscarTarea(titulo);
+    if (enCurso(p, t))
+        reservar(t.obtenerEmpleado(), p, t);
 }
 
 @Override
 public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias)
         throws IllegalArgumentException {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null)
         throw new IllegalArgumentException("Proyecto inexistente.");
     p.agregarTarea(titulo, descripcion, dias);
@@ -196,62 +443,501 @@ public void agregarTareaEnProyecto(Integer numero, String titulo, String descrip
 
 @Override
 public void finalizarTarea(Integer numero, String titulo) throws Exception {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null) throw new Exception("Proyecto inexistente.");
+    Tarea t = p.buscarTarea(titulo);
+    // si la tarea ya no estaba en curso sus días no están reservados: el empleado
+    // puede estar trabajando en otro proyecto
+    boolean estabaEnCurso = t != null && enCurso(p, t);
     p.finalizarTarea(titulo);
+    if (estabaEnCurso)
+        rearmarReservas(t.obtenerEmpleado());
+    // la copia leída de disco se pierde al salir del caché: se escribe de nuevo
+    if (esFrio(numero))
+        frios.guardar(p);
 }
 
 @Override
 public void finalizarProyecto(Integer numero, String fin) throws IllegalArgumentException {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null)
         throw new IllegalArgumentException("Proyecto inexistente.");
     p.finalizar(fin);
+    intervalos.cambiarFin(p.getNumero(), p.getDiaFinReal());
+    // los empleados que quedaron libres ya no tienen esos días reservados
+    for (Tarea t : p.getTareas()) {
+        if (t.estaAsignada() && !t.estaFinalizada())
+            rearmarReservas(t.obtenerEmpleado());
+    }
+    if (frios != null)
+        enfriar(p);
 }
 
 
 
 @Override
 public void reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) throws Exception {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null) throw new Exception("Proyecto inexistente.");
     if (p.estaFinalizado()) throw new Exception("Proyecto finalizado.");
 
+    EventoAsignacion evento = new EventoAsignacion();
+    evento.begin();
     Empleado nuevo = empleados.get(legajo);
     if (nuevo == null) throw new Exception("Empleado inexistente.");
-    if (!nuevo.estaLibre()) throw new Exception("Empleado ocupado.");
 
-    p.reasignarEmpleado(titulo, nuevo);
+    int cantidadLibres;
+    synchronized (empleadosLibres) {
+        if (!nuevo.estaLibre()) throw new Exception("Empleado ocupado.");
+        cantidadLibres = empleadosLibres.cantidad();
+        reasignar(p, titulo, nuevo);
+    }
+    evento.emitir("reasignación elegida", numero, titulo, nuevo, cantidadLibres, 1);
 }
 
 @Override
 public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) throws Exception {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null) throw new Exception("Proyecto inexistente.");
     if (p.estaFinalizado()) throw new Exception("Proyecto finalizado.");
 
-    Empleado mejor = null;
-    for (Empleado e : empleados.values()) {
-        if (e.estaLibre()) {
-            if (mejor == null || e.getCantidadRetrasos() < mejor.getCantidadRetrasos())
-                mejor = e;
-        }
+    EventoAsignacion evento = new EventoAsignacion();
+    evento.begin();
+    int cantidadLibres;
+    Empleado mejor;
+    synchronized (empleadosLibres) {
+        cantidadLibres = empleadosLibres.cantidad();
+        mejor = empleadosLibres.menosRetrasos();
+        if (mejor != null)
+            reasignar(p, titulo, mejor);
     }
 
-    if (mejor == null)
+    if (mejor == null) {
+        evento.emitir("reasignación menos retraso", numero, titulo, null, 0, 0);
         throw new Exception("No hay empleados disponibles.");
+    }
+    evento.emitir("reasignación menos retraso", numero, titulo, mejor, cantidadLibres, 1);
+}
+
+
+
+/**
+ * Asigna de una sola pasada todas las tareas sin responsable de los proyectos
+ * pendientes y activos, en orden de proyecto y de tarea, a los empleados libres
+ * en orden de legajo (el mismo que usa asignarResponsableEnTarea).
+ * @return Tuplas (número de proyecto, título de la tarea) de las tareas que
+ *         quedaron sin asignar por falta de empleados.
+ */
+// Con el monitor de los libres durante todo el lote: los elegidos no pueden ocuparse en otro hilo
+public List<Tupla<Integer, String>> asignarTareasPendientes() {
+    synchronized (empleadosLibres) {
+        return asignarPendientesEnOrden();
+    }
+}
+
+private List<Tupla<Integer, String>> asignarPendientesEnOrden() {
+    List<Proyecto> candidatos = proyectosSinFinalizar();
+    List<List<Tarea>> sinAsignar = new ArrayList<>(candidatos.size());
+    int total = 0;
+    for (Proyecto p : candidatos) {
+        List<Tarea> tareas = p.tareasSinAsignar();
+        sinAsignar.add(tareas);
+        total += tareas.size();
+    }
 
-    p.reasignarEmpleado(titulo, mejor);
+    List<Empleado> libres = empleadosLibres.primeros(total);
+    List<Tupla<Integer, String>> pendientes = new ArrayList<>(total - libres.size());
+    int usados = 0;
+    for (int i = 0; i < candidatos.size(); i++) {
+        Proyecto p = candidatos.get(i);
+        List<Tarea> tareas = sinAsignar.get(i);
+        int cantidad = Math.min(tareas.size(), libres.size() - usados);
+        if (cantidad > 0) {
+            asignarEnLote(p, tareas.subList(0, cantidad), libres.subList(usados, usados + cantidad),
+                    "pendientes en orden", libres.size() - usados, 1);
+            usados += cantidad;
+        }
+        for (int j = cantidad; j < tareas.size(); j++) {
+            pendientes.add(new Tupla<>(p.getNumero(), tareas.get(j).getTitulo()));
+        }
+    }
+    return pendientes;
 }
 
+/**
+ * Asigna todas las tareas sin responsable de los proyectos pendientes y activos
+ * minimizando el costo total (ver AsignacionOptima), en lugar de tomar los
+ * empleados libres en orden.
+ * @param penalizacion Costo que se suma por cada retraso que ya tiene el empleado.
+ * @return Tuplas (número de proyecto, título de la tarea) de las tareas que
+ *         quedaron sin asignar por falta de empleados.
+ * @throws IllegalArgumentException Si tareas por empleados libres supera
+ *         AsignacionOptima.MAXIMO_CELDAS; no se asigna ninguna.
+ */
+public List<Tupla<Integer, String>> asignarTareasOptimo(double penalizacion) {
+    synchronized (empleadosLibres) {
+        return asignarPendientesOptimo(penalizacion);
+    }
+}
 
+private List<Tupla<Integer, String>> asignarPendientesOptimo(double penalizacion) {
+    List<Proyecto> duenos = new ArrayList<>();
+    List<Tarea> tareas = new ArrayList<>();
+    for (Proyecto p : proyectosSinFinalizar()) {
+        for (Tarea t : p.tareasSinAsignar()) {
+            duenos.add(p);
+            tareas.add(t);
+        }
+    }
+    List<Empleado> libres = empleadosLibres.primeros(empleadosLibres.cantidad());
+    int[] elegido = new AsignacionOptima(tareas, libres, penalizacion).resolver();
+
+    // las tareas de un mismo proyecto quedaron contiguas: se aplican juntas
+    List<Tupla<Integer, String>> pendientes = new ArrayList<>();
+    int desde = 0;
+    while (desde < tareas.size()) {
+        Proyecto p = duenos.get(desde);
+        List<Tarea> asignadas = new ArrayList<>();
+        List<Empleado> responsables = new ArrayList<>();
+        int i = desde;
+        for (; i < tareas.size() && duenos.get(i) == p; i++) {
+            if (elegido[i] < 0) {
+                pendientes.add(new Tupla<>(p.getNumero(), tareas.get(i).getTitulo()));
+            } else {
+                asignadas.add(tareas.get(i));
+                responsables.add(libres.get(elegido[i]));
+            }
+        }
+        if (!asignadas.isEmpty())
+            asignarEnLote(p, asignadas, responsables, "óptima", libres.size(), libres.size());
+        desde = i;
+    }
+    return pendientes;
+}
+
+private List<Proyecto> proyectosSinFinalizar() {
+    List<Integer> numeros = proyectosPorEstado.numeros(Estado.pendiente);
+    numeros.addAll(proyectosPorEstado.numeros(Estado.activo));
+    Collections.sort(numeros);
+    List<Proyecto> candidatos = new ArrayList<>(numeros.size());
+    for (Integer numero : numeros) {
+        candidatos.add(buscarProyecto(numero));
+    }
+    return candidatos;
+}
+
+// Un evento de asignación por tarea, sin duración: la elección se hizo para todo el lote
+private void asignarEnLote(Proyecto p, List<Tarea> tareas, List<Empleado> responsables,
+                           String criterio, int cantidadLibres, int revisados) {
+    p.asignarEnLote(tareas, responsables);
+    for (int j = 0; j < tareas.size(); j++) {
+        asignaciones.registrar(responsables.get(j), p, tareas.get(j));
+        reservar(responsables.get(j), p, tareas.get(j));
+        new EventoAsignacion().emitir(criterio, p.getNumero(), tareas.get(j).getTitulo(), responsables.get(j),
+                cantidadLibres, revisados);
+    }
+}
+
+/**
+ * Guarda todo el sistema en una instantánea binaria.
+ * @param archivo Archivo destino; se reemplaza recién cuando la escritura terminó.
+ */
+public void guardarInstantanea(Path archivo) throws IOException {
+    Instantanea.guardar(this, archivo, 0, 0);
+}
+
+/**
+ * Arma un sistema a partir de una instantánea guardada con guardarInstantanea.
+ * @param archivo Archivo de la instantánea.
+ */
+public static HomeSolution cargarInstantanea(Path archivo) throws IOException {
+    HomeSolution sistema = new HomeSolution();
+    Instantanea.cargar(archivo, sistema, false);
+    return sistema;
+}
+
+/**
+ * Como cargarInstantanea, pero de cada proyecto sin tareas en curso solo se lee el
+ * número, el estado y la dirección; el resto se lee del archivo mapeado la primera
+ * vez que una consulta o una operación lo necesita. Los listados por estado no leen
+ * ningún proyecto.
+ * @param archivo Archivo de la instantánea.
+ */
+public static HomeSolution cargarInstantaneaDiferida(Path archivo) throws IOException {
+    HomeSolution sistema = new HomeSolution();
+    Instantanea.cargar(archivo, sistema, true);
+    return sistema;
+}
+
+/**
+ * @return Cuántos proyectos de la instantánea todavía no se leyeron.
+ */
+public int proyectosSinLeer() {
+    return diferidos == null ? 0 : diferidos.cantidad();
+}
+
+// Si el proyecto todavía está en la instantánea, se lee recién ahora
+Proyecto buscarProyecto(int numero) {
+    Proyecto p = proyectos.get(numero);
+    if (p == null && diferidos != null && diferidos.contiene(numero))
+        p = materializar(numero);
+    if (p == null && esFrio(numero))
+        p = leerFrio(numero);
+    return p;
+}
+
+Proyecto buscarProyecto(Integer numero) {
+    return numero == null ? null : buscarProyecto(numero.intValue());
+}
+
+// Todos los proyectos en orden de número, leyendo los que falten de la instantánea
+List<Proyecto> todosLosProyectos() {
+    List<Proyecto> todos = new ArrayList<>(contadorProyectos.get());
+    for (int numero = 1; numero <= contadorProyectos.get(); numero++) {
+        Proyecto p = buscarProyecto(numero);
+        if (p != null)
+            todos.add(p);
+    }
+    return todos;
+}
+
+private Proyecto materializar(int numero) {
+    Proyecto p = diferidos.leer(numero, this);
+    proyectos.put(numero, p);
+    p.agregarObservador(proyectosPorEstado);
+    registrarAsignaciones(p);
+    return p;
+}
+
+/**
+ * Activa el almacenamiento en disco de proyectos finalizados: los que ya están
+ * finalizados y los que se finalicen después se escriben en el segmento y en
+ * memoria queda solo número, dirección y costo final. Los últimos proyectos leídos
+ * se guardan en un caché LRU. El costo no cambia al pasar a disco: el de un proyecto
+ * finalizado queda fijo desde que se finaliza, esté en memoria o en disco.
+ * @param segmento Archivo donde se escriben los proyectos; se vacía al abrirlo.
+ * @param capacidadCache Cantidad máxima de proyectos leídos que quedan en memoria.
+ */
+public void usarAlmacenFrio(Path segmento, int capacidadCache) throws IOException {
+    if (frios != null)
+        throw new IllegalStateException("El almacenamiento de finalizados ya está activo.");
+    frios = new AlmacenFrio(segmento, capacidadCache);
+    for (Integer numero : proyectosPorEstado.numeros(Estado.finalizado)) {
+        Proyecto p = proyectos.get(numero);
+        if (p != null)
+            enfriar(p);
+    }
+}
+
+public void cerrarAlmacenFrio() throws IOException {
+    if (frios != null)
+        frios.close();
+}
+
+/**
+ * @return Cuántos proyectos finalizados están solo en disco (leídos o no).
+ */
+public int proyectosEnDisco() {
+    return frios == null ? 0 : frios.cantidad();
+}
+
+boolean esFrio(int numero) {
+    return frios != null && frios.contiene(numero);
+}
+
+Proyecto leerFrio(int numero) {
+    try {
+        return frios.leer(numero, this);
+    } catch (IOException e) {
+        throw new UncheckedIOException(e);
+    }
+}
+
+// Para recorrer todos los proyectos sin pasar por el caché
+Proyecto leerFrioSinCachear(int numero) {
+    try {
+        return frios.leerSinCachear(numero, this);
+    } catch (IOException e) {
+        throw new UncheckedIOException(e);
+    }
+}
+
+// El proyecto pasa a disco: deja el registro y el índice inverso de empleados
+private void enfriar(Proyecto p) {
+    try {
+        frios.guardar(p);
+    } catch (IOException e) {
+        throw new UncheckedIOException(e);
+    }
+    proyectos.quitar(p.getNumero());
+    asignaciones.quitarProyecto(p);
+}
+
+ProyectosDiferidos getDiferidos() {
+    return diferidos;
+}
+
+// Los proyectos de la instantánea quedan sin leer: solo se indexan por estado
+void diferirProyectos(ProyectosDiferidos diferidos) {
+    this.diferidos = diferidos;
+}
+
+void restaurarProyectoDiferido(int numero, Estado estado, String direccion, int inicio, int finEstimado,
+                               int finReal) {
+    proyectosPorEstado.agregar(numero, estado, direccion, finEstimado);
+    intervalos.agregar(numero, inicio, finReal);
+}
+
+Empleado buscarEmpleado(int legajo) {
+    return empleados.get(legajo);
+}
+
+int ultimoLegajo() {
+    return contadorLegajos.get();
+}
+
+int ultimoNumeroProyecto() {
+    return contadorProyectos.get();
+}
+
+RegistroDenso<Empleado> getEmpleados() {
+    return empleados;
+}
+
+RegistroDenso<Proyecto> getProyectos() {
+    return proyectos;
+}
+
+// Agrega un empleado leído de una instantánea, con sus retrasos y ocupación ya restaurados
+void restaurarEmpleado(Empleado emp) {
+    empleados.put(emp.getLegajo(), emp);
+    emp.registrarEn(empleadosLibres);
+    emp.observarPago(asignaciones);
+}
+
+// Agrega un proyecto leído de una instantánea y lo vuelve a indexar
+void restaurarProyecto(Proyecto proyecto) {
+    proyectos.put(proyecto.getNumero(), proyecto);
+    proyectosPorEstado.agregar(proyecto);
+    proyecto.agregarObservador(proyectosPorEstado);
+    intervalos.agregar(proyecto.getNumero(), proyecto.getDiaInicio(), proyecto.getDiaFinReal());
+    registrarAsignaciones(proyecto);
+}
+
+// Agrega las tareas del proyecto al índice inverso de empleados
+void registrarAsignaciones(Proyecto p) {
+    for (Tarea t : p.getTareas()) {
+        if (!t.estaAsignada())
+            continue;
+        if (enCurso(p, t))
+            reservar(t.obtenerEmpleado(), p, t);
+        if (t.estaFinalizada() || p.estaFinalizado())
+            asignaciones.registrarHistorica(t.obtenerEmpleado(), p, t);
+        else
+            asignaciones.registrar(t.obtenerEmpleado(), p, t);
+    }
+}
+
+void restaurarContadores(int ultimoLegajo, int ultimoNumeroProyecto) {
+    contadorLegajos.set(ultimoLegajo);
+    contadorProyectos.set(ultimoNumeroProyecto);
+}
+
+AsignacionesEmpleados getAsignaciones() {
+    return asignaciones;
+}
+
+IntervalosProyectos getIntervalos() {
+    return intervalos;
+}
+
+// Las asignaciones pasan por acá para mantener el índice inverso de empleados
+private void asignar(Proyecto p, String titulo, Empleado e) throws Exception {
+    p.asignarEmpleadoTarea(titulo, e);
+    Tarea tarea = p.buscarTarea(titulo);
+    asignaciones.registrar(e, p, tarea);
+    reservar(e, p, tarea);
+}
+
+private void reasignar(Proyecto p, String titulo, Empleado nuevo) throws Exception {
+    Empleado anterior = p.responsableDe(titulo);
+    p.reasignarEmpleado(titulo, nuevo);
+    Tarea tarea = p.buscarTarea(titulo);
+    asignaciones.quitar(anterior, p, tarea);
+    asignaciones.registrar(nuevo, p, tarea);
+    rearmarReservas(anterior);
+    reservar(nuevo, p, tarea);
+}
+
+// Solo la tarea en curso de cada empleado tiene días reservados: se reservan al
+// asignarla y se liberan al finalizarla, al finalizar el proyecto o al reasignarla.
+// Los proyectos diferidos o en disco no tienen tareas en curso, así que no reservan.
+private static boolean enCurso(Proyecto p, Tarea t) {
+    return t.estaAsignada() && !t.estaFinalizada() && !p.estaFinalizado();
+}
+
+// Vuelve a armar la fila del empleado con las tareas que le quedan en curso. La fila
+// se vacía y se llena con el monitor del calendario, así una consulta de disponibles
+// no lo ve libre en el medio
+private void rearmarReservas(Empleado e) {
+    List<Tupla<Proyecto, Tarea>> tareas = asignaciones.tareasDe(e.getLegajo());
+    synchronized (calendario) {
+        calendario.liberar(e.getLegajo());
+        for (Tupla<Proyecto, Tarea> asignacion : tareas) {
+            if (enCurso(asignacion.getValor1(), asignacion.getValor2()))
+                reservar(e, asignacion.getValor1(), asignacion.getValor2());
+        }
+    }
+}
+
+// La tarea ocupa a su responsable desde el inicio del proyecto, por días enteros
+private void reservar(Empleado e, Proyecto p, Tarea t) {
+    int dias = (int) Math.ceil(t.obtenerDuracion());
+    calendario.reservar(e.getLegajo(), p.getDiaInicio(), p.getDiaInicio() + dias);
+}
+
+public void modificarValorEmpleado(Integer legajo, double valor) {
+    Empleado e = empleados.get(legajo);
+    if (e == null)
+        throw new IllegalArgumentException("Empleado inexistente.");
+    e.modificarValor(valor);
+}
+
+@Override
+public Tupla<Integer, String> asignacionActual(Integer legajo) {
+    if (empleados.get(legajo) == null)
+        throw new IllegalArgumentException("Empleado inexistente.");
+    Tupla<Proyecto, Tarea> actual = asignaciones.actual(legajo);
+    if (actual == null)
+        return null;
+    return new Tupla<>(actual.getValor1().getNumero(), actual.getValor2().getTitulo());
+}
+
+// Responde con el árbol de intervalos y la dirección de ProyectosPorEstado: no lee
+// proyectos de la instantánea ni del disco
+@Override
+public List<Tupla<Integer, String>> proyectosEntre(String desde, String hasta) {
+    int primero = Fecha.diaEpocaDeTexto(desde);
+    int ultimo = Fecha.diaEpocaDeTexto(hasta);
+    if (ultimo < primero)
+        throw new IllegalArgumentException("El rango termina antes de empezar.");
+    List<Integer> numeros = new ArrayList<>();
+    intervalos.superpuestos(primero, ultimo, numeros);
+    List<Tupla<Integer, String>> resultado = new ArrayList<>(numeros.size());
+    for (Integer numero : numeros) {
+        resultado.add(new Tupla<>(numero, proyectosPorEstado.direccion(numero)));
+    }
+    return resultado;
+}
 
 @Override
 public double costoProyecto(Integer numero) {
-    Proyecto p = proyectos.get(numero);
+    if (numero != null && esFrio(numero))
+        return frios.costo(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null)
         throw new IllegalArgumentException("Proyecto inexistente.");
-    return p.calcularCosto();
+    return p.getCostoFinal();
 }
 
 @Override
@@ -264,7 +950,7 @@ public int consultarCantidadRetrasosEmpleado(Integer legajo) {
 
 @Override
 public List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero) {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null)
         throw new IllegalArgumentException("Proyecto inexistente.");
 
@@ -277,7 +963,7 @@ public List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero)
 
 @Override
 public Object[] tareasProyectoNoAsignadas(Integer numero) {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null)
         throw new IllegalArgumentException("Proyecto inexistente.");
     if (p.estaFinalizado())
@@ -292,7 +978,7 @@ public Object[] tareasProyectoNoAsignadas(Integer numero) {
 
 @Override
 public Object[] tareasDeUnProyecto(Integer numero) {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null)
         throw new IllegalArgumentException("Proyecto inexistente.");
     return p.obtenerTareas().toArray();
@@ -300,7 +986,9 @@ public Object[] tareasDeUnProyecto(Integer numero) {
 
 @Override
 public String consultarDomicilioProyecto(Integer numero) {
-    Proyecto p = proyectos.get(numero);
+    if (numero != null && esFrio(numero))
+        return frios.direccion(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null)
         throw new IllegalArgumentException("Proyecto inexistente.");
     return p.getDireccion();
@@ -308,8 +996,7 @@ public String consultarDomicilioProyecto(Integer numero) {
 
 @Override
 public boolean tieneRestrasos(Integer legajo) {
-    int num = legajo;
-    Empleado e = empleados.get(num);
+    Empleado e = empleados.get(legajo);
     if (e == null)
         throw new IllegalArgumentException("Empleado inexistente.");
     return e.getCantidadRetrasos() > 0;
@@ -318,7 +1005,7 @@ public boolean tieneRestrasos(Integer legajo) {
 @Override
 public List<Tupla<Integer, String>> empleados() {
     List<Tupla<Integer, String>> lista = new ArrayList<>();
-    for (Empleado e : empleados.values()) {
+    for (Empleado e : empleados) {
         lista.add(new Tupla<>(e.getLegajo(), e.getNombre()));
     }
     return lista;
@@ -326,7 +1013,7 @@ public List<Tupla<Integer, String>> empleados() {
 
 @Override
 public String consultarProyecto(Integer numero) {
-    Proyecto p = proyectos.get(numero);
+    Proyecto p = buscarProyecto(numero);
     if (p == null)
         throw new IllegalArgumentException("Proyecto inexistente.");
     return p.toString();
@@ -0,0 +1,937 @@
+package entidades;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Versión de HomeSolution con un único hilo escritor.
+ *
+ * Cada operación que modifica el sistema se encola como comando en un anillo de
+ * ranuras reservadas de antemano (al estilo disruptor): el que llama toma un número
+ * de secuencia, completa la ranura y la publica. El hilo escritor recorre las ranuras
+ * publicadas en lotes, aplica cada comando sobre un HomeSolution que solo él toca y,
+ * al terminar el lote, publica una vista inmutable nueva a través de una referencia
+ * volatile. Las consultas leen esa vista sin tomar ningún lock.
+ *
+ * Cada comando tiene su CompletableFuture, que se completa (con el error, si lo hubo)
+ * recién después de publicar la vista que lo incluye; así quien espera el resultado
+ * siempre ve su propio cambio. Si la vista no se puede armar, el future igual se
+ * completa con el resultado del comando, que ya se aplicó, y las consultas lanzan
+ * IllegalStateException hasta que el escritor logre armarla. Los métodos de
+ * IHomeSolution esperan ese resultado; las variantes ...Async devuelven el future
+ * sin esperar.
+ *
+ * tareasDeUnProyecto y tareasProyectoNoAsignadas devuelven los títulos de las tareas,
+ * porque la vista no comparte objetos Tarea con el escritor.
+ */
+public class HomeSolutionComandos implements IHomeSolution, AutoCloseable {
+    private static final int CAPACIDAD = 1024;
+    private static final int ESPERAS_ACTIVAS = 200;
+    private static final long ESPERA_MAXIMA_NANOS = 1_000_000;
+    // el escritor no despierta a los productores: esperan de a poco
+    private static final long ESPERA_PRODUCTOR_NANOS = 50_000;
+    // bit de proximo que marca el sistema cerrado; el resto es la secuencia
+    private static final long CERRADO = Long.MIN_VALUE;
+
+    private final HomeSolution sistema;
+    private final Ranura[] anillo;
+    private final int mascara;
+    private final AtomicLong proximo;
+    private final Thread escritor;
+    private volatile long procesados;
+    private volatile boolean durmiendo;
+    private volatile Vista vista;
+    // error del último intento de armar la vista, o null si está al día
+    private volatile RuntimeException fallaVista;
+
+    public HomeSolutionComandos() {
+        this.sistema = new HomeSolution();
+        this.anillo = new Ranura[CAPACIDAD];
+        for (int i = 0; i < CAPACIDAD; i++) {
+            anillo[i] = new Ranura();
+        }
+        this.mascara = CAPACIDAD - 1;
+        this.proximo = new AtomicLong();
+        this.procesados = 0;
+        this.vista = new Vista();
+        this.escritor = new Thread(this::procesar, "HomeSolution-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    // ============================================================
+    // COMANDOS ASINCRÓNICOS
+    // ============================================================
+
+    public CompletableFuture<Void> registrarEmpleadoAsync(String nombre, double valor) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = TipoComando.REGISTRAR_CONTRATADO;
+        r.texto = nombre;
+        r.valor = valor;
+        return publicar(r, secuencia);
+    }
+
+    public CompletableFuture<Void> registrarEmpleadoAsync(String nombre, double valor, String categoria) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = TipoComando.REGISTRAR_PLANTA;
+        r.texto = nombre;
+        r.valor = valor;
+        r.categoria = categoria;
+        return publicar(r, secuencia);
+    }
+
+    public CompletableFuture<Void> registrarProyectoAsync(String[] titulos, String[] descripcion, double[] dias,
+                                                          String domicilio, String[] cliente, String inicio, String fin) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = TipoComando.REGISTRAR_PROYECTO;
+        r.titulos = titulos;
+        r.descripciones = descripcion;
+        r.dias = dias;
+        r.texto = domicilio;
+        r.cliente = cliente;
+        r.inicio = inicio;
+        r.fin = fin;
+        return publicar(r, secuencia);
+    }
+
+    public CompletableFuture<List<ResultadoRegistro>> registrarEmpleadosAsync(String[] nombres, double[] valores,
+                                                                              String[] categorias) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = TipoComando.REGISTRAR_EMPLEADOS;
+        r.nombres = nombres;
+        r.valores = valores;
+        r.categorias = categorias;
+        return publicar(r, secuencia);
+    }
+
+    public CompletableFuture<List<ResultadoRegistro>> registrarProyectosAsync(List<DatosProyecto> proyectos) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = TipoComando.REGISTRAR_PROYECTOS;
+        r.lote = proyectos;
+        return publicar(r, secuencia);
+    }
+
+    public CompletableFuture<Void> asignarResponsableEnTareaAsync(Integer numero, String titulo) {
+        return publicarSobreTarea(TipoComando.ASIGNAR, numero, titulo);
+    }
+
+    public CompletableFuture<Void> asignarResponsableMenosRetrasoAsync(Integer numero, String titulo) {
+        return publicarSobreTarea(TipoComando.ASIGNAR_MENOS_RETRASO, numero, titulo);
+    }
+
+    public CompletableFuture<Void> registrarRetrasoEnTareaAsync(Integer numero, String titulo, double cantidadDias) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = TipoComando.RETRASO;
+        r.numero = numero;
+        r.titulo = titulo;
+        r.valor = cantidadDias;
+        return publicar(r, secuencia);
+    }
+
+    public CompletableFuture<Void> agregarTareaEnProyectoAsync(Integer numero, String titulo, String descripcion, double dias) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = TipoComando.AGREGAR_TAREA;
+        r.numero = numero;
+        r.titulo = titulo;
+        r.texto = descripcion;
+        r.valor = dias;
+        return publicar(r, secuencia);
+    }
+
+    public CompletableFuture<Void> finalizarTareaAsync(Integer numero, String titulo) {
+        return publicarSobreTarea(TipoComando.FINALIZAR_TAREA, numero, titulo);
+    }
+
+    public CompletableFuture<Void> finalizarProyectoAsync(Integer numero, String fin) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = TipoComando.FINALIZAR_PROYECTO;
+        r.numero = numero;
+        r.fin = fin;
+        return publicar(r, secuencia);
+    }
+
+    public CompletableFuture<Void> reasignarEmpleadoEnProyectoAsync(Integer numero, Integer legajo, String titulo) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = TipoComando.REASIGNAR;
+        r.numero = numero;
+        r.legajo = legajo;
+        r.titulo = titulo;
+        return publicar(r, secuencia);
+    }
+
+    public CompletableFuture<Void> reasignarEmpleadoConMenosRetrasoAsync(Integer numero, String titulo) {
+        return publicarSobreTarea(TipoComando.REASIGNAR_MENOS_RETRASO, numero, titulo);
+    }
+
+    // ============================================================
+    // IHomeSolution: MODIFICACIONES
+    // ============================================================
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor) throws IllegalArgumentException {
+        esperarSinVerificadas(registrarEmpleadoAsync(nombre, valor));
+    }
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor, String categoria) throws IllegalArgumentException {
+        esperarSinVerificadas(registrarEmpleadoAsync(nombre, valor, categoria));
+    }
+
+    @Override
+    public void registrarProyecto(String[] titulos, String[] descripcion, double[] dias,
+                                  String domicilio, String[] cliente, String inicio, String fin)
+            throws IllegalArgumentException {
+        esperarSinVerificadas(registrarProyectoAsync(titulos, descripcion, dias, domicilio, cliente, inicio, fin));
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarEmpleados(String[] nombres, double[] valores, String[] categorias)
+            throws IllegalArgumentException {
+        return esperarSinVerificadas(registrarEmpleadosAsync(nombres, valores, categorias));
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarProyectos(List<DatosProyecto> proyectos) throws IllegalArgumentException {
+        return esperarSinVerificadas(registrarProyectosAsync(proyectos));
+    }
+
+    @Override
+    public void asignarResponsableEnTarea(Integer numero, String titulo) throws Exception {
+        esperar(asignarResponsableEnTareaAsync(numero, titulo));
+    }
+
+    @Override
+    public void asignarResponsableMenosRetraso(Integer numero, String titulo) throws Exception {
+        esperar(asignarResponsableMenosRetrasoAsync(numero, titulo));
+    }
+
+    @Override
+    public void registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias)
+            throws IllegalArgumentException {
+        esperarSinVerificadas(registrarRetrasoEnTareaAsync(numero, titulo, cantidadDias));
+    }
+
+    @Override
+    public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias)
+            throws IllegalArgumentException {
+        esperarSinVerificadas(agregarTareaEnProyectoAsync(numero, titulo, descripcion, dias));
+    }
+
+    @Override
+    public void finalizarTarea(Integer numero, String titulo) throws Exception {
+        esperar(finalizarTareaAsync(numero, titulo));
+    }
+
+    @Override
+    public void finalizarProyecto(Integer numero, String fin) throws IllegalArgumentException {
+        esperarSinVerificadas(finalizarProyectoAsync(numero, fin));
+    }
+
+    @Override
+    public void reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) throws Exception {
+        esperar(reasignarEmpleadoEnProyectoAsync(numero, legajo, titulo));
+    }
+
+    @Override
+    public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) throws Exception {
+        esperar(reasignarEmpleadoConMenosRetrasoAsync(numero, titulo));
+    }
+
+    // ============================================================
+    // IHomeSolution: CONSULTAS (sobre la última vista publicada)
+    // ============================================================
+
+    @Override
+    public double costoProyecto(Integer numero) {
+        return foto(numero).costo;
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosFinalizados() {
+        return vistaPublicada().finalizados;
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosPendientes() {
+        return vistaPublicada().pendientes;
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosActivos() {
+        return vistaPublicada().activos;
+    }
+
+    @Override
+    public Object[] empleadosNoAsignados() {
+        return vistaPublicada().libres.clone();
+    }
+
+    @Override
+    public boolean estaFinalizado(Integer numero) {
+        return foto(numero).finalizado;
+    }
+
+    @Override
+    public int consultarCantidadRetrasosEmpleado(Integer legajo) {
+        return fotoEmpleado(legajo).retrasos;
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero) {
+        return foto(numero).asignados;
+    }
+
+    @Override
+    public Object[] tareasProyectoNoAsignadas(Integer numero) {
+        FotoProyecto foto = foto(numero);
+        if (foto.finalizado)
+            throw new IllegalArgumentException("El proyecto está finalizado.");
+        return foto.noAsignadas.clone();
+    }
+
+    @Override
+    public Object[] tareasDeUnProyecto(Integer numero) {
+        return foto(numero).tareas.clone();
+    }
+
+    @Override
+    public String consultarDomicilioProyecto(Integer numero) {
+        return foto(numero).direccion;
+    }
+
+    @Override
+    public boolean tieneRestrasos(Integer legajo) {
+        return fotoEmpleado(legajo).retrasos > 0;
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> empleados() {
+        return vistaPublicada().empleados;
+    }
+
+    @Override
+    public String consultarProyecto(Integer numero) {
+        return foto(numero).texto;
+    }
+
+    @Override
+    public Tupla<Integer, String> asignacionActual(Integer legajo) {
+        return fotoEmpleado(legajo).asignacion;
+    }
+
+    // Busca en la copia del árbol de intervalos que se publicó con la vista
+    @Override
+    public List<Tupla<Integer, String>> proyectosEntre(String desde, String hasta) {
+        int primero = Fecha.diaEpocaDeTexto(desde);
+        int ultimo = Fecha.diaEpocaDeTexto(hasta);
+        if (ultimo < primero)
+            throw new IllegalArgumentException("El rango termina antes de empezar.");
+        Vista actual = vistaPublicada();
+        List<Integer> numeros = new ArrayList<>();
+        actual.intervalos.superpuestos(primero, ultimo, numeros);
+        List<Tupla<Integer, String>> resultado = new ArrayList<>(numeros.size());
+        for (Integer numero : numeros) {
+            resultado.add(new Tupla<>(numero, actual.proyectos.get(numero).direccion));
+        }
+        return resultado;
+    }
+
+    // Detiene el escritor después de aplicar todos los comandos con secuencia tomada,
+    // aunque el que la tomó todavía no la haya publicado
+    @Override
+    public void close() {
+        long actual;
+        do {
+            actual = proximo.get();
+        } while ((actual & CERRADO) == 0 && !proximo.compareAndSet(actual, actual | CERRADO));
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ============================================================
+    // PRODUCTORES
+    // ============================================================
+
+    // Tomar la secuencia y ver que no esté cerrado es un solo CAS: una secuencia
+    // tomada siempre la procesa el escritor
+    private long reservar() {
+        long secuencia;
+        do {
+            secuencia = proximo.get();
+            if ((secuencia & CERRADO) != 0)
+                throw new IllegalStateException("El sistema está cerrado.");
+        } while (!proximo.compareAndSet(secuencia, secuencia + 1));
+        // si el anillo está lleno se espera a que el escritor libere la ranura; después de
+        // unas vueltas se cede el procesador, que puede ser el que necesita el escritor
+        int esperas = 0;
+        while (secuencia - CAPACIDAD >= procesados) {
+            if (++esperas < ESPERAS_ACTIVAS)
+                Thread.onSpinWait();
+            else if (esperas < 2 * ESPERAS_ACTIVAS)
+                Thread.yield();
+            else
+                LockSupport.parkNanos(ESPERA_PRODUCTOR_NANOS);
+        }
+        return secuencia;
+    }
+
+    private Ranura ranura(long secuencia) {
+        return anillo[(int) (secuencia & mascara)];
+    }
+
+    private CompletableFuture<Void> publicarSobreTarea(TipoComando tipo, Integer numero, String titulo) {
+        long secuencia = reservar();
+        Ranura r = ranura(secuencia);
+        r.tipo = tipo;
+        r.numero = numero;
+        r.titulo = titulo;
+        return publicar(r, secuencia);
+    }
+
+    // El tipo del future lo fija el comando: Void, o la respuesta que deja el escritor en la ranura
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> publicar(Ranura r, long secuencia) {
+        CompletableFuture<Object> resultado = new CompletableFuture<>();
+        r.resultado = resultado;
+        r.secuencia = secuencia;
+        if (durmiendo)
+            LockSupport.unpark(escritor);
+        return (CompletableFuture<T>) (CompletableFuture<?>) resultado;
+    }
+
+    private static <T> T esperar(CompletableFuture<T> resultado) throws Exception {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof Exception)
+                throw (Exception) causa;
+            throw e;
+        }
+    }
+
+    private static <T> T esperarSinVerificadas(CompletableFuture<T> resultado) {
+        try {
+            return esperar(resultado);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ============================================================
+    // ESCRITOR
+    // ============================================================
+
+    private void procesar() {
+        long siguiente = 0;
+        int esperas = 0;
+        Cambios sinPublicar = null;
+        while (true) {
+            long hasta = siguiente;
+            while (hasta - siguiente < CAPACIDAD && ranura(hasta).secuencia == hasta) {
+                hasta++;
+            }
+            if (hasta == siguiente) {
+                long tomadas = proximo.get();
+                if (tomadas == (siguiente | CERRADO))
+                    return;
+                if (++esperas < ESPERAS_ACTIVAS) {
+                    Thread.onSpinWait();
+                } else if (sinPublicar != null && publicarVista(sinPublicar)) {
+                    // sin comandos pendientes se reintenta armar la vista que falló
+                    sinPublicar = null;
+                } else {
+                    durmiendo = true;
+                    if (ranura(siguiente).secuencia != siguiente && (tomadas & CERRADO) == 0)
+                        LockSupport.parkNanos(ESPERA_MAXIMA_NANOS);
+                    durmiendo = false;
+                }
+                continue;
+            }
+            esperas = 0;
+
+            Cambios cambios = sinPublicar != null ? sinPublicar : new Cambios();
+            for (long s = siguiente; s < hasta; s++) {
+                aplicar(ranura(s), cambios);
+            }
+            // los comandos ya se aplicaron: cada uno se completa con su propio resultado
+            // aunque no se pueda armar la vista. Lo que cambió se vuelve a copiar con el
+            // próximo intento, y mientras tanto las consultas informan la falla
+            sinPublicar = publicarVista(cambios) ? null : cambios;
+            for (long s = siguiente; s < hasta; s++) {
+                Ranura r = ranura(s);
+                CompletableFuture<Object> resultado = r.resultado;
+                Object respuesta = r.respuesta;
+                Exception error = r.error;
+                r.limpiar();
+                if (error == null)
+                    resultado.complete(respuesta);
+                else
+                    resultado.completeExceptionally(error);
+            }
+            siguiente = hasta;
+            procesados = hasta;
+        }
+    }
+
+    private boolean publicarVista(Cambios cambios) {
+        try {
+            vista = vista.siguiente(sistema, cambios);
+            fallaVista = null;
+            return true;
+        } catch (RuntimeException e) {
+            fallaVista = e;
+            return false;
+        }
+    }
+
+    private void aplicar(Ranura r, Cambios cambios) {
+        try {
+            switch (r.tipo) {
+                case REGISTRAR_CONTRATADO:
+                    sistema.registrarEmpleado(r.texto, r.valor);
+                    cambios.empleadoNuevo(sistema.ultimoLegajo());
+                    break;
+                case REGISTRAR_PLANTA:
+                    sistema.registrarEmpleado(r.texto, r.valor, r.categoria);
+                    cambios.empleadoNuevo(sistema.ultimoLegajo());
+                    break;
+                case REGISTRAR_PROYECTO:
+                    sistema.registrarProyecto(r.titulos, r.descripciones, r.dias, r.texto, r.cliente, r.inicio, r.fin);
+                    cambios.proyectoNuevo(sistema.ultimoNumeroProyecto());
+                    break;
+                case REGISTRAR_EMPLEADOS:
+                    List<ResultadoRegistro> empleados = sistema.registrarEmpleados(r.nombres, r.valores, r.categorias);
+                    for (ResultadoRegistro resultado : empleados) {
+                        if (resultado.esExitoso())
+                            cambios.empleadoNuevo(resultado.getId());
+                    }
+                    r.respuesta = empleados;
+                    break;
+                case REGISTRAR_PROYECTOS:
+                    List<ResultadoRegistro> proyectos = sistema.registrarProyectos(r.lote);
+                    for (ResultadoRegistro resultado : proyectos) {
+                        if (resultado.esExitoso())
+                            cambios.proyectoNuevo(resultado.getId());
+                    }
+                    r.respuesta = proyectos;
+                    break;
+                case ASIGNAR:
+                    moverEmpleados(r.numero, cambios);
+                    sistema.asignarResponsableEnTarea(r.numero, r.titulo);
+                    break;
+                case ASIGNAR_MENOS_RETRASO:
+                    moverEmpleados(r.numero, cambios);
+                    sistema.asignarResponsableMenosRetraso(r.numero, r.titulo);
+                    break;
+                case RETRASO:
+                    cambios.proyectos.add(r.numero);
+                    aplicarRetraso(r, cambios);
+                    break;
+                case AGREGAR_TAREA:
+                    cambios.proyectos.add(r.numero);
+                    sistema.agregarTareaEnProyecto(r.numero, r.titulo, r.texto, r.valor);
+                    break;
+                case FINALIZAR_TAREA:
+                    moverEmpleados(r.numero, cambios);
+                    sistema.finalizarTarea(r.numero, r.titulo);
+                    break;
+                case FINALIZAR_PROYECTO:
+                    moverEmpleados(r.numero, cambios);
+                    cambios.intervalos = true;
+                    sistema.finalizarProyecto(r.numero, r.fin);
+                    break;
+                case REASIGNAR:
+                    moverEmpleados(r.numero, cambios);
+                    sistema.reasignarEmpleadoEnProyecto(r.numero, r.legajo, r.titulo);
+                    break;
+                case REASIGNAR_MENOS_RETRASO:
+                    moverEmpleados(r.numero, cambios);
+                    sistema.reasignarEmpleadoConMenosRetraso(r.numero, r.titulo);
+                    break;
+            }
+        } catch (Exception e) {
+            r.error = e;
+        }
+    }
+
+    // Un retraso cambia los retrasos del responsable y, si le cambia el pago,
+    // el costo de todos los proyectos donde trabajó
+    private void aplicarRetraso(Ranura r, Cambios cambios) {
+        Proyecto p = r.numero == null ? null : sistema.buscarProyecto(r.numero);
+        Empleado responsable = p == null ? null : p.responsableDe(r.titulo);
+        boolean cambiaPago = responsable != null && responsable.pagoCambiaConRetraso();
+        sistema.registrarRetrasoEnTarea(r.numero, r.titulo, r.valor);
+        if (responsable != null) {
+            cambios.empleados.add(responsable.getLegajo());
+            if (cambiaPago) {
+                for (Tupla<Proyecto, Tarea> asignacion : sistema.getAsignaciones().tareasDe(responsable.getLegajo()))
+                    cambios.proyectos.add(asignacion.getValor1().getNumero());
+            }
+        }
+    }
+
+    // Antes de aplicar el comando: el estado que tiene la vista y los empleados que
+    // dejan de estar en el proyecto (ver también Vista.siguiente)
+    private void moverEmpleados(Integer numero, Cambios cambios) {
+        Proyecto p = numero == null ? null : sistema.buscarProyecto(numero);
+        cambios.moverEmpleados(numero, p == null ? null : p.getEstado());
+        if (p != null)
+            cambios.responsablesDe(p);
+    }
+
+    // Si la última vista no se pudo armar, la publicada no tiene los cambios ya
+    // aplicados: las consultas fallan hasta que el escritor la vuelva a armar
+    private Vista vistaPublicada() {
+        RuntimeException falla = fallaVista;
+        if (falla != null)
+            throw new IllegalStateException("Las consultas no están al día con los cambios aplicados.", falla);
+        return vista;
+    }
+
+    private FotoProyecto foto(Integer numero) {
+        FotoProyecto foto = numero == null ? null : vistaPublicada().proyectos.get(numero);
+        if (foto == null)
+            throw new IllegalArgumentException("Proyecto inexistente.");
+        return foto;
+    }
+
+    private FotoEmpleado fotoEmpleado(Integer legajo) {
+        FotoEmpleado foto = legajo == null ? null : vistaPublicada().fotosEmpleados.get(legajo);
+        if (foto == null)
+            throw new IllegalArgumentException("Empleado inexistente.");
+        return foto;
+    }
+
+    // ============================================================
+    // ESTRUCTURAS INTERNAS
+    // ============================================================
+
+    private enum TipoComando {
+        REGISTRAR_CONTRATADO, REGISTRAR_PLANTA, REGISTRAR_PROYECTO, REGISTRAR_EMPLEADOS, REGISTRAR_PROYECTOS, ASIGNAR, ASIGNAR_MENOS_RETRASO,
+        RETRASO, AGREGAR_TAREA, FINALIZAR_TAREA, FINALIZAR_PROYECTO, REASIGNAR, REASIGNAR_MENOS_RETRASO
+    }
+
+    // Ranura del anillo: se reutiliza en cada vuelta, solo cambian los argumentos
+    private static final class Ranura {
+        volatile long secuencia = -1;
+        TipoComando tipo;
+        Integer numero;
+        Integer legajo;
+        String titulo;
+        String texto;
+        String categoria;
+        double valor;
+        String[] titulos;
+        String[] descripciones;
+        String[] cliente;
+        double[] dias;
+        String inicio;
+        String fin;
+        List<DatosProyecto> lote;
+        String[] nombres;
+        double[] valores;
+        String[] categorias;
+        CompletableFuture<Object> resultado;
+        Object respuesta;
+        Exception error;
+
+        void limpiar() {
+            tipo = null;
+            numero = null;
+            legajo = null;
+            titulo = null;
+            texto = null;
+            categoria = null;
+            titulos = null;
+            descripciones = null;
+            cliente = null;
+            dias = null;
+            inicio = null;
+            fin = null;
+            lote = null;
+            nombres = null;
+            valores = null;
+            categorias = null;
+            resultado = null;
+            respuesta = null;
+            error = null;
+        }
+    }
+
+    // Lo que tocó un lote de comandos: solo eso se vuelve a copiar en la vista nueva
+    private static final class Cambios {
+        final Set<Integer> proyectos = new HashSet<>();
+        final Set<Integer> empleados = new HashSet<>();
+        // estado de cada proyecto que pudo cambiarlo, tal como lo tiene la vista
+        // anterior (null si es nuevo): solo se mueven las filas de los que cambiaron
+        final Map<Integer, Estado> estadosAnteriores = new HashMap<>();
+        boolean libres;
+        boolean listaEmpleados;
+        boolean intervalos;
+
+        void empleadoNuevo(int legajo) {
+            empleados.add(legajo);
+            libres = true;
+            listaEmpleados = true;
+        }
+
+        void proyectoNuevo(int numero) {
+            proyectos.add(numero);
+            estadoAnterior(numero, null);
+            intervalos = true;
+        }
+
+        // Sus fotos se rehacen: puede cambiar su asignación actual
+        void responsablesDe(Proyecto p) {
+            for (Tarea t : p.getTareas()) {
+                if (t.estaAsignada())
+                    empleados.add(t.obtenerEmpleado().getLegajo());
+            }
+        }
+
+        void moverEmpleados(Integer numero, Estado anterior) {
+            proyectos.add(numero);
+            libres = true;
+            if (numero != null)
+                estadoAnterior(numero, anterior);
+        }
+
+        // Vale el primero: es el que tiene la última vista publicada
+        private void estadoAnterior(int numero, Estado anterior) {
+            if (!estadosAnteriores.containsKey(numero))
+                estadosAnteriores.put(numero, anterior);
+        }
+    }
+
+    private static final class Vista {
+        final Bloques<FotoProyecto> proyectos;
+        final Bloques<FotoEmpleado> fotosEmpleados;
+        final List<Tupla<Integer, String>> pendientes;
+        final List<Tupla<Integer, String>> activos;
+        final List<Tupla<Integer, String>> finalizados;
+        final List<Tupla<Integer, String>> empleados;
+        final Object[] libres;
+        final IntervalosProyectos.Copia intervalos;
+
+        Vista() {
+            this(new Bloques<>(), new Bloques<>(), Collections.emptyList(), Collections.emptyList(),
+                    Collections.emptyList(), Collections.emptyList(), new Object[0],
+                    new IntervalosProyectos().copia());
+        }
+
+        Vista(Bloques<FotoProyecto> proyectos, Bloques<FotoEmpleado> fotosEmpleados,
+              List<Tupla<Integer, String>> pendientes, List<Tupla<Integer, String>> activos,
+              List<Tupla<Integer, String>> finalizados, List<Tupla<Integer, String>> empleados, Object[] libres,
+              IntervalosProyectos.Copia intervalos) {
+            this.proyectos = proyectos;
+            this.fotosEmpleados = fotosEmpleados;
+            this.pendientes = pendientes;
+            this.activos = activos;
+            this.finalizados = finalizados;
+            this.empleados = empleados;
+            this.libres = libres;
+            this.intervalos = intervalos;
+        }
+
+        Vista siguiente(HomeSolution sistema, Cambios cambios) {
+            Map<Integer, FotoProyecto> nuevosProyectos = new HashMap<>();
+            for (Integer numero : cambios.proyectos) {
+                Proyecto p = numero == null ? null : sistema.buscarProyecto(numero);
+                if (p != null) {
+                    nuevosProyectos.put(numero, new FotoProyecto(p));
+                    // los que quedaron en el proyecto después del comando
+                    if (cambios.estadosAnteriores.containsKey(numero))
+                        cambios.responsablesDe(p);
+                }
+            }
+            Map<Integer, FotoEmpleado> nuevosEmpleados = new HashMap<>();
+            for (Integer legajo : cambios.empleados) {
+                Empleado e = sistema.buscarEmpleado(legajo);
+                if (e != null)
+                    nuevosEmpleados.put(legajo, new FotoEmpleado(e, sistema.asignacionActual(legajo)));
+            }
+            // cada proyecto que cambió de estado pasa su fila de una lista a otra;
+            // solo se copian las listas que cambian
+            Map<Estado, List<Tupla<Integer, String>>> editadas = new EnumMap<>(Estado.class);
+            for (Map.Entry<Integer, Estado> cambio : cambios.estadosAnteriores.entrySet()) {
+                FotoProyecto foto = nuevosProyectos.get(cambio.getKey());
+                if (foto == null || foto.estado == cambio.getValue())
+                    continue;
+                if (cambio.getValue() != null)
+                    quitarFila(editable(editadas, cambio.getValue()), cambio.getKey());
+                agregarFila(editable(editadas, foto.estado), cambio.getKey(), foto.direccion);
+            }
+            return new Vista(
+                    proyectos.con(nuevosProyectos),
+                    fotosEmpleados.con(nuevosEmpleados),
+                    publicada(editadas, Estado.pendiente),
+                    publicada(editadas, Estado.activo),
+                    publicada(editadas, Estado.finalizado),
+                    cambios.listaEmpleados ? Collections.unmodifiableList(sistema.empleados()) : empleados,
+                    cambios.libres ? sistema.empleadosNoAsignados() : libres,
+                    cambios.intervalos ? sistema.getIntervalos().copia() : intervalos);
+        }
+
+        private List<Tupla<Integer, String>> filas(Estado estado) {
+            switch (estado) {
+                case pendiente:
+                    return pendientes;
+                case activo:
+                    return activos;
+                default:
+                    return finalizados;
+            }
+        }
+
+        private List<Tupla<Integer, String>> editable(Map<Estado, List<Tupla<Integer, String>>> editadas,
+                                                      Estado estado) {
+            return editadas.computeIfAbsent(estado, e -> new ArrayList<>(filas(e)));
+        }
+
+        private List<Tupla<Integer, String>> publicada(Map<Estado, List<Tupla<Integer, String>>> editadas,
+                                                       Estado estado) {
+            List<Tupla<Integer, String>> editada = editadas.get(estado);
+            return editada == null ? filas(estado) : Collections.unmodifiableList(editada);
+        }
+
+        // Las listas están ordenadas por número de proyecto, como las de ProyectosPorEstado
+        private static int posicion(List<Tupla<Integer, String>> filas, int numero) {
+            int desde = 0;
+            int hasta = filas.size();
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (filas.get(medio).getValor1() < numero)
+                    desde = medio + 1;
+                else
+                    hasta = medio;
+            }
+            return desde;
+        }
+
+        private static void quitarFila(List<Tupla<Integer, String>> filas, int numero) {
+            int i = posicion(filas, numero);
+            if (i < filas.size() && filas.get(i).getValor1() == numero)
+                filas.remove(i);
+        }
+
+        private static void agregarFila(List<Tupla<Integer, String>> filas, int numero, String direccion) {
+            filas.add(posicion(filas, numero), new Tupla<>(numero, direccion));
+        }
+    }
+
+    private static final class FotoProyecto {
+        final String direccion;
+        final Estado estado;
+        final boolean finalizado;
+        final double costo;
+        final String texto;
+        final Object[] tareas;
+        final Object[] noAsignadas;
+        final List<Tupla<Integer, String>> asignados;
+
+        FotoProyecto(Proyecto p) {
+            this.direccion = p.getDireccion();
+            this.estado = p.getEstado();
+            this.finalizado = p.estaFinalizado();
+            this.costo = p.getCostoFinal();
+            this.texto = p.toString();
+            List<Tarea> tareasProyecto = p.obtenerTareas();
+            List<String> titulos = new ArrayList<>(tareasProyecto.size());
+            List<String> sinAsignar = new ArrayList<>();
+            for (Tarea t : tareasProyecto) {
+                titulos.add(t.getTitulo());
+                if (!t.estaAsignada())
+                    sinAsignar.add(t.getTitulo());
+            }
+            this.tareas = titulos.toArray();
+            this.noAsignadas = sinAsignar.toArray();
+            List<Tupla<Integer, String>> lista = new ArrayList<>();
+            for (Empleado e : p.obtenerEmpleadosAsignados()) {
+                lista.add(new Tupla<>(e.getLegajo(), e.getNombre()));
+            }
+            this.asignados = Collections.unmodifiableList(lista);
+        }
+    }
+
+    private static final class FotoEmpleado {
+        final int retrasos;
+        final Tupla<Integer, String> asignacion;
+
+        FotoEmpleado(Empleado e, Tupla<Integer, String> asignacion) {
+            this.retrasos = e.getCantidadRetrasos();
+            this.asignacion = asignacion;
+        }
+    }
+
+    // Arreglo persistente por bloques: una versión nueva copia solo los bloques que cambiaron
+    private static final class Bloques<T> {
+        private static final int BITS = 10;
+        private static final int TAMANIO = 1 << BITS;
+
+        private final Object[][] bloques;
+
+        Bloques() {
+            this(new Object[0][]);
+        }
+
+        private Bloques(Object[][] bloques) {
+            this.bloques = bloques;
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(int id) {
+            if (id < 1)
+                return null;
+            int posicion = id - 1;
+            int bloque = posicion >>> BITS;
+            if (bloque >= bloques.length || bloques[bloque] == null)
+                return null;
+            return (T) bloques[bloque][posicion & (TAMANIO - 1)];
+        }
+
+        Bloques<T> con(Map<Integer, T> cambios) {
+            if (cambios.isEmpty())
+                return this;
+            int maximo = Collections.max(cambios.keySet());
+            Object[][] nuevos = Arrays.copyOf(bloques, Math.max(bloques.length, ((maximo - 1) >>> BITS) + 1));
+            boolean[] copiado = new boolean[nuevos.length];
+            for (Map.Entry<Integer, T> cambio : cambios.entrySet()) {
+                int posicion = cambio.getKey() - 1;
+                int bloque = posicion >>> BITS;
+                if (!copiado[bloque]) {
+                    nuevos[bloque] = nuevos[bloque] == null ? new Object[TAMANIO] : nuevos[bloque].clone();
+                    copiado[bloque] = true;
+                }
+                nuevos[bloque][posicion & (TAMANIO - 1)] = cambio.getValue();
+            }
+            return new Bloques<>(nuevos);
+        }
+    }
+}
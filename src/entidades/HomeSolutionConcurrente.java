@@ -0,0 +1,318 @@
+package entidades;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Versión de HomeSolution que se puede usar desde varios hilos a la vez.
+ *
+ * Cada proyecto queda protegido por un lock de lectura/escritura elegido por su
+ * número (una "franja" de proyectos); las operaciones que lo modifican solo toman
+ * la escritura de esa franja. Los índices globales (libres, proyectos por estado,
+ * asignaciones, intervalos, calendario) no dependen de las franjas: son
+ * estructuras concurrentes o usan su propio monitor en secciones cortas, así que
+ * dos proyectos de franjas distintas se modifican a la vez.
+ *
+ * Las consultas sobre un proyecto solo toman la lectura de su franja, y las
+ * consultas globales no toman ningún lock: no esperan a los que escriben, a
+ * cambio de que un listado pueda no ver un cambio que ocurre mientras se arma.
+ * El costo se lee de un campo volatile, porque un cambio de pago en otro
+ * proyecto puede actualizarlo.
+ */
+public class HomeSolutionConcurrente implements IHomeSolution {
+    private static final int FRANJAS = 64;
+
+    private final HomeSolution sistema;
+    private final ReentrantReadWriteLock[] franjas;
+
+    public HomeSolutionConcurrente() {
+        this.sistema = new HomeSolution();
+        this.franjas = new ReentrantReadWriteLock[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    // ============================================================
+    // REGISTRO
+    // ============================================================
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor) throws IllegalArgumentException {
+        sistema.registrarEmpleado(nombre, valor);
+    }
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor, String categoria) throws IllegalArgumentException {
+        sistema.registrarEmpleado(nombre, valor, categoria);
+    }
+
+    @Override
+    public void registrarProyecto(String[] titulos, String[] descripcion, double[] dias,
+                                  String domicilio, String[] cliente, String inicio, String fin)
+            throws IllegalArgumentException {
+        sistema.validarProyecto(titulos, descripcion, dias, cliente, inicio, fin);
+        int numero = sistema.reservarNumeroProyecto();
+        franja(numero).writeLock().lock();
+        try {
+            sistema.crearProyecto(numero, titulos, descripcion, dias, domicilio, cliente, inicio, fin);
+        } finally {
+            franja(numero).writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarEmpleados(String[] nombres, double[] valores, String[] categorias)
+            throws IllegalArgumentException {
+        return sistema.registrarEmpleados(nombres, valores, categorias);
+    }
+
+    // Los números del lote pueden caer en cualquier franja, así que se toman todas
+    @Override
+    public List<ResultadoRegistro> registrarProyectos(List<DatosProyecto> proyectos) throws IllegalArgumentException {
+        for (ReentrantReadWriteLock f : franjas) {
+            f.writeLock().lock();
+        }
+        try {
+            return sistema.registrarProyectos(proyectos);
+        } finally {
+            for (int i = FRANJAS - 1; i >= 0; i--) {
+                franjas[i].writeLock().unlock();
+            }
+        }
+    }
+
+    // ============================================================
+    // OPERACIONES QUE MUEVEN EMPLEADOS
+    // ============================================================
+
+    // El empleado se elige y se marca ocupado con el monitor del índice de libres
+    // (ver HomeSolution), así dos tareas nunca pueden quedarse con el mismo
+    @Override
+    public void asignarResponsableEnTarea(Integer numero, String titulo) throws Exception {
+        franja(numero).writeLock().lock();
+        try {
+            sistema.asignarResponsableEnTarea(numero, titulo);
+        } finally {
+            franja(numero).writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void asignarResponsableMenosRetraso(Integer numero, String titulo) throws Exception {
+        franja(numero).writeLock().lock();
+        try {
+            sistema.asignarResponsableMenosRetraso(numero, titulo);
+        } finally {
+            franja(numero).writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias)
+            throws IllegalArgumentException {
+        franja(numero).writeLock().lock();
+        try {
+            sistema.registrarRetrasoEnTarea(numero, titulo, cantidadDias);
+        } finally {
+            franja(numero).writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void finalizarTarea(Integer numero, String titulo) throws Exception {
+        franja(numero).writeLock().lock();
+        try {
+            sistema.finalizarTarea(numero, titulo);
+        } finally {
+            franja(numero).writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void finalizarProyecto(Integer numero, String fin) throws IllegalArgumentException {
+        franja(numero).writeLock().lock();
+        try {
+            sistema.finalizarProyecto(numero, fin);
+        } finally {
+            franja(numero).writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) throws Exception {
+        franja(numero).writeLock().lock();
+        try {
+            sistema.reasignarEmpleadoEnProyecto(numero, legajo, titulo);
+        } finally {
+            franja(numero).writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) throws Exception {
+        franja(numero).writeLock().lock();
+        try {
+            sistema.reasignarEmpleadoConMenosRetraso(numero, titulo);
+        } finally {
+            franja(numero).writeLock().unlock();
+        }
+    }
+
+    // ============================================================
+    // OPERACIONES DE UN SOLO PROYECTO
+    // ============================================================
+
+    @Override
+    public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias)
+            throws IllegalArgumentException {
+        franja(numero).writeLock().lock();
+        try {
+            sistema.agregarTareaEnProyecto(numero, titulo, descripcion, dias);
+        } finally {
+            franja(numero).writeLock().unlock();
+        }
+    }
+
+    @Override
+    public double costoProyecto(Integer numero) {
+        franja(numero).readLock().lock();
+        try {
+            return sistema.costoProyecto(numero);
+        } finally {
+            franja(numero).readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean estaFinalizado(Integer numero) {
+        franja(numero).readLock().lock();
+        try {
+            return sistema.estaFinalizado(numero);
+        } finally {
+            franja(numero).readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero) {
+        franja(numero).readLock().lock();
+        try {
+            return sistema.empleadosAsignadosAProyecto(numero);
+        } finally {
+            franja(numero).readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object[] tareasProyectoNoAsignadas(Integer numero) {
+        franja(numero).readLock().lock();
+        try {
+            return sistema.tareasProyectoNoAsignadas(numero);
+        } finally {
+            franja(numero).readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object[] tareasDeUnProyecto(Integer numero) {
+        franja(numero).readLock().lock();
+        try {
+            return sistema.tareasDeUnProyecto(numero);
+        } finally {
+            franja(numero).readLock().unlock();
+        }
+    }
+
+    @Override
+    public String consultarDomicilioProyecto(Integer numero) {
+        franja(numero).readLock().lock();
+        try {
+            return sistema.consultarDomicilioProyecto(numero);
+        } finally {
+            franja(numero).readLock().unlock();
+        }
+    }
+
+    @Override
+    public String consultarProyecto(Integer numero) {
+        franja(numero).readLock().lock();
+        try {
+            return sistema.consultarProyecto(numero);
+        } finally {
+            franja(numero).readLock().unlock();
+        }
+    }
+
+    // ============================================================
+    // CONSULTAS GLOBALES
+    // ============================================================
+
+    // No hay un lock de empleados ni de índices: cada índice es concurrente o se
+    // protege con su propio monitor (ver la documentación de la clase)
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosFinalizados() {
+        return sistema.proyectosFinalizados();
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosPendientes() {
+        return sistema.proyectosPendientes();
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosActivos() {
+        return sistema.proyectosActivos();
+    }
+
+    @Override
+    public Object[] empleadosNoAsignados() {
+        return sistema.empleadosNoAsignados();
+    }
+
+    @Override
+    public int consultarCantidadRetrasosEmpleado(Integer legajo) {
+        return sistema.consultarCantidadRetrasosEmpleado(legajo);
+    }
+
+    @Override
+    public boolean tieneRestrasos(Integer legajo) {
+        return sistema.tieneRestrasos(legajo);
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> empleados() {
+        return sistema.empleados();
+    }
+
+    @Override
+    public Tupla<Integer, String> asignacionActual(Integer legajo) {
+        return sistema.asignacionActual(legajo);
+    }
+
+    // Sin lock: IntervalosProyectos responde con su propio monitor
+    @Override
+    public List<Tupla<Integer, String>> proyectosEntre(String desde, String hasta) {
+        return sistema.proyectosEntre(desde, hasta);
+    }
+
+    // Recorre todos los proyectos: toma todas las franjas, siempre en el mismo orden
+    @Override
+    public String toString() {
+        for (ReentrantReadWriteLock f : franjas) {
+            f.readLock().lock();
+        }
+        try {
+            return sistema.toString();
+        } finally {
+            for (int i = FRANJAS - 1; i >= 0; i--) {
+                franjas[i].readLock().unlock();
+            }
+        }
+    }
+
+    private ReentrantReadWriteLock franja(Integer numero) {
+        return franjas[numero == null ? 0 : Math.floorMod(numero, FRANJAS)];
+    }
+}
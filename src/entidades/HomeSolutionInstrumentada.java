@@ -0,0 +1,600 @@
+package entidades;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import entidades.Traza.Operacion;
+
+/**
+ * IHomeSolution que pasa cada llamada a otro sistema y mide cuánto tardó: un
+ * HistogramaLatencias por operación y la cantidad de errores por operación, tipo
+ * de excepción y mensaje (por ejemplo "No hay empleados disponibles").
+ *
+ * Medir una llamada que termina bien no crea objetos ni toma locks: un contador
+ * atómico, dos lecturas del reloj y sumas atómicas en el histograma de la
+ * operación. Los errores sí arman la clave del contador, pero ese camino ya crea
+ * la excepción. Como leer el reloj puede costar más que las consultas más
+ * simples, se puede medir el tiempo de solo una de cada N llamadas (muestreo);
+ * las cantidades de llamadas y errores se cuentan siempre todas.
+ *
+ * Los números se consultan con getVolcado() o por JMX después de registrarEnJmx().
+ */
+public class HomeSolutionInstrumentada implements IHomeSolution, HomeSolutionInstrumentadaMBean {
+    public static final String NOMBRE_JMX = "entidades:type=HomeSolutionInstrumentada";
+
+    // Tope de claves distintas de error, por si los mensajes llevan números de proyecto o legajos
+    private static final int MAXIMO_CLAVES_ERROR = 1000;
+
+    // Marca de empezar() para una llamada que no se mide
+    private static final long SIN_MEDIR = Long.MIN_VALUE;
+
+    private final IHomeSolution sistema;
+    private final long mascaraMuestreo;
+    private final AtomicLongArray llamadas = new AtomicLongArray(Operacion.values().length);
+    private final HistogramaLatencias[] histogramas = new HistogramaLatencias[Operacion.values().length];
+    private final Map<String, AtomicLong> errores = new ConcurrentHashMap<>();
+
+    public HomeSolutionInstrumentada(IHomeSolution sistema) {
+        this(sistema, 1);
+    }
+
+    /**
+     * @param muestreo Se mide el tiempo de una de cada muestreo llamadas de cada operación (potencia de dos).
+     */
+    public HomeSolutionInstrumentada(IHomeSolution sistema, int muestreo) {
+        if (muestreo < 1 || Integer.bitCount(muestreo) != 1)
+            throw new IllegalArgumentException("El muestreo debe ser una potencia de dos");
+        this.sistema = sistema;
+        this.mascaraMuestreo = muestreo - 1;
+        for (int i = 0; i < histogramas.length; i++) {
+            histogramas[i] = new HistogramaLatencias();
+        }
+    }
+
+    private long empezar(Operacion operacion) {
+        long n = llamadas.incrementAndGet(operacion.ordinal());
+        return (n & mascaraMuestreo) == 0 ? System.nanoTime() : SIN_MEDIR;
+    }
+
+    private void medir(Operacion operacion, long inicio) {
+        if (inicio != SIN_MEDIR)
+            histogramas[operacion.ordinal()].registrar(System.nanoTime() - inicio);
+    }
+
+    private void error(Operacion operacion, Exception e) {
+        String clave = operacion.name() + " " + e.getClass().getSimpleName() + ": " + e.getMessage();
+        AtomicLong contador = errores.get(clave);
+        if (contador == null) {
+            if (errores.size() >= MAXIMO_CLAVES_ERROR)
+                clave = operacion.name() + " " + e.getClass().getSimpleName() + ": (otros mensajes)";
+            contador = errores.computeIfAbsent(clave, k -> new AtomicLong());
+        }
+        contador.incrementAndGet();
+    }
+
+    /**
+     * Registra este sistema en el servidor de MBeans de la plataforma con el nombre NOMBRE_JMX.
+     * @throws JMException Si ya hay otro registrado con ese nombre.
+     */
+    public ObjectName registrarEnJmx() throws JMException {
+        ObjectName nombre = new ObjectName(NOMBRE_JMX);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, nombre);
+        return nombre;
+    }
+
+    public IHomeSolution getSistema() {
+        return sistema;
+    }
+
+    // ============================================================
+    // MÉTRICAS
+    // ============================================================
+
+    @Override
+    public long getLlamadas() {
+        long total = 0;
+        for (int i = 0; i < llamadas.length(); i++) {
+            total += llamadas.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public long getErrores() {
+        long total = 0;
+        for (AtomicLong contador : errores.values()) {
+            total += contador.get();
+        }
+        return total;
+    }
+
+    @Override
+    public String[] getResumen() {
+        List<String> lineas = new ArrayList<>();
+        for (Operacion operacion : Operacion.values()) {
+            HistogramaLatencias.Foto foto = histogramas[operacion.ordinal()].foto();
+            if (foto.cantidad() == 0)
+                continue;
+            lineas.add(String.format(Locale.ROOT, "%-26s %10d %7d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f",
+                    operacion.name(), llamadas(operacion), erroresDe(operacion), foto.promedio() / 1e3,
+                    foto.percentil(0.50) / 1e3, foto.percentil(0.90) / 1e3, foto.percentil(0.99) / 1e3,
+                    foto.percentil(0.999) / 1e3, foto.maximo() / 1e3));
+        }
+        return lineas.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getErroresPorTipo() {
+        List<String> lineas = new ArrayList<>();
+        for (Map.Entry<String, AtomicLong> e : new ConcurrentSkipListMap<>(errores).entrySet()) {
+            lineas.add(e.getKey() + " = " + e.getValue().get());
+        }
+        return lineas.toArray(new String[0]);
+    }
+
+    /**
+     * Resumen en texto: por operación llamadas, errores, promedio y percentiles en
+     * microsegundos; después los errores por tipo.
+     */
+    @Override
+    public String getVolcado() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-26s %10s %7s %10s %10s %10s %10s %10s %10s%n", "operacion", "llamadas",
+                "errores", "prom us", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us"));
+        for (String linea : getResumen()) {
+            sb.append(linea).append(System.lineSeparator());
+        }
+        String[] porTipo = getErroresPorTipo();
+        if (porTipo.length > 0) {
+            sb.append(System.lineSeparator()).append("errores:").append(System.lineSeparator());
+            for (String linea : porTipo) {
+                sb.append("  ").append(linea).append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param operacion Nombre de la operación (ver Traza.Operacion).
+     * @param percentil Entre 0 y 1.
+     * @return El percentil de la latencia de esa operación en microsegundos.
+     */
+    @Override
+    public double percentil(String operacion, double percentil) {
+        if (percentil < 0 || percentil > 1)
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 1");
+        return histogramas[Operacion.valueOf(operacion).ordinal()].foto().percentil(percentil) / 1e3;
+    }
+
+    public long llamadas(Operacion operacion) {
+        return llamadas.get(operacion.ordinal());
+    }
+
+    public long erroresDe(Operacion operacion) {
+        String prefijo = operacion.name() + " ";
+        long total = 0;
+        for (Map.Entry<String, AtomicLong> e : errores.entrySet()) {
+            if (e.getKey().startsWith(prefijo))
+                total += e.getValue().get();
+        }
+        return total;
+    }
+
+    @Override
+    public void reiniciar() {
+        for (int i = 0; i < histogramas.length; i++) {
+            llamadas.set(i, 0);
+            histogramas[i].reiniciar();
+        }
+        errores.clear();
+    }
+
+    // ============================================================
+    // REGISTRO
+    // ============================================================
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor) throws IllegalArgumentException {
+        long inicio = empezar(Operacion.REGISTRAR_EMPLEADO);
+        try {
+            sistema.registrarEmpleado(nombre, valor);
+        } catch (RuntimeException e) {
+            error(Operacion.REGISTRAR_EMPLEADO, e);
+            throw e;
+        } finally {
+            medir(Operacion.REGISTRAR_EMPLEADO, inicio);
+        }
+    }
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor, String categoria) throws IllegalArgumentException {
+        long inicio = empezar(Operacion.REGISTRAR_EMPLEADO_PLANTA);
+        try {
+            sistema.registrarEmpleado(nombre, valor, categoria);
+        } catch (RuntimeException e) {
+            error(Operacion.REGISTRAR_EMPLEADO_PLANTA, e);
+            throw e;
+        } finally {
+            medir(Operacion.REGISTRAR_EMPLEADO_PLANTA, inicio);
+        }
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarEmpleados(String[] nombres, double[] valores, String[] categorias)
+            throws IllegalArgumentException {
+        long inicio = empezar(Operacion.REGISTRAR_EMPLEADOS);
+        try {
+            return sistema.registrarEmpleados(nombres, valores, categorias);
+        } catch (RuntimeException e) {
+            error(Operacion.REGISTRAR_EMPLEADOS, e);
+            throw e;
+        } finally {
+            medir(Operacion.REGISTRAR_EMPLEADOS, inicio);
+        }
+    }
+
+    @Override
+    public void registrarProyecto(String[] titulos, String[] descripcion, double[] dias,
+                                  String domicilio, String[] cliente, String inicio, String fin)
+            throws IllegalArgumentException {
+        long desde = empezar(Operacion.REGISTRAR_PROYECTO);
+        try {
+            sistema.registrarProyecto(titulos, descripcion, dias, domicilio, cliente, inicio, fin);
+        } catch (RuntimeException e) {
+            error(Operacion.REGISTRAR_PROYECTO, e);
+            throw e;
+        } finally {
+            medir(Operacion.REGISTRAR_PROYECTO, desde);
+        }
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarProyectos(List<DatosProyecto> proyectos) throws IllegalArgumentException {
+        long inicio = empezar(Operacion.REGISTRAR_PROYECTOS);
+        try {
+            return sistema.registrarProyectos(proyectos);
+        } catch (RuntimeException e) {
+            error(Operacion.REGISTRAR_PROYECTOS, e);
+            throw e;
+        } finally {
+            medir(Operacion.REGISTRAR_PROYECTOS, inicio);
+        }
+    }
+
+    // ============================================================
+    // OPERACIONES
+    // ============================================================
+
+    @Override
+    public void asignarResponsableEnTarea(Integer numero, String titulo) throws Exception {
+        long inicio = empezar(Operacion.ASIGNAR_RESPONSABLE);
+        try {
+            sistema.asignarResponsableEnTarea(numero, titulo);
+        } catch (Exception e) {
+            error(Operacion.ASIGNAR_RESPONSABLE, e);
+            throw e;
+        } finally {
+            medir(Operacion.ASIGNAR_RESPONSABLE, inicio);
+        }
+    }
+
+    @Override
+    public void asignarResponsableMenosRetraso(Integer numero, String titulo) throws Exception {
+        long inicio = empezar(Operacion.ASIGNAR_MENOS_RETRASO);
+        try {
+            sistema.asignarResponsableMenosRetraso(numero, titulo);
+        } catch (Exception e) {
+            error(Operacion.ASIGNAR_MENOS_RETRASO, e);
+            throw e;
+        } finally {
+            medir(Operacion.ASIGNAR_MENOS_RETRASO, inicio);
+        }
+    }
+
+    @Override
+    public void registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias)
+            throws IllegalArgumentException {
+        long inicio = empezar(Operacion.REGISTRAR_RETRASO);
+        try {
+            sistema.registrarRetrasoEnTarea(numero, titulo, cantidadDias);
+        } catch (RuntimeException e) {
+            error(Operacion.REGISTRAR_RETRASO, e);
+            throw e;
+        } finally {
+            medir(Operacion.REGISTRAR_RETRASO, inicio);
+        }
+    }
+
+    @Override
+    public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias)
+            throws IllegalArgumentException {
+        long inicio = empezar(Operacion.AGREGAR_TAREA);
+        try {
+            sistema.agregarTareaEnProyecto(numero, titulo, descripcion, dias);
+        } catch (RuntimeException e) {
+            error(Operacion.AGREGAR_TAREA, e);
+            throw e;
+        } finally {
+            medir(Operacion.AGREGAR_TAREA, inicio);
+        }
+    }
+
+    @Override
+    public void finalizarTarea(Integer numero, String titulo) throws Exception {
+        long inicio = empezar(Operacion.FINALIZAR_TAREA);
+        try {
+            sistema.finalizarTarea(numero, titulo);
+        } catch (Exception e) {
+            error(Operacion.FINALIZAR_TAREA, e);
+            throw e;
+        } finally {
+            medir(Operacion.FINALIZAR_TAREA, inicio);
+        }
+    }
+
+    @Override
+    public void finalizarProyecto(Integer numero, String fin) throws IllegalArgumentException {
+        long inicio = empezar(Operacion.FINALIZAR_PROYECTO);
+        try {
+            sistema.finalizarProyecto(numero, fin);
+        } catch (RuntimeException e) {
+            error(Operacion.FINALIZAR_PROYECTO, e);
+            throw e;
+        } finally {
+            medir(Operacion.FINALIZAR_PROYECTO, inicio);
+        }
+    }
+
+    @Override
+    public void reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) throws Exception {
+        long inicio = empezar(Operacion.REASIGNAR_EMPLEADO);
+        try {
+            sistema.reasignarEmpleadoEnProyecto(numero, legajo, titulo);
+        } catch (Exception e) {
+            error(Operacion.REASIGNAR_EMPLEADO, e);
+            throw e;
+        } finally {
+            medir(Operacion.REASIGNAR_EMPLEADO, inicio);
+        }
+    }
+
+    @Override
+    public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) throws Exception {
+        long inicio = empezar(Operacion.REASIGNAR_MENOS_RETRASO);
+        try {
+            sistema.reasignarEmpleadoConMenosRetraso(numero, titulo);
+        } catch (Exception e) {
+            error(Operacion.REASIGNAR_MENOS_RETRASO, e);
+            throw e;
+        } finally {
+            medir(Operacion.REASIGNAR_MENOS_RETRASO, inicio);
+        }
+    }
+
+    // ============================================================
+    // CONSULTAS
+    // ============================================================
+
+    @Override
+    public double costoProyecto(Integer numero) {
+        long inicio = empezar(Operacion.COSTO_PROYECTO);
+        try {
+            return sistema.costoProyecto(numero);
+        } catch (RuntimeException e) {
+            error(Operacion.COSTO_PROYECTO, e);
+            throw e;
+        } finally {
+            medir(Operacion.COSTO_PROYECTO, inicio);
+        }
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosFinalizados() {
+        long inicio = empezar(Operacion.PROYECTOS_FINALIZADOS);
+        try {
+            return sistema.proyectosFinalizados();
+        } catch (RuntimeException e) {
+            error(Operacion.PROYECTOS_FINALIZADOS, e);
+            throw e;
+        } finally {
+            medir(Operacion.PROYECTOS_FINALIZADOS, inicio);
+        }
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosPendientes() {
+        long inicio = empezar(Operacion.PROYECTOS_PENDIENTES);
+        try {
+            return sistema.proyectosPendientes();
+        } catch (RuntimeException e) {
+            error(Operacion.PROYECTOS_PENDIENTES, e);
+            throw e;
+        } finally {
+            medir(Operacion.PROYECTOS_PENDIENTES, inicio);
+        }
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosActivos() {
+        long inicio = empezar(Operacion.PROYECTOS_ACTIVOS);
+        try {
+            return sistema.proyectosActivos();
+        } catch (RuntimeException e) {
+            error(Operacion.PROYECTOS_ACTIVOS, e);
+            throw e;
+        } finally {
+            medir(Operacion.PROYECTOS_ACTIVOS, inicio);
+        }
+    }
+
+    @Override
+    public Object[] empleadosNoAsignados() {
+        long inicio = empezar(Operacion.EMPLEADOS_NO_ASIGNADOS);
+        try {
+            return sistema.empleadosNoAsignados();
+        } catch (RuntimeException e) {
+            error(Operacion.EMPLEADOS_NO_ASIGNADOS, e);
+            throw e;
+        } finally {
+            medir(Operacion.EMPLEADOS_NO_ASIGNADOS, inicio);
+        }
+    }
+
+    @Override
+    public boolean estaFinalizado(Integer numero) {
+        long inicio = empezar(Operacion.ESTA_FINALIZADO);
+        try {
+            return sistema.estaFinalizado(numero);
+        } catch (RuntimeException e) {
+            error(Operacion.ESTA_FINALIZADO, e);
+            throw e;
+        } finally {
+            medir(Operacion.ESTA_FINALIZADO, inicio);
+        }
+    }
+
+    @Override
+    public int consultarCantidadRetrasosEmpleado(Integer legajo) {
+        long inicio = empezar(Operacion.CANTIDAD_RETRASOS);
+        try {
+            return sistema.consultarCantidadRetrasosEmpleado(legajo);
+        } catch (RuntimeException e) {
+            error(Operacion.CANTIDAD_RETRASOS, e);
+            throw e;
+        } finally {
+            medir(Operacion.CANTIDAD_RETRASOS, inicio);
+        }
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero) {
+        long inicio = empezar(Operacion.EMPLEADOS_ASIGNADOS);
+        try {
+            return sistema.empleadosAsignadosAProyecto(numero);
+        } catch (RuntimeException e) {
+            error(Operacion.EMPLEADOS_ASIGNADOS, e);
+            throw e;
+        } finally {
+            medir(Operacion.EMPLEADOS_ASIGNADOS, inicio);
+        }
+    }
+
+    @Override
+    public Object[] tareasProyectoNoAsignadas(Integer numero) {
+        long inicio = empezar(Operacion.TAREAS_NO_ASIGNADAS);
+        try {
+            return sistema.tareasProyectoNoAsignadas(numero);
+        } catch (RuntimeException e) {
+            error(Operacion.TAREAS_NO_ASIGNADAS, e);
+            throw e;
+        } finally {
+            medir(Operacion.TAREAS_NO_ASIGNADAS, inicio);
+        }
+    }
+
+    @Override
+    public Object[] tareasDeUnProyecto(Integer numero) {
+        long inicio = empezar(Operacion.TAREAS_DE_PROYECTO);
+        try {
+            return sistema.tareasDeUnProyecto(numero);
+        } catch (RuntimeException e) {
+            error(Operacion.TAREAS_DE_PROYECTO, e);
+            throw e;
+        } finally {
+            medir(Operacion.TAREAS_DE_PROYECTO, inicio);
+        }
+    }
+
+    @Override
+    public String consultarDomicilioProyecto(Integer numero) {
+        long inicio = empezar(Operacion.DOMICILIO_PROYECTO);
+        try {
+            return sistema.consultarDomicilioProyecto(numero);
+        } catch (RuntimeException e) {
+            error(Operacion.DOMICILIO_PROYECTO, e);
+            throw e;
+        } finally {
+            medir(Operacion.DOMICILIO_PROYECTO, inicio);
+        }
+    }
+
+    @Override
+    public boolean tieneRestrasos(Integer legajo) {
+        long inicio = empezar(Operacion.TIENE_RETRASOS);
+        try {
+            return sistema.tieneRestrasos(legajo);
+        } catch (RuntimeException e) {
+            error(Operacion.TIENE_RETRASOS, e);
+            throw e;
+        } finally {
+            medir(Operacion.TIENE_RETRASOS, inicio);
+        }
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> empleados() {
+        long inicio = empezar(Operacion.EMPLEADOS);
+        try {
+            return sistema.empleados();
+        } catch (RuntimeException e) {
+            error(Operacion.EMPLEADOS, e);
+            throw e;
+        } finally {
+            medir(Operacion.EMPLEADOS, inicio);
+        }
+    }
+
+    @Override
+    public String consultarProyecto(Integer numero) {
+        long inicio = empezar(Operacion.CONSULTAR_PROYECTO);
+        try {
+            return sistema.consultarProyecto(numero);
+        } catch (RuntimeException e) {
+            error(Operacion.CONSULTAR_PROYECTO, e);
+            throw e;
+        } finally {
+            medir(Operacion.CONSULTAR_PROYECTO, inicio);
+        }
+    }
+
+    @Override
+    public Tupla<Integer, String> asignacionActual(Integer legajo) {
+        long inicio = empezar(Operacion.ASIGNACION_ACTUAL);
+        try {
+            return sistema.asignacionActual(legajo);
+        } catch (RuntimeException e) {
+            error(Operacion.ASIGNACION_ACTUAL, e);
+            throw e;
+        } finally {
+            medir(Operacion.ASIGNACION_ACTUAL, inicio);
+        }
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> proyectosEntre(String desde, String hasta) {
+        long inicio = empezar(Operacion.PROYECTOS_ENTRE);
+        try {
+            return sistema.proyectosEntre(desde, hasta);
+        } catch (RuntimeException e) {
+            error(Operacion.PROYECTOS_ENTRE, e);
+            throw e;
+        } finally {
+            medir(Operacion.PROYECTOS_ENTRE, inicio);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return sistema.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package entidades;
+
+/**
+ * Vista JMX de HomeSolutionInstrumentada (por ejemplo desde jconsole). Los
+ * tiempos están en microsegundos.
+ */
+public interface HomeSolutionInstrumentadaMBean {
+    long getLlamadas();
+
+    long getErrores();
+
+    // Una línea por operación con llamadas, errores, promedio y percentiles
+    String[] getResumen();
+
+    // Una línea por operación, tipo de excepción y mensaje, con la cantidad
+    String[] getErroresPorTipo();
+
+    String getVolcado();
+
+    double percentil(String operacion, double percentil);
+
+    void reiniciar();
+}
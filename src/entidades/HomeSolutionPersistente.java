@@ -0,0 +1,610 @@
+package entidades;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * HomeSolution que guarda cada operación que lo modifica en un diario binario
+ * (ver Diario) y lo vuelve a aplicar al abrirse, así el estado sobrevive a un
+ * reinicio.
+ *
+ * Solo se registran las operaciones que terminan bien, en el mismo orden en que
+ * se aplicaron; como HomeSolution es determinista, reaplicarlas reconstruye el
+ * mismo estado (legajos, números de proyecto y empleados elegidos incluidos).
+ *
+ * checkpoint guarda una instantánea (archivo del diario + ".foto") y empieza un
+ * diario vacío, así al abrir solo se reaplica lo posterior a la última instantánea.
+ * Se hace solo cada registrosPorCheckpoint registros y al cerrar, así al abrir nunca
+ * se reaplican más que esos registros; con 0 solo se hace cuando se lo llama.
+ * La instantánea se carga en modo diferido (ver HomeSolution.cargarInstantaneaDiferida):
+ * los proyectos sin tareas en curso se leen recién cuando se los usa.
+ *
+ * Con esperarDisco cada operación vuelve recién cuando su registro está forzado a
+ * disco; las que llegan juntas desde varios hilos comparten el mismo fsync. Sin
+ * esperarDisco vuelven enseguida y el diario se escribe en segundo plano.
+ *
+ * Si el diario falla al escribir, o ya está cerrado, toda modificación se rechaza con
+ * IllegalStateException antes de aplicarse: la instancia queda solo para consultas y
+ * hay que volver a abrirla. Las operaciones aplicadas antes de la falla que no
+ * llegaron a disco no están al reabrir; con esperarDisco, quien las hizo recibe la
+ * excepción.
+ *
+ * Se puede usar desde varios hilos: todas las operaciones públicas, también las
+ * consultas, usan el monitor del objeto.
+ */
+public class HomeSolutionPersistente extends HomeSolution implements AutoCloseable {
+    private static final byte REGISTRAR_CONTRATADO = 1;
+    private static final byte REGISTRAR_PLANTA = 2;
+    private static final byte REGISTRAR_EMPLEADOS = 3;
+    private static final byte REGISTRAR_PROYECTO = 4;
+    private static final byte REGISTRAR_PROYECTOS = 5;
+    private static final byte ASIGNAR = 6;
+    private static final byte ASIGNAR_MENOS_RETRASO = 7;
+    private static final byte RETRASO = 8;
+    private static final byte AGREGAR_TAREA = 9;
+    private static final byte FINALIZAR_TAREA = 10;
+    private static final byte FINALIZAR_PROYECTO = 11;
+    private static final byte REASIGNAR = 12;
+    private static final byte REASIGNAR_MENOS_RETRASO = 13;
+    private static final byte MODIFICAR_VALOR = 14;
+    private static final byte ASIGNAR_PENDIENTES = 15;
+    private static final byte ASIGNAR_OPTIMO = 16;
+    private static final int REGISTROS_POR_CHECKPOINT = 10_000;
+
+    private final BufferRegistro registro;
+    private final boolean esperarDisco;
+    private final Path foto;
+    private final Diario diario;
+    private final int registrosPorCheckpoint;
+    private int registrosSinFoto;
+
+    public HomeSolutionPersistente(Path archivo) throws IOException {
+        this(archivo, true);
+    }
+
+    public HomeSolutionPersistente(Path archivo, boolean esperarDisco) throws IOException {
+        this(archivo, esperarDisco, REGISTROS_POR_CHECKPOINT);
+    }
+
+    public HomeSolutionPersistente(Path archivo, boolean esperarDisco, int registrosPorCheckpoint)
+            throws IOException {
+        super();
+        if (registrosPorCheckpoint < 0)
+            throw new IllegalArgumentException("La cantidad de registros por checkpoint no puede ser negativa.");
+        this.registro = new BufferRegistro();
+        this.esperarDisco = esperarDisco;
+        this.registrosPorCheckpoint = registrosPorCheckpoint;
+        this.foto = archivo.resolveSibling(archivo.getFileName() + ".foto");
+
+        long desde = 0;
+        Instantanea instantanea = Files.exists(foto) ? Instantanea.cargar(foto, this, true) : null;
+        this.diario = Diario.abrir(archivo);
+        try {
+            // si se cayó entre la instantánea y la rotación, el diario todavía es el de la instantánea
+            if (instantanea == null ? diario.generacion() != 0
+                                    : diario.generacion() != instantanea.getGeneracion() + 1) {
+                if (instantanea == null || diario.generacion() != instantanea.getGeneracion())
+                    throw new IOException("El diario " + archivo + " no corresponde a la instantánea.");
+                desde = instantanea.getDiarioHasta();
+            }
+            diario.reproducir(desde, this::reaplicar);
+        } catch (IOException | RuntimeException e) {
+            diario.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Guarda una instantánea de todo el sistema y empieza un diario vacío, para que
+     * el próximo arranque no tenga que reaplicar todo lo anterior.
+     */
+    public synchronized void checkpoint() throws IOException {
+        diario.verificar();
+        long hasta = diario.vaciar();
+        Instantanea.guardar(this, foto, diario.generacion(), hasta);
+        diario.rotar();
+        registrosSinFoto = 0;
+    }
+
+    // ============================================================
+    // REGISTRO
+    // ============================================================
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor) throws IllegalArgumentException {
+        long numero;
+        synchronized (this) {
+            diario.verificar();
+            super.registrarEmpleado(nombre, valor);
+            numero = guardar(registro.empezar(REGISTRAR_CONTRATADO).ponerTexto(nombre).ponerDouble(valor));
+        }
+        esperar(numero);
+    }
+
+    @Override
+    public void registrarEmpleado(String nombre, double valor, String categoria) throws IllegalArgumentException {
+        long numero;
+        synchronized (this) {
+            diario.verificar();
+            super.registrarEmpleado(nombre, valor, categoria);
+            numero = guardar(registro.empezar(REGISTRAR_PLANTA).ponerTexto(nombre).ponerDouble(valor)
+                    .ponerTexto(categoria));
+        }
+        esperar(numero);
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarEmpleados(String[] nombres, double[] valores, String[] categorias)
+            throws IllegalArgumentException {
+        List<ResultadoRegistro> resultados;
+        long numero;
+        synchronized (this) {
+            diario.verificar();
+            resultados = super.registrarEmpleados(nombres, valores, categorias);
+            numero = guardar(registro.empezar(REGISTRAR_EMPLEADOS).ponerTextos(nombres).ponerDoubles(valores)
+                    .ponerTextos(categorias));
+        }
+        esperar(numero);
+        return resultados;
+    }
+
+    @Override
+    public void registrarProyecto(String[] titulos, String[] descripcion, double[] dias,
+                                  String domicilio, String[] cliente, String inicio, String fin)
+            throws IllegalArgumentException {
+        long numero;
+        synchronized (this) {
+            diario.verificar();
+            super.registrarProyecto(titulos, descripcion, dias, domicilio, cliente, inicio, fin);
+            numero = guardar(ponerProyecto(registro.empezar(REGISTRAR_PROYECTO),
+                    titulos, descripcion, dias, domicilio, cliente, inicio, fin));
+        }
+        esperar(numero);
+    }
+
+    @Override
+    public List<ResultadoRegistro> registrarProyectos(List<DatosProyecto> proyectos) throws IllegalArgumentException {
+        List<ResultadoRegistro> resultados;
+        long numero;
+        synchronized (this) {
+            diario.verificar();
+            resultados = super.registrarProyectos(proyectos);
+            registro.empezar(REGISTRAR_PROYECTOS).ponerEntero(proyectos.size());
+            for (DatosProyecto d : proyectos) {
+                registro.ponerEntero(d == null ? 0 : 1);
+                if (d != null)
+                    ponerProyecto(registro, d.getTitulos(), d.getDescripcion(), d.getDias(),
+                            d.getDomicilio(), d.getCliente(), d.getInicio(), d.getFin());
+            }
+            numero = guardar(registro);
+        }
+        esperar(numero);
+        return resultados;
+    }
+
+    // ============================================================
+    // ASIGNACIONES Y TAREAS
+    // ============================================================
+
+    @Override
+    public void asignarResponsableEnTarea(Integer numero, String titulo) throws Exception {
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            super.asignarResponsableEnTarea(numero, titulo);
+            n = guardar(registro.empezar(ASIGNAR).ponerEnteroONulo(numero).ponerTexto(titulo));
+        }
+        esperar(n);
+    }
+
+    @Override
+    public void asignarResponsableMenosRetraso(Integer numero, String titulo) throws Exception {
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            super.asignarResponsableMenosRetraso(numero, titulo);
+            n = guardar(registro.empezar(ASIGNAR_MENOS_RETRASO).ponerEnteroONulo(numero).ponerTexto(titulo));
+        }
+        esperar(n);
+    }
+
+    @Override
+    public void registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias)
+            throws IllegalArgumentException {
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            super.registrarRetrasoEnTarea(numero, titulo, cantidadDias);
+            n = guardar(registro.empezar(RETRASO).ponerEnteroONulo(numero).ponerTexto(titulo)
+                    .ponerDouble(cantidadDias));
+        }
+        esperar(n);
+    }
+
+    @Override
+    public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias)
+            throws IllegalArgumentException {
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            super.agregarTareaEnProyecto(numero, titulo, descripcion, dias);
+            n = guardar(registro.empezar(AGREGAR_TAREA).ponerEnteroONulo(numero).ponerTexto(titulo)
+                    .ponerTexto(descripcion).ponerDouble(dias));
+        }
+        esperar(n);
+    }
+
+    @Override
+    public void finalizarTarea(Integer numero, String titulo) throws Exception {
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            super.finalizarTarea(numero, titulo);
+            n = guardar(registro.empezar(FINALIZAR_TAREA).ponerEnteroONulo(numero).ponerTexto(titulo));
+        }
+        esperar(n);
+    }
+
+    @Override
+    public void finalizarProyecto(Integer numero, String fin) throws IllegalArgumentException {
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            super.finalizarProyecto(numero, fin);
+            n = guardar(registro.empezar(FINALIZAR_PROYECTO).ponerEnteroONulo(numero).ponerTexto(fin));
+        }
+        esperar(n);
+    }
+
+    @Override
+    public void reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) throws Exception {
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            super.reasignarEmpleadoEnProyecto(numero, legajo, titulo);
+            n = guardar(registro.empezar(REASIGNAR).ponerEnteroONulo(numero).ponerEnteroONulo(legajo)
+                    .ponerTexto(titulo));
+        }
+        esperar(n);
+    }
+
+    @Override
+    public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) throws Exception {
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            super.reasignarEmpleadoConMenosRetraso(numero, titulo);
+            n = guardar(registro.empezar(REASIGNAR_MENOS_RETRASO).ponerEnteroONulo(numero).ponerTexto(titulo));
+        }
+        esperar(n);
+    }
+
+    @Override
+    public void modificarValorEmpleado(Integer legajo, double valor) {
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            super.modificarValorEmpleado(legajo, valor);
+            n = guardar(registro.empezar(MODIFICAR_VALOR).ponerEnteroONulo(legajo).ponerDouble(valor));
+        }
+        esperar(n);
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> asignarTareasPendientes() {
+        List<Tupla<Integer, String>> pendientes;
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            pendientes = super.asignarTareasPendientes();
+            n = guardar(registro.empezar(ASIGNAR_PENDIENTES));
+        }
+        esperar(n);
+        return pendientes;
+    }
+
+    @Override
+    public List<Tupla<Integer, String>> asignarTareasOptimo(double penalizacion) {
+        List<Tupla<Integer, String>> pendientes;
+        long n;
+        synchronized (this) {
+            diario.verificar();
+            pendientes = super.asignarTareasOptimo(penalizacion);
+            n = guardar(registro.empezar(ASIGNAR_OPTIMO).ponerDouble(penalizacion));
+        }
+        esperar(n);
+        return pendientes;
+    }
+
+    // ============================================================
+    // CONSULTAS
+    // ============================================================
+
+    // Con el mismo monitor que las modificaciones: leer un proyecto diferido o en disco
+    // modifica HomeSolution, y las consultas no pueden ver una operación a medias
+
+    @Override
+    public synchronized Object[] empleadosNoAsignados() {
+        return super.empleadosNoAsignados();
+    }
+
+    @Override
+    public synchronized void recorrerEmpleadosNoAsignados(VisitanteFila visitante) {
+        super.recorrerEmpleadosNoAsignados(visitante);
+    }
+
+    @Override
+    public synchronized void recorrerProyectos(Estado estado, VisitanteFila visitante) {
+        super.recorrerProyectos(estado, visitante);
+    }
+
+    @Override
+    public synchronized void recorrerEmpleados(VisitanteFila visitante) {
+        super.recorrerEmpleados(visitante);
+    }
+
+    @Override
+    public synchronized void recorrerEmpleadosAsignados(Integer numero, VisitanteFila visitante) {
+        super.recorrerEmpleadosAsignados(numero, visitante);
+    }
+
+    @Override
+    public synchronized void recorrerTareas(Integer numero, Consumer<Tarea> visitante) {
+        super.recorrerTareas(numero, visitante);
+    }
+
+    @Override
+    public synchronized void recorrerTareasNoAsignadas(Integer numero, Consumer<Tarea> visitante) {
+        super.recorrerTareasNoAsignadas(numero, visitante);
+    }
+
+    @Override
+    public synchronized boolean estaFinalizado(Integer numero) {
+        return super.estaFinalizado(numero);
+    }
+
+    @Override
+    public synchronized List<Tupla<Integer, String>> proyectosActivos() {
+        return super.proyectosActivos();
+    }
+
+    @Override
+    public synchronized List<Tupla<Integer, String>> proyectosPendientes() {
+        return super.proyectosPendientes();
+    }
+
+    @Override
+    public synchronized List<Tupla<Integer, String>> proyectosFinalizados() {
+        return super.proyectosFinalizados();
+    }
+
+    @Override
+    public synchronized int cantidadProyectos(Estado estado) {
+        return super.cantidadProyectos(estado);
+    }
+
+    @Override
+    public synchronized int[] proyectosPorFechaEstimada() {
+        return super.proyectosPorFechaEstimada();
+    }
+
+    @Override
+    public synchronized int[] empleadosDisponibles(String desde, String hasta) {
+        return super.empleadosDisponibles(desde, hasta);
+    }
+
+    @Override
+    public synchronized Tupla<Integer, String> asignacionActual(Integer legajo) {
+        return super.asignacionActual(legajo);
+    }
+
+    @Override
+    public synchronized List<Tupla<Integer, String>> proyectosEntre(String desde, String hasta) {
+        return super.proyectosEntre(desde, hasta);
+    }
+
+    @Override
+    public synchronized double costoProyecto(Integer numero) {
+        return super.costoProyecto(numero);
+    }
+
+    @Override
+    public synchronized int consultarCantidadRetrasosEmpleado(Integer legajo) {
+        return super.consultarCantidadRetrasosEmpleado(legajo);
+    }
+
+    @Override
+    public synchronized List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero) {
+        return super.empleadosAsignadosAProyecto(numero);
+    }
+
+    @Override
+    public synchronized Object[] tareasProyectoNoAsignadas(Integer numero) {
+        return super.tareasProyectoNoAsignadas(numero);
+    }
+
+    @Override
+    public synchronized Object[] tareasDeUnProyecto(Integer numero) {
+        return super.tareasDeUnProyecto(numero);
+    }
+
+    @Override
+    public synchronized String consultarDomicilioProyecto(Integer numero) {
+        return super.consultarDomicilioProyecto(numero);
+    }
+
+    @Override
+    public synchronized boolean tieneRestrasos(Integer legajo) {
+        return super.tieneRestrasos(legajo);
+    }
+
+    @Override
+    public synchronized List<Tupla<Integer, String>> empleados() {
+        return super.empleados();
+    }
+
+    @Override
+    public synchronized String consultarProyecto(Integer numero) {
+        return super.consultarProyecto(numero);
+    }
+
+    @Override
+    public synchronized int proyectosSinLeer() {
+        return super.proyectosSinLeer();
+    }
+
+    @Override
+    public synchronized int proyectosEnDisco() {
+        return super.proyectosEnDisco();
+    }
+
+    @Override
+    public synchronized void guardarInstantanea(Path archivo) throws IOException {
+        super.guardarInstantanea(archivo);
+    }
+
+    @Override
+    public synchronized void usarAlmacenFrio(Path segmento, int capacidadCache) throws IOException {
+        super.usarAlmacenFrio(segmento, capacidadCache);
+    }
+
+    @Override
+    public synchronized void cerrarAlmacenFrio() throws IOException {
+        super.cerrarAlmacenFrio();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return super.toString();
+    }
+
+    // Guarda una instantánea si hubo cambios desde la última y cierra el diario
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            try {
+                if (registrosPorCheckpoint > 0 && registrosSinFoto > 0)
+                    checkpoint();
+            } finally {
+                diario.close();
+            }
+        }
+    }
+
+    // ============================================================
+    // DIARIO
+    // ============================================================
+
+    // Se llama con el monitor tomado. Si el checkpoint automático falla la operación
+    // igual quedó en el diario: se vuelve a intentar después de otros tantos registros
+    private long guardar(BufferRegistro r) {
+        long numero = diario.agregar(r.contenido());
+        if (++registrosSinFoto == registrosPorCheckpoint) {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                registrosSinFoto = 0;
+            }
+        }
+        return numero;
+    }
+
+    private void esperar(long numero) {
+        if (esperarDisco)
+            diario.esperar(numero);
+    }
+
+    private static BufferRegistro ponerProyecto(BufferRegistro r, String[] titulos, String[] descripcion,
+                                                double[] dias, String domicilio, String[] cliente,
+                                                String inicio, String fin) {
+        return r.ponerTextos(titulos).ponerTextos(descripcion).ponerDoubles(dias).ponerTexto(domicilio)
+                .ponerTextos(cliente).ponerTexto(inicio).ponerTexto(fin);
+    }
+
+    private static DatosProyecto leerProyecto(ByteBuffer b) {
+        return new DatosProyecto(BufferRegistro.leerTextos(b), BufferRegistro.leerTextos(b),
+                BufferRegistro.leerDoubles(b), BufferRegistro.leerTexto(b), BufferRegistro.leerTextos(b),
+                BufferRegistro.leerTexto(b), BufferRegistro.leerTexto(b));
+    }
+
+    // Vuelve a aplicar un registro leído del diario, sin registrarlo otra vez
+    private void reaplicar(ByteBuffer b) {
+        byte tipo = b.get();
+        try {
+            switch (tipo) {
+                case REGISTRAR_CONTRATADO:
+                    super.registrarEmpleado(BufferRegistro.leerTexto(b), b.getDouble());
+                    break;
+                case REGISTRAR_PLANTA:
+                    super.registrarEmpleado(BufferRegistro.leerTexto(b), b.getDouble(), BufferRegistro.leerTexto(b));
+                    break;
+                case REGISTRAR_EMPLEADOS:
+                    super.registrarEmpleados(BufferRegistro.leerTextos(b), BufferRegistro.leerDoubles(b),
+                            BufferRegistro.leerTextos(b));
+                    break;
+                case REGISTRAR_PROYECTO:
+                    DatosProyecto d = leerProyecto(b);
+                    super.registrarProyecto(d.getTitulos(), d.getDescripcion(), d.getDias(), d.getDomicilio(),
+                            d.getCliente(), d.getInicio(), d.getFin());
+                    break;
+                case REGISTRAR_PROYECTOS:
+                    int cantidad = b.getInt();
+                    List<DatosProyecto> lote = new ArrayList<>(cantidad);
+                    for (int i = 0; i < cantidad; i++) {
+                        lote.add(b.getInt() == 0 ? null : leerProyecto(b));
+                    }
+                    super.registrarProyectos(lote);
+                    break;
+                case ASIGNAR:
+                    super.asignarResponsableEnTarea(BufferRegistro.leerEnteroONulo(b), BufferRegistro.leerTexto(b));
+                    break;
+                case ASIGNAR_MENOS_RETRASO:
+                    super.asignarResponsableMenosRetraso(BufferRegistro.leerEnteroONulo(b),
+                            BufferRegistro.leerTexto(b));
+                    break;
+                case RETRASO:
+                    super.registrarRetrasoEnTarea(BufferRegistro.leerEnteroONulo(b), BufferRegistro.leerTexto(b),
+                            b.getDouble());
+                    break;
+                case AGREGAR_TAREA:
+                    super.agregarTareaEnProyecto(BufferRegistro.leerEnteroONulo(b), BufferRegistro.leerTexto(b),
+                            BufferRegistro.leerTexto(b), b.getDouble());
+                    break;
+                case FINALIZAR_TAREA:
+                    super.finalizarTarea(BufferRegistro.leerEnteroONulo(b), BufferRegistro.leerTexto(b));
+                    break;
+                case FINALIZAR_PROYECTO:
+                    super.finalizarProyecto(BufferRegistro.leerEnteroONulo(b), BufferRegistro.leerTexto(b));
+                    break;
+                case REASIGNAR:
+                    super.reasignarEmpleadoEnProyecto(BufferRegistro.leerEnteroONulo(b),
+                            BufferRegistro.leerEnteroONulo(b), BufferRegistro.leerTexto(b));
+                    break;
+                case REASIGNAR_MENOS_RETRASO:
+                    super.reasignarEmpleadoConMenosRetraso(BufferRegistro.leerEnteroONulo(b),
+                            BufferRegistro.leerTexto(b));
+                    break;
+                case MODIFICAR_VALOR:
+                    super.modificarValorEmpleado(BufferRegistro.leerEnteroONulo(b), b.getDouble());
+                    break;
+                case ASIGNAR_PENDIENTES:
+                    super.asignarTareasPendientes();
+                    break;
+                case ASIGNAR_OPTIMO:
+                    super.asignarTareasOptimo(b.getDouble());
+                    break;
+                default:
+                    throw new IllegalStateException("Registro desconocido en el diario: " + tipo);
+            }
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("El diario no coincide con el estado reconstruido.", e);
+        }
+    }
+}
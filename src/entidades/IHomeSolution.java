@@ -50,6 +50,18 @@ public interface IHomeSolution {
      */
     public void registrarEmpleado(String nombre, double valor, String categoria) throws IllegalArgumentException;
 
+    /**
+     * Registra un lote de empleados. Se validan todos antes de registrar y los legajos
+     * de los válidos se reservan de una sola vez, consecutivos y en el orden del lote.
+     * @param nombres Nombre de cada empleado.
+     * @param valores Valor de trabajo de cada empleado.
+     * @param categorias Categoría de cada empleado, null para los contratados; puede ser null si son todos contratados.
+     * @return Un resultado por empleado, en el mismo orden: el legajo asignado o el motivo del rechazo.
+     * @throws IllegalArgumentException Si los arreglos son nulos o de distinto largo.
+     */
+    public List<ResultadoRegistro> registrarEmpleados(String[] nombres, double[] valores, String[] categorias)
+            throws IllegalArgumentException;
+
     // ============================================================
     // REGISTRO Y GESTIÓN DE PROYECTOS
     // ============================================================
@@ -70,6 +82,15 @@ public interface IHomeSolution {
                                   String domicilio, String[] cliente, String inicio, String fin)
             throws IllegalArgumentException;
 
+    /**
+     * Registra un lote de proyectos. Se validan todos antes de registrar y los números
+     * de los válidos se reservan de una sola vez, consecutivos y en el orden del lote.
+     * @param proyectos Datos de cada proyecto.
+     * @return Un resultado por proyecto, en el mismo orden: el número asignado o el motivo del rechazo.
+     * @throws IllegalArgumentException Si el lote es nulo.
+     */
+    public List<ResultadoRegistro> registrarProyectos(List<DatosProyecto> proyectos) throws IllegalArgumentException;
+
     // ============================================================
     // ASIGNACIÓN Y GESTIÓN DE TAREAS
     // ============================================================
@@ -251,4 +272,22 @@ public interface IHomeSolution {
      * @numero numero de proyecto.
      */
     public String consultarProyecto(Integer numero);
+
+    /**
+     * Devuelve dónde trabaja hoy un empleado.
+     * @param legajo Legajo del empleado.
+     * @return Tupla (número de proyecto, título de la tarea), o null si no está asignado.
+     */
+    public Tupla<Integer, String> asignacionActual(Integer legajo);
+
+    /**
+     * Devuelve los proyectos cuyo período (del inicio al fin estimado, o al fin real si
+     * ya finalizaron) se superpone con un rango de fechas. Con desde igual a hasta son
+     * los que estaban en curso ese día.
+     * @param desde Primer día del rango (YYYY-MM-DD o DD/MM/YYYY).
+     * @param hasta Último día del rango, inclusive.
+     * @return Tuplas (número, domicilio) ordenadas por fecha de inicio.
+     * @throws IllegalArgumentException Si alguna fecha es inválida o hasta es anterior a desde.
+     */
+    public List<Tupla<Integer, String>> proyectosEntre(String desde, String hasta);
 }
\ No newline at end of file
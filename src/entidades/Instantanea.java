@@ -0,0 +1,402 @@
+package entidades;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantánea binaria de todo un HomeSolution: empleados, proyectos con sus
+ * tareas, asignaciones, retrasos y contadores.
+ *
+ * Todos los textos se guardan una sola vez en una tabla al principio y después se
+ * referencian por posición; los empleados se referencian por legajo. Se escribe
+ * con un FileChannel en un archivo temporal que reemplaza al anterior recién
+ * cuando está completo, y se lee con un MappedByteBuffer, así que no puede pasar de
+ * TAMANIO_MAXIMO bytes: si no entra, guardar falla y deja la instantánea anterior. El costo de los proyectos
+ * sin finalizar lo recalcula Proyecto al restaurar las tareas; el de los finalizados
+ * se guarda, porque quedó fijo al finalizar.
+ *
+ * También guarda hasta dónde del diario cubre (generación y posición), para que
+ * HomeSolutionPersistente sepa desde dónde seguir reaplicando.
+ *
+ * Al final va un índice de proyectos (número, estado, dirección y posición del
+ * registro) cuya posición se anota en la cabecera. Con él se puede cargar en modo
+ * diferido: los proyectos que tienen tareas en curso se leen enseguida, porque
+ * definen qué empleados están ocupados y dónde, y los demás quedan en
+ * ProyectosDiferidos hasta que alguien los pide. Al volver a guardar, los que nunca
+ * se leyeron se copian tal cual desde la instantánea anterior.
+ */
+final class Instantanea {
+    private static final int MAGIA = 0x48534F4C;
+    private static final int VERSION = 3;
+    private static final int CABECERA = 40;
+    // Número, estado, índices de cliente, dirección y fechas, cantidad de tareas e
+    // historial y costo final
+    private static final int CABECERA_PROYECTO = 49;
+    private static final int TAREA = 29;
+    private static final byte CONTRATADO = 0;
+    private static final byte PLANTA = 1;
+    // lo más que se puede leer con un solo MappedByteBuffer
+    private static final long TAMANIO_MAXIMO = Integer.MAX_VALUE;
+
+    private final long generacion;
+    private final long diarioHasta;
+
+    private Instantanea(long generacion, long diarioHasta) {
+        this.generacion = generacion;
+        this.diarioHasta = diarioHasta;
+    }
+
+    long getGeneracion() {
+        return generacion;
+    }
+
+    long getDiarioHasta() {
+        return diarioHasta;
+    }
+
+    // ============================================================
+    // ESCRITURA
+    // ============================================================
+
+    static void guardar(HomeSolution sistema, Path archivo, long generacion, long diarioHasta) throws IOException {
+        ProyectosDiferidos diferidos = sistema.getDiferidos();
+        Map<String, Integer> textos = new LinkedHashMap<>();
+        // los registros que se copian sin leer usan los índices de la tabla anterior
+        if (diferidos != null) {
+            for (String t : diferidos.textos())
+                indice(textos, t);
+        }
+        for (Empleado e : sistema.getEmpleados()) {
+            indice(textos, e.getNombre());
+            if (e instanceof EmpleadoPlanta)
+                indice(textos, ((EmpleadoPlanta) e).getCategoria());
+        }
+        for (int numero = 1; numero <= sistema.ultimoNumeroProyecto(); numero++) {
+            Proyecto p = proyectoEnMemoriaOEnDisco(sistema, numero);
+            if (p == null)
+                continue;
+            Cliente c = p.getCliente();
+            if (c != null) {
+                indice(textos, c.getNombre());
+                indice(textos, c.getEmail());
+                indice(textos, c.getTelefono());
+            }
+            indice(textos, p.getDireccion());
+            indice(textos, p.getFechaInicio());
+            indice(textos, p.getFechaEstimada());
+            indice(textos, p.getFechaReal());
+            for (Tarea t : p.getTareas()) {
+                indice(textos, t.getTitulo());
+                indice(textos, t.getDescripcion());
+            }
+        }
+
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try {
+            escribir(sistema, temporal, generacion, diarioHasta, textos, diferidos);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void escribir(HomeSolution sistema, Path temporal, long generacion, long diarioHasta,
+                                 Map<String, Integer> textos, ProyectosDiferidos diferidos) throws IOException {
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Salida s = new Salida(canal);
+            s.lugar(CABECERA).putInt(MAGIA).putInt(VERSION).putLong(generacion).putLong(diarioHasta)
+                    .putInt(sistema.ultimoLegajo()).putInt(sistema.ultimoNumeroProyecto()).putLong(0);
+
+            s.lugar(4).putInt(textos.size());
+            for (String t : textos.keySet()) {
+                byte[] bytes = t.getBytes(StandardCharsets.UTF_8);
+                s.lugar(4 + bytes.length).putInt(bytes.length).put(bytes);
+            }
+
+            s.lugar(4).putInt(sistema.getEmpleados().tamanio());
+            for (Empleado e : sistema.getEmpleados()) {
+                boolean planta = e instanceof EmpleadoPlanta;
+                ByteBuffer b = s.lugar(30);
+                b.putInt(e.getLegajo()).put(planta ? PLANTA : CONTRATADO).putInt(textos.get(e.getNombre()));
+                if (planta) {
+                    EmpleadoPlanta ep = (EmpleadoPlanta) e;
+                    b.putDouble(ep.getValorDia()).putInt(textos.get(ep.getCategoria()));
+                } else {
+                    b.putDouble(((EmpleadoContratado) e).getValorHora()).putInt(-1);
+                }
+                b.putInt(e.getCantidadRetrasos()).put((byte) (e.estaOcupado() ? 1 : 0));
+            }
+
+            // por cada proyecto, lo que va al índice: número, estado, dirección, posición
+            // y si tiene tareas en curso
+            int cantidad = 0;
+            int[] numeros = new int[sistema.ultimoNumeroProyecto()];
+            byte[] estados = new byte[numeros.length];
+            int[] direcciones = new int[numeros.length];
+            long[] posiciones = new long[numeros.length];
+            boolean[] enCurso = new boolean[numeros.length];
+            for (int numero = 1; numero <= numeros.length; numero++) {
+                Proyecto p = proyectoEnMemoriaOEnDisco(sistema, numero);
+                posiciones[cantidad] = s.posicion();
+                if (p != null) {
+                    escribirProyecto(s, p, textos);
+                    estados[cantidad] = (byte) p.getEstado().ordinal();
+                    direcciones[cantidad] = indice(textos, p.getDireccion());
+                    enCurso[cantidad] = tieneTareasEnCurso(p);
+                } else if (diferidos != null && diferidos.contiene(numero)) {
+                    // sin leer desde la última carga: no pudo haber cambiado
+                    ByteBuffer datos = diferidos.datos();
+                    int pos = diferidos.posicion(numero);
+                    copiarProyecto(s, datos, pos);
+                    estados[cantidad] = datos.get(pos + 4);
+                    direcciones[cantidad] = datos.getInt(pos + 17);
+                } else {
+                    continue;
+                }
+                numeros[cantidad++] = numero;
+            }
+
+            long posIndice = s.posicion();
+            s.lugar(4).putInt(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                s.lugar(18).putInt(numeros[i]).put(estados[i]).putInt(direcciones[i])
+                        .putLong(posiciones[i]).put((byte) (enCurso[i] ? 1 : 0));
+            }
+            s.vaciar();
+            // la posición del índice recién se conoce al final
+            ByteBuffer cabecera = ByteBuffer.allocate(8);
+            cabecera.putLong(posIndice).flip();
+            long en = 32;
+            while (cabecera.hasRemaining()) {
+                en += canal.write(cabecera, en);
+            }
+            canal.force(true);
+        }
+    }
+
+    private static void escribirProyecto(Salida s, Proyecto p, Map<String, Integer> textos) throws IOException {
+        Cliente c = p.getCliente();
+        ByteBuffer b = s.lugar(CABECERA_PROYECTO);
+        b.putInt(p.getNumero()).put((byte) p.getEstado().ordinal());
+        b.putInt(c == null ? -1 : textos.get(c.getNombre()))
+                .putInt(indice(textos, c == null ? null : c.getEmail()))
+                .putInt(indice(textos, c == null ? null : c.getTelefono()));
+        b.putInt(indice(textos, p.getDireccion())).putInt(indice(textos, p.getFechaInicio()))
+                .putInt(indice(textos, p.getFechaEstimada())).putInt(indice(textos, p.getFechaReal()));
+        b.putInt(p.getTareas().size()).putInt(p.getHistorialEmpleados().size()).putDouble(p.getCostoFinal());
+        for (Tarea t : p.getTareas()) {
+            s.lugar(TAREA).putInt(textos.get(t.getTitulo())).putInt(indice(textos, t.getDescripcion()))
+                    .putDouble(t.getDiasNecesarios()).putDouble(t.obtenerDiasRetraso())
+                    .putInt(t.estaAsignada() ? t.obtenerEmpleado().getLegajo() : 0)
+                    .put((byte) (t.estaFinalizada() ? 1 : 0));
+        }
+        for (Empleado e : p.getHistorialEmpleados()) {
+            s.lugar(4).putInt(e.getLegajo());
+        }
+    }
+
+    private static void copiarProyecto(Salida s, ByteBuffer datos, int pos) throws IOException {
+        int largo = CABECERA_PROYECTO + TAREA * datos.getInt(pos + 33) + 4 * datos.getInt(pos + 37);
+        ByteBuffer registro = datos.duplicate();
+        registro.limit(pos + largo).position(pos);
+        s.lugar(largo).put(registro);
+    }
+
+    // El proyecto en memoria o en el almacenamiento de finalizados; null si no está
+    // o si sigue sin leer de la instantánea anterior. Los de disco se leen de a uno,
+    // sin dejarlos en el caché
+    private static Proyecto proyectoEnMemoriaOEnDisco(HomeSolution sistema, int numero) {
+        Proyecto p = sistema.getProyectos().get(numero);
+        if (p == null && sistema.esFrio(numero))
+            p = sistema.leerFrioSinCachear(numero);
+        return p;
+    }
+
+    // Un proyecto sin finalizar con alguna tarea asignada y sin terminar
+    private static boolean tieneTareasEnCurso(Proyecto p) {
+        if (p.estaFinalizado())
+            return false;
+        for (Tarea t : p.getTareas()) {
+            if (t.estaAsignada() && !t.estaFinalizada())
+                return true;
+        }
+        return false;
+    }
+
+    // Posición del texto en la tabla, agregándolo si es nuevo; -1 para null
+    private static int indice(Map<String, Integer> textos, String texto) {
+        if (texto == null)
+            return -1;
+        Integer i = textos.get(texto);
+        if (i == null) {
+            i = textos.size();
+            textos.put(texto, i);
+        }
+        return i;
+    }
+
+    // Acumula en un buffer directo y lo pasa al canal cuando se llena
+    private static final class Salida {
+        private final FileChannel canal;
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        private long escritos;
+
+        Salida(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        ByteBuffer lugar(int bytes) throws IOException {
+            if (posicion() + bytes > TAMANIO_MAXIMO)
+                throw new IOException("La instantánea no entra en " + TAMANIO_MAXIMO + " bytes.");
+            if (buffer.remaining() < bytes) {
+                vaciar();
+                if (buffer.capacity() < bytes)
+                    buffer = ByteBuffer.allocateDirect(bytes);
+            }
+            return buffer;
+        }
+
+        // Bytes del archivo hasta lo último pedido con lugar
+        long posicion() {
+            return escritos + buffer.position();
+        }
+
+        void vaciar() throws IOException {
+            escritos += buffer.position();
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    // ============================================================
+    // LECTURA
+    // ============================================================
+
+    // Carga la instantánea en un HomeSolution recién creado; con diferir, los proyectos
+    // sin tareas en curso quedan sin leer hasta que se los pida
+    static Instantanea cargar(Path archivo, HomeSolution sistema, boolean diferir) throws IOException {
+        MappedByteBuffer b;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() > TAMANIO_MAXIMO)
+                throw new IOException("La instantánea " + archivo + " pasa de " + TAMANIO_MAXIMO + " bytes.");
+            b = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (b.remaining() < CABECERA || b.getInt() != MAGIA)
+            throw new IOException("El archivo no es una instantánea de HomeSolution.");
+        if (b.getInt() != VERSION)
+            throw new IOException("Versión de instantánea desconocida.");
+        Instantanea instantanea = new Instantanea(b.getLong(), b.getLong());
+        int ultimoLegajo = b.getInt();
+        int ultimoNumero = b.getInt();
+        long posIndice = b.getLong();
+
+        String[] textos = new String[b.getInt()];
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < textos.length; i++) {
+            int largo = b.getInt();
+            if (largo > bytes.length)
+                bytes = new byte[Math.max(largo, bytes.length * 2)];
+            b.get(bytes, 0, largo);
+            textos[i] = new String(bytes, 0, largo, StandardCharsets.UTF_8);
+        }
+
+        int cantEmpleados = b.getInt();
+        sistema.getEmpleados().asegurarCapacidad(ultimoLegajo);
+        for (int i = 0; i < cantEmpleados; i++) {
+            int legajo = b.getInt();
+            byte tipo = b.get();
+            String nombre = textos[b.getInt()];
+            double valor = b.getDouble();
+            int categoria = b.getInt();
+            Empleado e = tipo == PLANTA ? new EmpleadoPlanta(nombre, legajo, valor, textos[categoria])
+                                        : new EmpleadoContratado(nombre, legajo, valor);
+            e.restaurar(b.getInt(), b.get() == 1);
+            sistema.restaurarEmpleado(e);
+        }
+
+        sistema.getProyectos().asegurarCapacidad(ultimoNumero);
+        ProyectosDiferidos diferidos = diferir ? new ProyectosDiferidos(b, textos, ultimoNumero) : null;
+        Estado[] estados = Estado.values();
+        b.position(Math.toIntExact(posIndice));
+        int cantProyectos = b.getInt();
+        for (int i = 0; i < cantProyectos; i++) {
+            int numero = b.getInt();
+            Estado estado = estados[b.get()];
+            String direccion = texto(textos, b.getInt());
+            int posicion = Math.toIntExact(b.getLong());
+            boolean enCurso = b.get() == 1;
+            if (diferidos == null || enCurso) {
+                sistema.restaurarProyecto(leerProyecto(b, posicion, textos, sistema));
+            } else {
+                diferidos.agregar(numero, posicion);
+                // las fechas se leen del registro sin armar el proyecto
+                sistema.restaurarProyectoDiferido(numero, estado, direccion,
+                        Fecha.diaEpocaDeTexto(textos[b.getInt(posicion + 21)]),
+                        Fecha.diaEpocaDeTexto(textos[b.getInt(posicion + 25)]),
+                        Fecha.diaEpocaDeTexto(textos[b.getInt(posicion + 29)]));
+            }
+        }
+
+        sistema.restaurarContadores(ultimoLegajo, ultimoNumero);
+        if (diferidos != null)
+            sistema.diferirProyectos(diferidos);
+        return instantanea;
+    }
+
+    // Lee el registro del proyecto que empieza en pos, sin mover la posición de datos
+    static Proyecto leerProyecto(ByteBuffer datos, int pos, String[] textos, HomeSolution sistema) {
+        ByteBuffer b = datos.duplicate();
+        b.position(pos);
+        int numero = b.getInt();
+        Estado estado = Estado.values()[b.get()];
+        int nombreCliente = b.getInt();
+        String email = texto(textos, b.getInt());
+        String telefono = texto(textos, b.getInt());
+        String[] cliente = nombreCliente < 0 ? null : new String[] {textos[nombreCliente], email, telefono};
+        String direccion = texto(textos, b.getInt());
+        String inicio = texto(textos, b.getInt());
+        String estimada = texto(textos, b.getInt());
+        String real = texto(textos, b.getInt());
+        int cantTareas = b.getInt();
+        int cantHistorial = b.getInt();
+        double costo = b.getDouble();
+
+        List<Tarea> tareas = new ArrayList<>(cantTareas);
+        for (int j = 0; j < cantTareas; j++) {
+            Tarea t = new Tarea(textos[b.getInt()], texto(textos, b.getInt()), b.getDouble());
+            double retraso = b.getDouble();
+            int legajo = b.getInt();
+            t.restaurar(retraso, legajo == 0 ? null : sistema.buscarEmpleado(legajo), b.get() == 1);
+            tareas.add(t);
+        }
+        List<Empleado> historial = new ArrayList<>(cantHistorial);
+        for (int j = 0; j < cantHistorial; j++) {
+            historial.add(sistema.buscarEmpleado(b.getInt()));
+        }
+        Proyecto p = new Proyecto(numero, cliente, direccion, tareas, inicio, estimada);
+        p.restaurar(estado, real, historial);
+        if (estado == Estado.finalizado)
+            p.fijarCosto(costo);
+        return p;
+    }
+
+    private static String texto(String[] textos, int indice) {
+        return indice < 0 ? null : textos[indice];
+    }
+}
@@ -0,0 +1,186 @@
+package entidades;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Árbol de intervalos con el período de cada proyecto: desde el inicio hasta el
+ * fin estimado, o el real una vez finalizado, en días de época (ver Fecha).
+ *
+ * Es un treap ordenado por (inicio, número) en el que cada nodo guarda además el
+ * mayor fin de su subárbol; así una búsqueda descarta los subárboles que terminan
+ * antes del rango pedido y deja de bajar por la derecha cuando los inicios ya
+ * pasaron el final. Agregar y cambiar un fin son O(log n) esperado; buscar es
+ * O(log n + k) en los casos habituales (a lo sumo O(k log n)) para k resultados.
+ *
+ * Como los números de proyecto son secuenciales, el nodo de cada proyecto es su
+ * número: los datos van en arreglos de int indexados por número (0 es "sin
+ * nodo"), sin un objeto por proyecto. La prioridad sale de mezclar los bits del
+ * número, así el árbol queda igual en cada carga. Los métodos usan el monitor
+ * del índice, una sección corta: lo tocan proyectos de franjas distintas.
+ */
+final class IntervalosProyectos {
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private int[] inicio = new int[CAPACIDAD_INICIAL];
+    private int[] fin = new int[CAPACIDAD_INICIAL];
+    private int[] maximoFin = new int[CAPACIDAD_INICIAL];
+    private int[] izquierdo = new int[CAPACIDAD_INICIAL];
+    private int[] derecho = new int[CAPACIDAD_INICIAL];
+    private boolean[] presente = new boolean[CAPACIDAD_INICIAL];
+    private int raiz;
+    private int cantidad;
+
+    synchronized void agregar(int numero, int desde, int hasta) {
+        if (numero < 1)
+            throw new IllegalArgumentException("Número de proyecto inválido: " + numero);
+        asegurarCapacidad(numero);
+        if (presente[numero])
+            throw new IllegalArgumentException("El proyecto " + numero + " ya tiene su período indexado");
+        presente[numero] = true;
+        inicio[numero] = desde;
+        fin[numero] = hasta;
+        maximoFin[numero] = hasta;
+        raiz = insertar(raiz, numero);
+        cantidad++;
+    }
+
+    // El inicio no cambia nunca; el fin cambia al finalizar el proyecto
+    synchronized void cambiarFin(int numero, int hasta) {
+        if (!contiene(numero))
+            throw new IllegalArgumentException("El proyecto " + numero + " no tiene su período indexado");
+        fin[numero] = hasta;
+        actualizarCamino(raiz, numero);
+    }
+
+    synchronized boolean contiene(int numero) {
+        return numero >= 1 && numero < presente.length && presente[numero];
+    }
+
+    synchronized int cantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Agrega a salida, en orden de inicio, los proyectos cuyo período se superpone
+     * con [desde, hasta] (ambos inclusive).
+     */
+    synchronized void superpuestos(int desde, int hasta, List<Integer> salida) {
+        buscar(raiz, desde, hasta, salida);
+    }
+
+    // Copia que ya no cambia: se puede publicar y buscar en ella sin el monitor
+    synchronized Copia copia() {
+        IntervalosProyectos copia = new IntervalosProyectos();
+        copia.inicio = inicio.clone();
+        copia.fin = fin.clone();
+        copia.maximoFin = maximoFin.clone();
+        copia.izquierdo = izquierdo.clone();
+        copia.derecho = derecho.clone();
+        copia.presente = presente.clone();
+        copia.raiz = raiz;
+        copia.cantidad = cantidad;
+        return new Copia(copia);
+    }
+
+    static final class Copia {
+        private final IntervalosProyectos arbol;
+
+        private Copia(IntervalosProyectos arbol) {
+            this.arbol = arbol;
+        }
+
+        // Como IntervalosProyectos.superpuestos
+        void superpuestos(int desde, int hasta, List<Integer> salida) {
+            arbol.buscar(arbol.raiz, desde, hasta, salida);
+        }
+    }
+
+    private void buscar(int nodo, int desde, int hasta, List<Integer> salida) {
+        while (nodo != 0 && maximoFin[nodo] >= desde) {
+            buscar(izquierdo[nodo], desde, hasta, salida);
+            if (inicio[nodo] > hasta)
+                return;
+            if (fin[nodo] >= desde)
+                salida.add(nodo);
+            nodo = derecho[nodo];
+        }
+    }
+
+    private int insertar(int nodo, int nuevo) {
+        if (nodo == 0)
+            return nuevo;
+        if (menor(nuevo, nodo)) {
+            izquierdo[nodo] = insertar(izquierdo[nodo], nuevo);
+            if (prioridad(izquierdo[nodo]) > prioridad(nodo))
+                return rotarDerecha(nodo);
+        } else {
+            derecho[nodo] = insertar(derecho[nodo], nuevo);
+            if (prioridad(derecho[nodo]) > prioridad(nodo))
+                return rotarIzquierda(nodo);
+        }
+        recalcular(nodo);
+        return nodo;
+    }
+
+    // Baja hasta el nodo buscando por su clave y recalcula los máximos de vuelta
+    private void actualizarCamino(int nodo, int buscado) {
+        if (nodo != buscado)
+            actualizarCamino(menor(buscado, nodo) ? izquierdo[nodo] : derecho[nodo], buscado);
+        recalcular(nodo);
+    }
+
+    private int rotarDerecha(int nodo) {
+        int hijo = izquierdo[nodo];
+        izquierdo[nodo] = derecho[hijo];
+        derecho[hijo] = nodo;
+        recalcular(nodo);
+        recalcular(hijo);
+        return hijo;
+    }
+
+    private int rotarIzquierda(int nodo) {
+        int hijo = derecho[nodo];
+        derecho[nodo] = izquierdo[hijo];
+        izquierdo[hijo] = nodo;
+        recalcular(nodo);
+        recalcular(hijo);
+        return hijo;
+    }
+
+    private void recalcular(int nodo) {
+        int maximo = fin[nodo];
+        if (izquierdo[nodo] != 0)
+            maximo = Math.max(maximo, maximoFin[izquierdo[nodo]]);
+        if (derecho[nodo] != 0)
+            maximo = Math.max(maximo, maximoFin[derecho[nodo]]);
+        maximoFin[nodo] = maximo;
+    }
+
+    private boolean menor(int a, int b) {
+        return inicio[a] != inicio[b] ? inicio[a] < inicio[b] : a < b;
+    }
+
+    // Mezcla de bits (la de MurmurHash3): prioridades bien repartidas y siempre las mismas
+    private static int prioridad(int numero) {
+        int h = numero;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private void asegurarCapacidad(int numero) {
+        if (numero < presente.length)
+            return;
+        int nueva = Math.max(numero + 1, presente.length + (presente.length >> 1));
+        inicio = Arrays.copyOf(inicio, nueva);
+        fin = Arrays.copyOf(fin, nueva);
+        maximoFin = Arrays.copyOf(maximoFin, nueva);
+        izquierdo = Arrays.copyOf(izquierdo, nueva);
+        derecho = Arrays.copyOf(derecho, nueva);
+        presente = Arrays.copyOf(presente, nueva);
+    }
+}
@@ -0,0 +1,10 @@
+package entidades;
+
+/**
+ * Recibe los cambios de estado de un proyecto en el momento en que ocurren,
+ * para que índices y estadísticas se actualicen sin tener que recorrer los proyectos.
+ */
+public interface ObservadorEstado {
+
+    void cambioDeEstado(Proyecto proyecto, Estado anterior, Estado nuevo);
+}
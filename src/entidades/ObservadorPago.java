@@ -0,0 +1,10 @@
+package entidades;
+
+/**
+ * Recibe el aviso de que cambió lo que cobra un empleado (cambio de valor
+ * o pérdida del adicional), para recalcular los costos que dependen de él.
+ */
+public interface ObservadorPago {
+
+    void pagoModificado(Empleado empleado);
+}
@@ -4,25 +4,48 @@
 package entidades;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Proyecto {
+    // Con -Dhomesolution.verificarCostos=true cada costo incremental se compara con el recálculo completo
+    private static final boolean VERIFICAR_COSTOS = Boolean.getBoolean("homesolution.verificarCostos");
+
     private Integer numero;
     private Cliente cliente;
     private String direccion;
     private List<Tarea> listaDeTareas;
-    private String fechaInicio;
-    private String fechaEstimada;
-    private String fechaReal;
-    private String estado;
-    private double costoFinal;
+    private Map<String, Tarea> tareasPorTitulo;
+    // fechas como días desde el 1/1/1970 (ver Fecha), leídas una sola vez del texto
+    private int inicio;
+    private int finEstimado;
+    private int finReal;
+    private volatile Estado estado;
+    // los acumulados del costo se tocan con el monitor del proyecto: un cambio de pago
+    // de un empleado los actualiza desde la operación de otro proyecto
+    private volatile double costoFinal;
+    // al finalizar el costo queda fijo: ya no sigue los cambios de pago ni de tareas
+    private volatile boolean costoFijo;
+    private double sumaPagos;
+    private int tareasConRetraso;
     private List<Empleado> historialEmpleados;
+    private List<ObservadorEstado> observadores;
 
     public Proyecto(Integer numero, String[] datosCliente, String direccion, 
     		List<Tarea> tareas, String fechaInicio, String fechaEstimada) {
+        this(numero, datosCliente, direccion, tareas, Fecha.diaEpocaDeTexto(fechaInicio),
+                Fecha.diaEpocaDeTexto(fechaEstimada));
+    }
+
+    public Proyecto(Integer numero, String[] datosCliente, String direccion,
+                    List<Tarea> tareas, int inicio, int finEstimado) {
         if (numero == null || numero <= 0) {
             throw new IllegalArgumentException("El número de proyecto es inválido");
         }
+        if (finEstimado < inicio) {
+            throw new IllegalArgumentException("La fecha estimada de fin no puede ser anterior al inicio");
+        }
         if (tareas == null || tareas.isEmpty()) {
             throw new IllegalArgumentException("Tiene que haber al menos una tarea");
         }
@@ -32,17 +55,25 @@ public class Proyecto {
             this.cliente = new Cliente(datosCliente[0], datosCliente[1], datosCliente[2]);
         }
         this.direccion = direccion;
-        this.fechaInicio = fechaInicio;
-        this.fechaEstimada = fechaEstimada;
-        this.fechaReal = fechaEstimada;
+        this.inicio = inicio;
+        this.finEstimado = finEstimado;
+        this.finReal = finEstimado;
         this.estado = Estado.pendiente;
         this.costoFinal = 0;
-        this.listaDeTareas = new ArrayList<>(tareas);
+        this.sumaPagos = 0;
+        this.tareasConRetraso = 0;
+        this.listaDeTareas = new ArrayList<>(tareas.size());
+        this.tareasPorTitulo = new HashMap<>(tareas.size() * 4 / 3 + 1);
+        for (Tarea t : tareas) {
+            indexarTarea(t);
+        }
         this.historialEmpleados = new ArrayList<>();
+        this.observadores = new ArrayList<>();
+        actualizarCosto();
     }
 
     public void asignarEmpleadoTarea(String tituloTarea, Empleado empleado) throws Exception {
-        if (estado.equals(Estado.finalizado)) {
+        if (estado == Estado.finalizado) {
             throw new Exception("No se puede asignar empleados a un proyecto finalizado");
         }
         
@@ -57,15 +88,36 @@ public class Proyecto {
             historialEmpleados.add(empleado);
         }
         
-        if (estado.equals(Estado.pendiente)) {
-            activar();
+        if (estado == Estado.pendiente) {
+            cambiarEstado(Estado.activo, tarea);
         }
         
+        contabilizar(tarea);
+        actualizarCosto(tarea);
+    }
+
+    // Asigna varias tareas de una vez: el proyecto se activa y el costo se actualiza una sola vez
+    void asignarEnLote(List<Tarea> tareas, List<Empleado> responsables) {
+        if (estado == Estado.finalizado) {
+            throw new IllegalArgumentException("No se puede asignar empleados a un proyecto finalizado");
+        }
+        for (int i = 0; i < tareas.size(); i++) {
+            Tarea tarea = tareas.get(i);
+            Empleado empleado = responsables.get(i);
+            tarea.asignarEmpleado(empleado);
+            if (!historialEmpleados.contains(empleado)) {
+                historialEmpleados.add(empleado);
+            }
+            contabilizar(tarea);
+        }
+        if (estado == Estado.pendiente) {
+            activar();
+        }
         actualizarCosto();
     }
 
     public void reasignarEmpleado(String tituloTarea, Empleado nuevoEmpleado) throws Exception {
-        if (estado.equals(Estado.finalizado)) {
+        if (estado == Estado.finalizado) {
             throw new Exception("No se puede reasignar empleados en un proyecto finalizado");
         }
         
@@ -80,11 +132,12 @@ public class Proyecto {
             historialEmpleados.add(nuevoEmpleado);
         }
         
-        actualizarCosto();
+        contabilizar(tarea);
+        actualizarCosto(tarea);
     }
 
     public void registrarRetraso(String tituloTarea, double diasRetraso) {
-        if (estado.equals(Estado.finalizado)) {
+        if (estado == Estado.finalizado) {
             throw new IllegalArgumentException("No se pueden registrar retrasos en un proyecto finalizado");
         }
         
@@ -93,18 +146,30 @@ public class Proyecto {
             throw new IllegalArgumentException("La tarea no existe");
         }
         
+        if (diasRetraso <= 0) {
+            throw new IllegalArgumentException("Los días de retraso tienen que ser mayores a 0");
+        }
+        // se cuenta antes porque el retraso puede avisar un cambio de pago del responsable,
+        // y quien recibe el aviso tiene que ver el proyecto consistente
+        if (tarea.obtenerDiasRetraso() == 0) {
+            synchronized (this) {
+                tareasConRetraso++;
+            }
+        }
+
         tarea.registrarRetraso(diasRetraso);
-        actualizarCosto();
+        contabilizar(tarea);
+        actualizarCosto(tarea);
     }
 
     public void agregarTarea(String titulo, String descripcion, double dias) {
-        if (estado.equals(Estado.finalizado)) {
+        if (estado == Estado.finalizado) {
             throw new IllegalArgumentException("No se pueden agregar tareas a un proyecto finalizado");
         }
         
-        Tarea nuevaTarea = new Tarea(titulo, descripcion, dias);
-        listaDeTareas.add(nuevaTarea);
-        
+        Tarea tarea = new Tarea(titulo, descripcion, dias);
+        indexarTarea(tarea);
+        actualizarCosto(tarea);
     }
 
     public void finalizarTarea(String tituloTarea) throws Exception {
@@ -114,16 +179,20 @@ public class Proyecto {
         }
         
         tarea.finalizarTarea();
-        actualizarCosto();
+        actualizarCosto(tarea);
     }
 
     public void finalizar(String fechaFin) {
-        if (estado.equals(Estado.finalizado)) {
+        if (estado == Estado.finalizado) {
             throw new IllegalArgumentException("El proyecto ya está finalizado");
         }
+        int fin = Fecha.diaEpocaDeTexto(fechaFin);
+        if (fin < finEstimado) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la estimada");
+        }
         
-        this.fechaReal = fechaFin;
-        this.estado = Estado.finalizado;
+        this.finReal = fin;
+        cambiarEstado(Estado.finalizado, null);
         
         // Liberamos empleados asignados
         for (Tarea tarea : listaDeTareas) {
@@ -136,24 +205,66 @@ public class Proyecto {
         }
         
         actualizarCosto();
+        costoFijo = true;
     }
 
     public void activar() {
-        this.estado = Estado.activo;
+        cambiarEstado(Estado.activo, null);
+    }
+
+    // Restaura estado, fecha real e historial guardados en una instantánea. Las tareas ya
+    // vienen restauradas al constructor, que recalcula los acumulados del costo
+    void restaurar(Estado estado, String fechaReal, List<Empleado> historial) {
+        this.estado = estado;
+        this.finReal = Fecha.diaEpocaDeTexto(fechaReal);
+        this.historialEmpleados = historial;
     }
 
-    public double calcularCosto() {
+    public void agregarObservador(ObservadorEstado observador) {
+        observadores.add(observador);
+    }
+
+    public void quitarObservador(ObservadorEstado observador) {
+        observadores.remove(observador);
+    }
+
+    // causa: la tarea cuya asignación activó el proyecto, o null
+    private void cambiarEstado(Estado nuevo, Tarea causa) {
+        if (!estado.puedePasarA(nuevo)) {
+            throw new IllegalArgumentException("No se puede pasar de " + estado + " a " + nuevo);
+        }
+        EventoEstado evento = new EventoEstado();
+        evento.begin();
+        Estado anterior = estado;
+        this.estado = nuevo;
+        for (ObservadorEstado o : observadores) {
+            o.cambioDeEstado(this, anterior, nuevo);
+        }
+        evento.emitir(numero, causa, anterior, nuevo);
+    }
+
+    // Costo a partir de los acumulados: no recorre las tareas
+    public synchronized double calcularCosto() {
+        double costo = sumaPagos * (tieneRetrasos() ? 1.25 : 1.35);
+        if (VERIFICAR_COSTOS) {
+            verificarCosto(costo);
+        }
+        return costo;
+    }
+
+    // Costo recorriendo todas las tareas, sin usar los acumulados
+    public double recalcularCosto() {
         double costoTotal = 0;
+        boolean conRetrasos = false;
         
         for (Tarea tarea : listaDeTareas) {
-            if (tarea.obtenerEmpleado() != null) {
-                double dias = tarea.obtenerDuracion();
-                double pago = tarea.obtenerEmpleado().calcularPago(dias);
-                costoTotal += pago;
+            costoTotal += tarea.calcularPago();
+            if (tarea.obtenerDiasRetraso() > 0) {
+                conRetrasos = true;
             }
         }
         
-        if (tieneRetrasos()) {
+        if (conRetrasos) {
             costoTotal *= 1.25; // 25% adicional si tiene retrasos
         } else {
             costoTotal *= 1.35; // 35% adicional si NO tiene retrasos
@@ -163,16 +274,42 @@ public class Proyecto {
     }
 
     public void actualizarCosto() {
+        actualizarCosto(null);
+    }
+
+    // causa: la tarea cuyo cambio obliga a actualizar el costo, o null si es el proyecto entero
+    synchronized void actualizarCosto(Tarea causa) {
+        if (costoFijo)
+            return;
+        EventoCosto evento = new EventoCosto();
+        evento.begin();
         this.costoFinal = calcularCosto();
+        evento.emitir(numero, causa, VERIFICAR_COSTOS ? listaDeTareas.size() : causa == null ? 0 : 1, costoFinal);
+    }
+
+    // Deja el costo que tenía el proyecto al finalizar, en vez del recalculado con los pagos de hoy
+    void fijarCosto(double costo) {
+        this.costoFinal = costo;
+        this.costoFijo = true;
     }
 
     public boolean tieneRetrasos() {
-        for (Tarea tarea : listaDeTareas) {
-            if (tarea.obtenerDiasRetraso() > 0) {
-                return true;
-            }
+        return tareasConRetraso > 0;
+    }
+
+    // Reemplaza en la suma lo que aportaba la tarea por lo que aporta ahora
+    synchronized void contabilizar(Tarea tarea) {
+        double pago = tarea.calcularPago();
+        sumaPagos += pago - tarea.getPagoContabilizado();
+        tarea.setPagoContabilizado(pago);
+    }
+
+    private void verificarCosto(double costo) {
+        double esperado = recalcularCosto();
+        if (Math.abs(costo - esperado) > 1e-6 * Math.max(1, Math.abs(esperado))) {
+            throw new IllegalStateException("Costo incremental " + costo + " distinto del recalculado "
+                    + esperado + " en el proyecto " + numero);
         }
-        return false;
     }
 
     public List<Tarea> obtenerTareas() {
@@ -192,17 +329,41 @@ public class Proyecto {
         return empleadosActuales;
     }
 
+    public List<Tarea> tareasSinAsignar() {
+        List<Tarea> sinAsignar = new ArrayList<>();
+        for (Tarea tarea : listaDeTareas) {
+            if (!tarea.estaAsignada() && !tarea.estaFinalizada()) {
+                sinAsignar.add(tarea);
+            }
+        }
+        return sinAsignar;
+    }
+
     public List<Empleado> obtenerHistorialEmpleados() {
         return historialEmpleados;
     }
 
-    private Tarea buscarTarea(String titulo) {
-        for (Tarea tarea : listaDeTareas) {
-            if (tarea.getTitulo().equals(titulo)) {
-                return tarea;
-            }
+    public Empleado responsableDe(String tituloTarea) {
+        Tarea tarea = buscarTarea(tituloTarea);
+        return tarea == null ? null : tarea.obtenerEmpleado();
+    }
+
+    Tarea buscarTarea(String titulo) {
+        return tareasPorTitulo.get(titulo);
+    }
+
+    // El título identifica a la tarea dentro del proyecto, por eso no se admiten repetidos
+    private synchronized void indexarTarea(Tarea tarea) {
+        if (tareasPorTitulo.containsKey(tarea.getTitulo())) {
+            throw new IllegalArgumentException("Ya existe una tarea con el título " + tarea.getTitulo());
+        }
+        tareasPorTitulo.put(tarea.getTitulo(), tarea);
+        listaDeTareas.add(tarea);
+        if (tarea.obtenerDiasRetraso() > 0) {
+            tareasConRetraso++;
         }
-        return null;
+        tarea.setPagoContabilizado(0);
+        contabilizar(tarea);
     }
 
 
@@ -214,7 +375,7 @@ public class Proyecto {
         return direccion;
     }
 
-    public String getEstado() {
+    public Estado getEstado() {
         return estado;
     }
 
@@ -230,16 +391,30 @@ public class Proyecto {
         return cliente;
     }
 
+    // Las fechas en texto salen siempre como yyyy-MM-dd, se hayan registrado en el formato que sea
     public String getFechaInicio() {
-        return fechaInicio;
+        return Fecha.textoIso(inicio);
     }
 
     public String getFechaEstimada() {
-        return fechaEstimada;
+        return Fecha.textoIso(finEstimado);
     }
 
     public String getFechaReal() {
-        return fechaReal;
+        return Fecha.textoIso(finReal);
+    }
+
+    // Las mismas fechas como días desde el 1/1/1970, para ordenar y comparar sin leer texto
+    public int getDiaInicio() {
+        return inicio;
+    }
+
+    public int getDiaFinEstimado() {
+        return finEstimado;
+    }
+
+    public int getDiaFinReal() {
+        return finReal;
     }
 
     public double getCostoFinal() {
@@ -247,15 +422,15 @@ public class Proyecto {
     }
 
     public boolean estaFinalizado() {
-        return estado.equals(Estado.finalizado);
+        return estado == Estado.finalizado;
     }
 
     public boolean estaPendiente() {
-        return estado.equals(Estado.pendiente);
+        return estado == Estado.pendiente;
     }
 
     public boolean estaActivo() {
-        return estado.equals(Estado.activo);
+        return estado == Estado.activo;
     }
 
     @Override
@@ -265,9 +440,9 @@ public class Proyecto {
         sb.append("Dirección: ").append(direccion).append("\n");
         sb.append("Cliente: ").append(cliente).append("\n");
         sb.append("Estado: ").append(estado).append("\n");
-        sb.append("Fecha inicio: ").append(fechaInicio).append("\n");
-        sb.append("Fecha estimada: ").append(fechaEstimada).append("\n");
-        sb.append("Fecha real: ").append(fechaReal).append("\n");
+        sb.append("Fecha inicio: ").append(getFechaInicio()).append("\n");
+        sb.append("Fecha estimada: ").append(getFechaEstimada()).append("\n");
+        sb.append("Fecha real: ").append(getFechaReal()).append("\n");
         sb.append("Costo final: $").append(String.format("%.2f", costoFinal)).append("\n"); // el %.2f es para que el numero tenga hasta 2 cifras decimales
         sb.append("Retrasos: ").append(tieneRetrasos() ? "Sí" : "No").append("\n");
         sb.append("\nTareas:\n");
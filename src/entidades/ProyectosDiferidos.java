@@ -0,0 +1,57 @@
+package entidades;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Proyectos de una instantánea que todavía no se leyeron. Por cada número se
+ * guarda solo la posición de su registro en el archivo mapeado; HomeSolution lo
+ * lee la primera vez que alguien necesita el proyecto y lo saca de acá.
+ *
+ * No es seguro para varios hilos: leer un proyecto modifica HomeSolution, así que
+ * tiene que pasar por el mismo hilo (o lock) que las demás operaciones.
+ */
+final class ProyectosDiferidos {
+    private final ByteBuffer datos;
+    private final String[] textos;
+    private final int[] posiciones;
+    private int cantidad;
+
+    ProyectosDiferidos(ByteBuffer datos, String[] textos, int ultimoNumero) {
+        this.datos = datos;
+        this.textos = textos;
+        this.posiciones = new int[ultimoNumero];
+    }
+
+    // Las posiciones nunca son 0 porque el archivo empieza con la cabecera
+    void agregar(int numero, int posicion) {
+        posiciones[numero - 1] = posicion;
+        cantidad++;
+    }
+
+    boolean contiene(int numero) {
+        return numero >= 1 && numero <= posiciones.length && posiciones[numero - 1] != 0;
+    }
+
+    int posicion(int numero) {
+        return posiciones[numero - 1];
+    }
+
+    int cantidad() {
+        return cantidad;
+    }
+
+    Proyecto leer(int numero, HomeSolution sistema) {
+        Proyecto p = Instantanea.leerProyecto(datos, posicion(numero), textos, sistema);
+        posiciones[numero - 1] = 0;
+        cantidad--;
+        return p;
+    }
+
+    ByteBuffer datos() {
+        return datos;
+    }
+
+    String[] textos() {
+        return textos;
+    }
+}
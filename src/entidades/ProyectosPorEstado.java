@@ -0,0 +1,110 @@
+package entidades;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índice de proyectos agrupados por estado.
+ * Cada proyecto está en exactamente un grupo; se lo mueve de grupo al recibir
+ * el aviso de cambio de estado del propio Proyecto. Dentro de cada grupo los
+ * proyectos quedan ordenados por número. Solo se guarda número, dirección y fin
+ * estimado, lo que hace falta para listar y ordenar por fecha, así también
+ * entran proyectos que todavía no se leyeron de una instantánea.
+ *
+ * Los grupos son mapas concurrentes: proyectos de franjas distintas se mueven a
+ * la vez y los listados se leen sin locks. Un proyecto que cambia de estado
+ * mientras se lista puede no aparecer en ninguno de los dos grupos.
+ */
+public class ProyectosPorEstado implements ObservadorEstado {
+    private Map<Estado, ConcurrentSkipListMap<Integer, String>> grupos;
+    // el size() de un mapa concurrente recorre todo el grupo: la cantidad se lleva aparte
+    private Map<Estado, AtomicInteger> cantidades;
+    // el fin estimado no cambia nunca, así que no depende del grupo
+    private Map<Integer, Integer> finesEstimados;
+
+    public ProyectosPorEstado() {
+        this.grupos = new EnumMap<>(Estado.class);
+        this.cantidades = new EnumMap<>(Estado.class);
+        for (Estado e : Estado.values()) {
+            grupos.put(e, new ConcurrentSkipListMap<>());
+            cantidades.put(e, new AtomicInteger());
+        }
+        this.finesEstimados = new ConcurrentHashMap<>();
+    }
+
+    void agregar(Proyecto p) {
+        agregar(p.getNumero(), p.getEstado(), p.getDireccion(), p.getDiaFinEstimado());
+    }
+
+    void agregar(int numero, Estado estado, String direccion, int finEstimado) {
+        finesEstimados.put(numero, finEstimado);
+        agrupar(numero, estado, direccion);
+    }
+
+    private void agrupar(int numero, Estado estado, String direccion) {
+        if (grupo(estado).put(numero, direccion) == null)
+            cantidades.get(estado).incrementAndGet();
+    }
+
+    @Override
+    public void cambioDeEstado(Proyecto p, Estado anterior, Estado nuevo) {
+        if (grupos.get(anterior).remove(p.getNumero()) != null)
+            cantidades.get(anterior).decrementAndGet();
+        agrupar(p.getNumero(), nuevo, p.getDireccion());
+    }
+
+    public int cantidad(Estado estado) {
+        grupo(estado);  // rechaza un estado nulo
+        return cantidades.get(estado).get();
+    }
+
+    public List<Tupla<Integer, String>> listar(Estado estado) {
+        ConcurrentSkipListMap<Integer, String> grupo = grupo(estado);
+        List<Tupla<Integer, String>> lista = new ArrayList<>(cantidad(estado));
+        for (Map.Entry<Integer, String> e : grupo.entrySet()) {
+            lista.add(new Tupla<>(e.getKey(), e.getValue()));
+        }
+        return lista;
+    }
+
+    // Como listar, pero pasando cada proyecto al visitante
+    public void recorrer(Estado estado, VisitanteFila visitante) {
+        for (Map.Entry<Integer, String> e : grupo(estado).entrySet()) {
+            visitante.visitar(e.getKey(), e.getValue());
+        }
+    }
+
+    String direccion(int numero) {
+        for (ConcurrentSkipListMap<Integer, String> grupo : grupos.values()) {
+            String direccion = grupo.get(numero);
+            if (direccion != null)
+                return direccion;
+        }
+        return null;
+    }
+
+    // En días de época (ver Fecha)
+    int finEstimado(int numero) {
+        Integer fin = finesEstimados.get(numero);
+        if (fin == null)
+            throw new IllegalArgumentException("Proyecto inexistente.");
+        return fin;
+    }
+
+    // Copia de los números del grupo, en orden: se puede recorrer aunque los proyectos cambien de estado
+    List<Integer> numeros(Estado estado) {
+        return new ArrayList<>(grupo(estado).keySet());
+    }
+
+    private ConcurrentSkipListMap<Integer, String> grupo(Estado estado) {
+        ConcurrentSkipListMap<Integer, String> grupo = grupos.get(estado);
+        if (grupo == null)
+            throw new IllegalArgumentException("Estado inválido.");
+        return grupo;
+    }
+}
@@ -0,0 +1,124 @@
+package entidades;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Registro de entidades con identificadores secuenciales (legajos, números de proyecto).
+ * Como los identificadores empiezan en 1 y se entregan en orden, el elemento con
+ * identificador id se guarda en la posición id - 1 de un arreglo que crece a medida
+ * que hace falta. La búsqueda es un acceso al arreglo, sin boxing ni hashing.
+ * Las escrituras se serializan con el monitor del registro y guardan cada elemento
+ * con semántica release; las lecturas no toman locks y lo leen con acquire, así un
+ * lector que ve un elemento ve también todo lo que se escribió en él antes de
+ * registrarlo. El arreglo se publica como volatile para que una lectura
+ * concurrente con un crecimiento vea siempre los elementos copiados.
+ */
+public class RegistroDenso<T> implements Iterable<T> {
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private volatile AtomicReferenceArray<T> elementos;
+    private volatile int cantidad;
+    private volatile int maximo;
+
+    public RegistroDenso() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    public RegistroDenso(int capacidad) {
+        this.elementos = new AtomicReferenceArray<>(Math.max(capacidad, 1));
+        this.cantidad = 0;
+        this.maximo = 0;
+    }
+
+    public synchronized void put(int id, T elemento) {
+        if (id < 1)
+            throw new IllegalArgumentException("Identificador inválido: " + id);
+        if (elemento == null)
+            throw new IllegalArgumentException("No se puede registrar un elemento nulo.");
+        asegurarCapacidad(id);
+        AtomicReferenceArray<T> actuales = elementos;
+        if (actuales.getPlain(id - 1) == null)
+            cantidad++;
+        actuales.setRelease(id - 1, elemento);
+        if (id > maximo)
+            maximo = id;
+    }
+
+    public synchronized void quitar(int id) {
+        AtomicReferenceArray<T> actuales = elementos;
+        if (id >= 1 && id <= actuales.length() && actuales.getPlain(id - 1) != null) {
+            actuales.setRelease(id - 1, null);
+            cantidad--;
+        }
+    }
+
+    public T get(int id) {
+        AtomicReferenceArray<T> actuales = elementos;
+        if (id < 1 || id > actuales.length())
+            return null;
+        return actuales.getAcquire(id - 1);
+    }
+
+    public T get(Integer id) {
+        return id == null ? null : get(id.intValue());
+    }
+
+    public boolean contiene(int id) {
+        return get(id) != null;
+    }
+
+    public int tamanio() {
+        return cantidad;
+    }
+
+    // Deja lugar para identificadores hasta idMaximo inclusive, sin copias intermedias
+    public synchronized void asegurarCapacidad(int idMaximo) {
+        AtomicReferenceArray<T> actuales = elementos;
+        if (idMaximo > actuales.length()) {
+            int nueva = Math.max(idMaximo, actuales.length() + (actuales.length() >> 1));
+            AtomicReferenceArray<T> copia = new AtomicReferenceArray<>(nueva);
+            for (int i = 0; i < actuales.length(); i++) {
+                copia.setPlain(i, actuales.getPlain(i));
+            }
+            elementos = copia;
+        }
+    }
+
+    // Recorre los elementos en orden de identificador; con escrituras concurrentes ve
+    // cada elemento tal como estaba al pasar por su posición
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int posicion;
+            private T siguiente = buscar();
+
+            @Override
+            public boolean hasNext() {
+                return siguiente != null;
+            }
+
+            @Override
+            public T next() {
+                if (siguiente == null)
+                    throw new NoSuchElementException();
+                T elemento = siguiente;
+                siguiente = buscar();
+                return elemento;
+            }
+
+            // el máximo se lee antes que el arreglo: el arreglo publicado ya lo cubre
+            private T buscar() {
+                int hasta = maximo;
+                AtomicReferenceArray<T> actuales = elementos;
+                while (posicion < hasta) {
+                    T elemento = actuales.getAcquire(posicion++);
+                    if (elemento != null)
+                        return elemento;
+                }
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package entidades;
+
+/**
+ * Resultado de registrar un elemento dentro de un lote: el identificador que
+ * recibió (legajo o número de proyecto) o el motivo por el que se rechazó.
+ */
+public class ResultadoRegistro {
+    private Integer id;
+    private String error;
+
+    private ResultadoRegistro(Integer id, String error) {
+        this.id = id;
+        this.error = error;
+    }
+
+    public static ResultadoRegistro exito(int id) {
+        return new ResultadoRegistro(id, null);
+    }
+
+    public static ResultadoRegistro rechazo(String error) {
+        return new ResultadoRegistro(null, error);
+    }
+
+    public boolean esExitoso() {
+        return error == null;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return esExitoso() ? "OK " + id : "ERROR " + error;
+    }
+}
@@ -6,7 +6,8 @@ public class Tarea {
     private double diasNecesarios;
     private double diasRetraso;
     private Empleado empleado;
-    private boolean finalizada;
+    private volatile boolean finalizada;
+    private double pagoContabilizado;
 
     public Tarea(String titulo, String descripcion, double diasNecesarios) {
         if (titulo == null || titulo.isEmpty()) {
@@ -27,23 +28,18 @@ public class Tarea {
         if (this.empleado != null) {
             throw new IllegalArgumentException("La tarea ya tiene un empleado asignado");
         }
-        if (!empleado.estaLibre()) {
-            throw new IllegalArgumentException("El empleado no está disponible");
-        }
-        this.empleado = empleado;
+        // asignar falla si otro hilo lo ocupó: recién después queda como responsable
         empleado.asignar();
+        this.empleado = empleado;
     }
 
     public void reasignarEmpleado(Empleado nuevoEmpleado) {
         if (this.empleado == null) {
             throw new IllegalArgumentException("No existe un empleado asignado");
         }
-        if (!nuevoEmpleado.estaLibre()) {
-            throw new IllegalArgumentException("El empleado no está disponible");
-        }
+        nuevoEmpleado.asignar();
         this.empleado.liberar();
         this.empleado = nuevoEmpleado;
-        nuevoEmpleado.asignar();
     }
 
     public void registrarRetraso(double dias) {
@@ -70,6 +66,26 @@ public class Tarea {
         return diasNecesarios + diasRetraso;
     }
 
+    public double calcularPago() {
+        return empleado == null ? 0 : empleado.calcularPago(obtenerDuracion());
+    }
+
+    // Pago de la tarea tal como está sumado en el costo del proyecto
+    // Restaura el estado guardado en una instantánea, sin tocar al empleado
+    void restaurar(double diasRetraso, Empleado empleado, boolean finalizada) {
+        this.diasRetraso = diasRetraso;
+        this.empleado = empleado;
+        this.finalizada = finalizada;
+    }
+
+    double getPagoContabilizado() {
+        return pagoContabilizado;
+    }
+
+    void setPagoContabilizado(double pagoContabilizado) {
+        this.pagoContabilizado = pagoContabilizado;
+    }
+
     public boolean estaAsignada() {
         return empleado != null;
     }
@@ -0,0 +1,364 @@
+package entidades;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato de las trazas de llamadas a IHomeSolution que graba GrabadorSesion y
+ * reproduce benchmark.ReproductorTraza.
+ *
+ * Una línea por llamada, con campos separados por tabulador: nanosegundos desde
+ * el comienzo de la grabación, operación, resultado ("ok" o el tipo de la
+ * excepción) y los argumentos. Los arreglos van como cantidad y elementos (-1 para
+ * null), null como \N, y los tabuladores, saltos de línea y barras dentro de los
+ * textos se escapan con barra.
+ */
+public final class Traza {
+    private static final String NULO = "\\N";
+
+    private Traza() {
+    }
+
+    private enum Tipo {
+        TEXTO, NUMERO, DOUBLE, TEXTOS, DOUBLES, LOTE
+    }
+
+    /**
+     * Operaciones de IHomeSolution que se pueden grabar, con el tipo de cada argumento.
+     */
+    public enum Operacion {
+        REGISTRAR_EMPLEADO(Tipo.TEXTO, Tipo.DOUBLE),
+        REGISTRAR_EMPLEADO_PLANTA(Tipo.TEXTO, Tipo.DOUBLE, Tipo.TEXTO),
+        REGISTRAR_EMPLEADOS(Tipo.TEXTOS, Tipo.DOUBLES, Tipo.TEXTOS),
+        REGISTRAR_PROYECTO(Tipo.TEXTOS, Tipo.TEXTOS, Tipo.DOUBLES, Tipo.TEXTO, Tipo.TEXTOS, Tipo.TEXTO, Tipo.TEXTO),
+        REGISTRAR_PROYECTOS(Tipo.LOTE),
+        ASIGNAR_RESPONSABLE(Tipo.NUMERO, Tipo.TEXTO),
+        ASIGNAR_MENOS_RETRASO(Tipo.NUMERO, Tipo.TEXTO),
+        REGISTRAR_RETRASO(Tipo.NUMERO, Tipo.TEXTO, Tipo.DOUBLE),
+        AGREGAR_TAREA(Tipo.NUMERO, Tipo.TEXTO, Tipo.TEXTO, Tipo.DOUBLE),
+        FINALIZAR_TAREA(Tipo.NUMERO, Tipo.TEXTO),
+        FINALIZAR_PROYECTO(Tipo.NUMERO, Tipo.TEXTO),
+        REASIGNAR_EMPLEADO(Tipo.NUMERO, Tipo.NUMERO, Tipo.TEXTO),
+        REASIGNAR_MENOS_RETRASO(Tipo.NUMERO, Tipo.TEXTO),
+        COSTO_PROYECTO(Tipo.NUMERO),
+        PROYECTOS_FINALIZADOS(),
+        PROYECTOS_PENDIENTES(),
+        PROYECTOS_ACTIVOS(),
+        EMPLEADOS_NO_ASIGNADOS(),
+        ESTA_FINALIZADO(Tipo.NUMERO),
+        CANTIDAD_RETRASOS(Tipo.NUMERO),
+        EMPLEADOS_ASIGNADOS(Tipo.NUMERO),
+        TAREAS_NO_ASIGNADAS(Tipo.NUMERO),
+        TAREAS_DE_PROYECTO(Tipo.NUMERO),
+        DOMICILIO_PROYECTO(Tipo.NUMERO),
+        TIENE_RETRASOS(Tipo.NUMERO),
+        EMPLEADOS(),
+        CONSULTAR_PROYECTO(Tipo.NUMERO),
+        ASIGNACION_ACTUAL(Tipo.NUMERO),
+        PROYECTOS_ENTRE(Tipo.TEXTO, Tipo.TEXTO);
+
+        private final Tipo[] tipos;
+
+        Operacion(Tipo... tipos) {
+            this.tipos = tipos;
+        }
+
+        /**
+         * Hace la llamada sobre el sistema.
+         * @return Lo que devuelve la operación, o null si es void.
+         */
+        @SuppressWarnings("unchecked")
+        public Object ejecutar(IHomeSolution s, Object[] a) throws Exception {
+            switch (this) {
+                case REGISTRAR_EMPLEADO:
+                    s.registrarEmpleado((String) a[0], (Double) a[1]);
+                    return null;
+                case REGISTRAR_EMPLEADO_PLANTA:
+                    s.registrarEmpleado((String) a[0], (Double) a[1], (String) a[2]);
+                    return null;
+                case REGISTRAR_EMPLEADOS:
+                    return s.registrarEmpleados((String[]) a[0], (double[]) a[1], (String[]) a[2]);
+                case REGISTRAR_PROYECTO:
+                    s.registrarProyecto((String[]) a[0], (String[]) a[1], (double[]) a[2], (String) a[3],
+                            (String[]) a[4], (String) a[5], (String) a[6]);
+                    return null;
+                case REGISTRAR_PROYECTOS:
+                    return s.registrarProyectos((List<DatosProyecto>) a[0]);
+                case ASIGNAR_RESPONSABLE:
+                    s.asignarResponsableEnTarea((Integer) a[0], (String) a[1]);
+                    return null;
+                case ASIGNAR_MENOS_RETRASO:
+                    s.asignarResponsableMenosRetraso((Integer) a[0], (String) a[1]);
+                    return null;
+                case REGISTRAR_RETRASO:
+                    s.registrarRetrasoEnTarea((Integer) a[0], (String) a[1], (Double) a[2]);
+                    return null;
+                case AGREGAR_TAREA:
+                    s.agregarTareaEnProyecto((Integer) a[0], (String) a[1], (String) a[2], (Double) a[3]);
+                    return null;
+                case FINALIZAR_TAREA:
+                    s.finalizarTarea((Integer) a[0], (String) a[1]);
+                    return null;
+                case FINALIZAR_PROYECTO:
+                    s.finalizarProyecto((Integer) a[0], (String) a[1]);
+                    return null;
+                case REASIGNAR_EMPLEADO:
+                    s.reasignarEmpleadoEnProyecto((Integer) a[0], (Integer) a[1], (String) a[2]);
+                    return null;
+                case REASIGNAR_MENOS_RETRASO:
+                    s.reasignarEmpleadoConMenosRetraso((Integer) a[0], (String) a[1]);
+                    return null;
+                case COSTO_PROYECTO:
+                    return s.costoProyecto((Integer) a[0]);
+                case PROYECTOS_FINALIZADOS:
+                    return s.proyectosFinalizados();
+                case PROYECTOS_PENDIENTES:
+                    return s.proyectosPendientes();
+                case PROYECTOS_ACTIVOS:
+                    return s.proyectosActivos();
+                case EMPLEADOS_NO_ASIGNADOS:
+                    return s.empleadosNoAsignados();
+                case ESTA_FINALIZADO:
+                    return s.estaFinalizado((Integer) a[0]);
+                case CANTIDAD_RETRASOS:
+                    return s.consultarCantidadRetrasosEmpleado((Integer) a[0]);
+                case EMPLEADOS_ASIGNADOS:
+                    return s.empleadosAsignadosAProyecto((Integer) a[0]);
+                case TAREAS_NO_ASIGNADAS:
+                    return s.tareasProyectoNoAsignadas((Integer) a[0]);
+                case TAREAS_DE_PROYECTO:
+                    return s.tareasDeUnProyecto((Integer) a[0]);
+                case DOMICILIO_PROYECTO:
+                    return s.consultarDomicilioProyecto((Integer) a[0]);
+                case TIENE_RETRASOS:
+                    return s.tieneRestrasos((Integer) a[0]);
+                case EMPLEADOS:
+                    return s.empleados();
+                case CONSULTAR_PROYECTO:
+                    return s.consultarProyecto((Integer) a[0]);
+                case ASIGNACION_ACTUAL:
+                    return s.asignacionActual((Integer) a[0]);
+                case PROYECTOS_ENTRE:
+                    return s.proyectosEntre((String) a[0], (String) a[1]);
+                default:
+                    throw new IllegalStateException("Operación sin implementar: " + this);
+            }
+        }
+    }
+
+    /**
+     * Una llamada grabada.
+     */
+    public static final class Llamada {
+        private final long tiempo;
+        private final Operacion operacion;
+        private final String resultado;
+        private final Object[] argumentos;
+
+        public Llamada(long tiempo, Operacion operacion, String resultado, Object[] argumentos) {
+            if (argumentos.length != operacion.tipos.length)
+                throw new IllegalArgumentException("Cantidad de argumentos inválida para " + operacion);
+            this.tiempo = tiempo;
+            this.operacion = operacion;
+            this.resultado = resultado;
+            this.argumentos = argumentos;
+        }
+
+        public long getTiempo() {
+            return tiempo;
+        }
+
+        public Operacion getOperacion() {
+            return operacion;
+        }
+
+        // "ok" o el nombre simple de la excepción que tiró
+        public String getResultado() {
+            return resultado;
+        }
+
+        public Object[] getArgumentos() {
+            return argumentos;
+        }
+    }
+
+    // ============================================================
+    // ESCRITURA
+    // ============================================================
+
+    static void escribir(Writer salida, Llamada llamada) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append(llamada.tiempo).append('\t').append(llamada.operacion.name()).append('\t').append(llamada.resultado);
+        for (int i = 0; i < llamada.argumentos.length; i++) {
+            poner(sb, llamada.operacion.tipos[i], llamada.argumentos[i]);
+        }
+        salida.write(sb.append('\n').toString());
+    }
+
+    private static void poner(StringBuilder sb, Tipo tipo, Object valor) {
+        switch (tipo) {
+            case TEXTO:
+                campo(sb, (String) valor);
+                break;
+            case NUMERO:
+            case DOUBLE:
+                campo(sb, valor == null ? null : valor.toString());
+                break;
+            case TEXTOS:
+                String[] textos = (String[]) valor;
+                campo(sb, String.valueOf(textos == null ? -1 : textos.length));
+                if (textos != null) {
+                    for (String t : textos)
+                        campo(sb, t);
+                }
+                break;
+            case DOUBLES:
+                double[] valores = (double[]) valor;
+                campo(sb, String.valueOf(valores == null ? -1 : valores.length));
+                if (valores != null) {
+                    for (double v : valores)
+                        campo(sb, Double.toString(v));
+                }
+                break;
+            case LOTE:
+                @SuppressWarnings("unchecked")
+                List<DatosProyecto> lote = (List<DatosProyecto>) valor;
+                campo(sb, String.valueOf(lote == null ? -1 : lote.size()));
+                if (lote != null) {
+                    for (DatosProyecto d : lote) {
+                        poner(sb, Tipo.TEXTOS, d == null ? null : d.getTitulos());
+                        poner(sb, Tipo.TEXTOS, d == null ? null : d.getDescripcion());
+                        poner(sb, Tipo.DOUBLES, d == null ? null : d.getDias());
+                        poner(sb, Tipo.TEXTO, d == null ? null : d.getDomicilio());
+                        poner(sb, Tipo.TEXTOS, d == null ? null : d.getCliente());
+                        poner(sb, Tipo.TEXTO, d == null ? null : d.getInicio());
+                        poner(sb, Tipo.TEXTO, d == null ? null : d.getFin());
+                    }
+                }
+                break;
+        }
+    }
+
+    private static void campo(StringBuilder sb, String texto) {
+        sb.append('\t');
+        if (texto == null) {
+            sb.append(NULO);
+            return;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+    }
+
+    // ============================================================
+    // LECTURA
+    // ============================================================
+
+    public static List<Llamada> leer(Path archivo) throws IOException {
+        List<Llamada> llamadas = new ArrayList<>();
+        try (BufferedReader entrada = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            int numeroLinea = 0;
+            while ((linea = entrada.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isEmpty())
+                    continue;
+                try {
+                    llamadas.add(leerLinea(linea));
+                } catch (RuntimeException e) {
+                    throw new IOException("Línea " + numeroLinea + " de la traza inválida: " + e.getMessage(), e);
+                }
+            }
+        }
+        return llamadas;
+    }
+
+    private static Llamada leerLinea(String linea) {
+        String[] campos = linea.split("\t", -1);
+        int[] pos = {3};
+        Operacion operacion = Operacion.valueOf(campos[1]);
+        Object[] argumentos = new Object[operacion.tipos.length];
+        for (int i = 0; i < argumentos.length; i++) {
+            argumentos[i] = sacar(campos, pos, operacion.tipos[i]);
+        }
+        if (pos[0] != campos.length)
+            throw new IllegalArgumentException("sobran campos");
+        return new Llamada(Long.parseLong(campos[0]), operacion, campos[2], argumentos);
+    }
+
+    private static Object sacar(String[] campos, int[] pos, Tipo tipo) {
+        switch (tipo) {
+            case TEXTO:
+                return texto(campos[pos[0]++]);
+            case NUMERO:
+                String numero = texto(campos[pos[0]++]);
+                return numero == null ? null : Integer.valueOf(numero);
+            case DOUBLE:
+                return Double.valueOf(campos[pos[0]++]);
+            case TEXTOS: {
+                int cantidad = Integer.parseInt(campos[pos[0]++]);
+                if (cantidad < 0)
+                    return null;
+                String[] textos = new String[cantidad];
+                for (int i = 0; i < cantidad; i++)
+                    textos[i] = texto(campos[pos[0]++]);
+                return textos;
+            }
+            case DOUBLES: {
+                int cantidad = Integer.parseInt(campos[pos[0]++]);
+                if (cantidad < 0)
+                    return null;
+                double[] valores = new double[cantidad];
+                for (int i = 0; i < cantidad; i++)
+                    valores[i] = Double.parseDouble(campos[pos[0]++]);
+                return valores;
+            }
+            case LOTE: {
+                int cantidad = Integer.parseInt(campos[pos[0]++]);
+                if (cantidad < 0)
+                    return null;
+                List<DatosProyecto> lote = new ArrayList<>(cantidad);
+                for (int i = 0; i < cantidad; i++) {
+                    lote.add(new DatosProyecto((String[]) sacar(campos, pos, Tipo.TEXTOS),
+                            (String[]) sacar(campos, pos, Tipo.TEXTOS), (double[]) sacar(campos, pos, Tipo.DOUBLES),
+                            (String) sacar(campos, pos, Tipo.TEXTO), (String[]) sacar(campos, pos, Tipo.TEXTOS),
+                            (String) sacar(campos, pos, Tipo.TEXTO), (String) sacar(campos, pos, Tipo.TEXTO)));
+                }
+                return lote;
+            }
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    private static String texto(String campo) {
+        if (campo.equals(NULO))
+            return null;
+        if (campo.indexOf('\\') < 0)
+            return campo;
+        StringBuilder sb = new StringBuilder(campo.length());
+        for (int i = 0; i < campo.length(); i++) {
+            char c = campo.charAt(i);
+            if (c != '\\' || i + 1 == campo.length()) {
+                sb.append(c);
+                continue;
+            }
+            char siguiente = campo.charAt(++i);
+            sb.append(siguiente == 't' ? '\t' : siguiente == 'n' ? '\n' : siguiente == 'r' ? '\r' : siguiente);
+        }
+        return sb.toString();
+    }
+}
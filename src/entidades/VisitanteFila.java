@@ -0,0 +1,11 @@
+package entidades;
+
+/**
+ * Recibe una por una las filas de un listado (legajo y nombre, o número y
+ * domicilio) sin que se arme una lista ni una Tupla por fila.
+ */
+@FunctionalInterface
+public interface VisitanteFila {
+
+    void visitar(int id, String texto);
+}
@@ -18,6 +18,7 @@ public class GestionEmpleados extends JPanel{
     private JTable tablaEmpleados;
     private JScrollPane scrollPane;
     private JButton verRetrasos;
+    private JButton verAsignacion;
     private JButton volverPrincipal;
 
     public GestionEmpleados(PanelManager panelManager) {
@@ -49,6 +50,17 @@ public class GestionEmpleados extends JPanel{
                 }
             });
 
+        verAsignacion.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent actionEvent) {
+                int filaSeleccionada = tablaEmpleados.getSelectedRow();
+                if (filaSeleccionada != -1) {
+                    Tupla<Integer,String> asignacion=panelManager.sistema().asignacionActual(Integer.parseInt(tablaEmpleados.getValueAt(filaSeleccionada, 0).toString()));
+                    String mensaje=asignacion==null?"No esta asignado":"Proyecto "+asignacion.getValor1()+", tarea: "+asignacion.getValor2();
+                    JOptionPane.showMessageDialog(null, mensaje);
+                }
+            }
+        });
 
         setLayout(new BorderLayout());
         add(gestionEmpleados, BorderLayout.CENTER);
@@ -64,6 +76,7 @@ public class GestionEmpleados extends JPanel{
         tablaEmpleados=new JTable(modelTabla);
         scrollPane=new JScrollPane(tablaEmpleados);
         verRetrasos=new JButton("Ver retrasos del empleado seleccionado");
+        verAsignacion=new JButton("Ver asignacion del empleado seleccionado");
         volverPrincipal = new JButton("Volver al menu");
         gestionEmpleados = new JPanel();
         gestionEmpleados.setLayout(new GridBagLayout());
@@ -77,8 +90,11 @@ public class GestionEmpleados extends JPanel{
         gbc.gridx=1;
         gbc.gridy=2;
         gestionEmpleados.add(verRetrasos,gbc);
-        gbc.gridx = 2;
+        gbc.gridx=1;
         gbc.gridy=3;
+        gestionEmpleados.add(verAsignacion,gbc);
+        gbc.gridx = 2;
+        gbc.gridy=4;
         gbc.gridwidth = 2;
         gbc.gridheight = 2;
         gbc.fill = java.awt.GridBagConstraints.BOTH;
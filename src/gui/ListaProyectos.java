@@ -72,9 +72,9 @@ public class ListaProyectos extends JPanel{
         modelTabla.addColumn("Datos");
 
         estado=new JLabel("Seleccionar estado del proyecto");
-        pendiente=new JRadioButton(Estado.pendiente);
-        activo=new JRadioButton(Estado.activo);
-        finalizado=new JRadioButton(Estado.finalizado);
+        pendiente=new JRadioButton(Estado.pendiente.toString());
+        activo=new JRadioButton(Estado.activo.toString());
+        finalizado=new JRadioButton(Estado.finalizado.toString());
         grupoOpciones=new ButtonGroup();
         grupoOpciones.add(pendiente);
         grupoOpciones.add(activo);
@@ -121,18 +121,18 @@ public class ListaProyectos extends JPanel{
         listaProyectos.add(gestion,gbc);
 
     }
-    private void cargarTabla(String opcion,DefaultTableModel tableModel){
+    private void cargarTabla(Estado opcion,DefaultTableModel tableModel){
         List <Tupla<Integer,String>> proyectos=new ArrayList<>();
 
         switch(opcion)
         {
-            case Estado.pendiente:
+            case pendiente:
                 proyectos = panelManager.sistema().proyectosPendientes();
                 break;
-            case Estado.activo:
+            case activo:
                 proyectos = panelManager.sistema().proyectosActivos();
             break;
-            case Estado.finalizado:
+            case finalizado:
                 proyectos = panelManager.sistema().proyectosFinalizados();
                 break;
         }
@@ -0,0 +1,127 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import entidades.HomeSolutionComandos;
+import entidades.Tupla;
+
+public class HomeSolutionComandosTest {
+    private HomeSolutionComandos homeSolution;
+
+    @Before
+    public void setUp() {
+        homeSolution = new HomeSolutionComandos();
+        String titulos[] = {"Pintar", "Instalacion electrica"};
+        String descripciones[] = {"", ""};
+        double duracion[] = {4, 2};
+        String cliente[] = {"Pedro Gomez", "mail@mail.com", "123456"};
+        homeSolution.registrarProyecto(titulos, descripciones, duracion, "San Martin 1000", cliente, "2025-12-01", "2025-12-05");
+        homeSolution.registrarEmpleado("Juan", 15000);
+        homeSolution.registrarEmpleado("Luis", 80000, "EXPERTO");
+    }
+
+    @Test
+    public void testConsultaVeElCambioRecienAplicado() throws Exception {
+        homeSolution.asignarResponsableEnTarea(1, "Pintar");
+        assertEquals(1, homeSolution.proyectosActivos().size());
+        assertEquals(1, homeSolution.empleadosNoAsignados().length);
+        assertEquals(15000 * 8 * 4 * 1.35, homeSolution.costoProyecto(1), 0.001);
+    }
+
+    @Test(expected = Exception.class)
+    public void testErrorDelComandoLlegaAlQueLlama() throws Exception {
+        homeSolution.asignarResponsableEnTarea(1, "Pintar");
+        homeSolution.asignarResponsableEnTarea(1, "Instalacion electrica");
+        homeSolution.agregarTareaEnProyecto(1, "Limpieza", "", 1);
+        homeSolution.asignarResponsableEnTarea(1, "Limpieza");
+    }
+
+    @Test
+    public void testRafagaDeRetrasosSeAplicaCompleta() throws Exception {
+        homeSolution.asignarResponsableEnTarea(1, "Pintar");
+        List<CompletableFuture<Void>> resultados = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            resultados.add(homeSolution.registrarRetrasoEnTareaAsync(1, "Pintar", 1));
+        }
+        CompletableFuture.allOf(resultados.toArray(new CompletableFuture<?>[0])).join();
+        assertEquals(5000, homeSolution.consultarCantidadRetrasosEmpleado(1));
+        assertTrue(homeSolution.consultarProyecto(1).contains("Retrasos: Sí"));
+    }
+
+    @Test
+    public void testListadosPorEstadoSiguenLosCambiosDeEstado() throws Exception {
+        String titulos[] = {"Techo"};
+        String descripciones[] = {""};
+        double duracion[] = {1};
+        String cliente[] = {"Ana Diaz", "mail@mail.com", "123456"};
+        homeSolution.registrarProyecto(titulos, descripciones, duracion, "Belgrano 20", cliente, "2025-12-01", "2025-12-05");
+        homeSolution.registrarProyecto(titulos, descripciones, duracion, "Mitre 30", cliente, "2025-12-01", "2025-12-05");
+        homeSolution.asignarResponsableEnTarea(3, "Techo");
+        homeSolution.asignarResponsableEnTarea(1, "Pintar");
+        homeSolution.finalizarTarea(3, "Techo");
+        homeSolution.finalizarProyecto(3, "2025-12-05");
+
+        assertEquals("[2]", numeros(homeSolution.proyectosPendientes()));
+        assertEquals("[1]", numeros(homeSolution.proyectosActivos()));
+        assertEquals("[3]", numeros(homeSolution.proyectosFinalizados()));
+        assertEquals("Belgrano 20", homeSolution.proyectosPendientes().get(0).getValor2());
+    }
+
+    @Test
+    public void testAsignacionActualYProyectosEntreSalenDeLaVista() throws Exception {
+        homeSolution.asignarResponsableEnTarea(1, "Pintar");
+        assertEquals(Integer.valueOf(1), homeSolution.asignacionActual(1).getValor1());
+        assertEquals("Pintar", homeSolution.asignacionActual(1).getValor2());
+
+        homeSolution.reasignarEmpleadoEnProyecto(1, 2, "Pintar");
+        assertEquals(null, homeSolution.asignacionActual(1));
+        assertEquals("Pintar", homeSolution.asignacionActual(2).getValor2());
+
+        assertEquals("[1]", numeros(homeSolution.proyectosEntre("2025-12-05", "2025-12-20")));
+        homeSolution.finalizarProyecto(1, "2025-12-08");
+        assertEquals("[1]", numeros(homeSolution.proyectosEntre("2025-12-07", "2025-12-20")));
+        assertEquals("[]", numeros(homeSolution.proyectosEntre("2025-12-09", "2025-12-20")));
+    }
+
+    // Los productores siguen encolando mientras se cierra: todo comando aceptado se completa
+    @Test
+    public void testCerrarCompletaTodoLoQueSeEncolo() throws Exception {
+        ConcurrentLinkedQueue<CompletableFuture<Void>> aceptados = new ConcurrentLinkedQueue<>();
+        List<Thread> hilos = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread hilo = new Thread(() -> {
+                try {
+                    while (true)
+                        aceptados.add(homeSolution.registrarEmpleadoAsync("Empleado", 1000));
+                } catch (IllegalStateException e) {
+                    // el sistema ya está cerrado
+                }
+            });
+            hilos.add(hilo);
+            hilo.start();
+        }
+        Thread.sleep(20);
+        homeSolution.close();
+        for (Thread hilo : hilos)
+            hilo.join();
+
+        for (CompletableFuture<Void> resultado : aceptados)
+            assertTrue(resultado.isDone());
+    }
+
+    private static String numeros(List<Tupla<Integer, String>> filas) {
+        List<Integer> numeros = new ArrayList<>();
+        for (Tupla<Integer, String> fila : filas)
+            numeros.add(fila.getValor1());
+        return numeros.toString();
+    }
+}
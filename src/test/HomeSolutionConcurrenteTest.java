@@ -0,0 +1,133 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import entidades.HomeSolution;
+import entidades.HomeSolutionConcurrente;
+import entidades.IHomeSolution;
+
+public class HomeSolutionConcurrenteTest {
+    private static final int EMPLEADOS = 50;
+    private static final int PROYECTOS = 20;
+    private static final int TAREAS = 10;
+    private static final int HILOS = 8;
+
+    private IHomeSolution homeSolution;
+
+    @Before
+    public void setUp() {
+        homeSolution = new HomeSolutionConcurrente();
+        for (int i = 0; i < EMPLEADOS; i++) {
+            if (i % 2 == 0)
+                homeSolution.registrarEmpleado("Empleado " + i, 1000);
+            else
+                homeSolution.registrarEmpleado("Empleado " + i, 20000, "INICIAL");
+        }
+    }
+
+    @Test
+    public void testRegistroConcurrenteEntregaNumerosUnicos() throws Exception {
+        ejecutarEnHilos(() -> {
+            for (int i = 0; i < PROYECTOS; i++)
+                registrarProyecto();
+        });
+        assertEquals(HILOS * PROYECTOS, homeSolution.proyectosPendientes().size());
+    }
+
+    @Test
+    public void testNingunEmpleadoQuedaEnDosTareas() throws Exception {
+        for (int i = 0; i < PROYECTOS; i++)
+            registrarProyecto();
+
+        ejecutarEnHilos(() -> {
+            for (int numero = 1; numero <= PROYECTOS; numero++) {
+                for (int t = 0; t < TAREAS; t++) {
+                    try {
+                        homeSolution.asignarResponsableMenosRetraso(numero, "Tarea " + t);
+                    } catch (Exception e) {
+                        // la tarea ya estaba asignada o no quedan empleados libres
+                    }
+                }
+            }
+        });
+
+        int asignadas = 0;
+        for (int numero = 1; numero <= PROYECTOS; numero++)
+            asignadas += TAREAS - homeSolution.tareasProyectoNoAsignadas(numero).length;
+        assertEquals(EMPLEADOS, asignadas);
+        assertEquals(0, homeSolution.empleadosNoAsignados().length);
+    }
+
+    // Los retrasos de otros proyectos cambian el pago de empleados que trabajaron en el 1,
+    // mientras se le agregan tareas: el costo final tiene que ser el de hacerlo en serie
+    @Test
+    public void testCostoConCambiosDePagoDesdeOtrosProyectos() throws Exception {
+        HomeSolution enSerie = new HomeSolution();
+        for (int i = 0; i < EMPLEADOS; i++) {
+            if (i % 2 == 0)
+                enSerie.registrarEmpleado("Empleado " + i, 1000);
+            else
+                enSerie.registrarEmpleado("Empleado " + i, 20000, "INICIAL");
+        }
+        for (IHomeSolution sistema : new IHomeSolution[] {homeSolution, enSerie}) {
+            registrarProyecto(sistema, EMPLEADOS);
+            for (int t = 0; t < EMPLEADOS; t++) {
+                sistema.asignarResponsableEnTarea(1, "Tarea " + t);
+                sistema.finalizarTarea(1, "Tarea " + t);
+            }
+            for (int i = 0; i < EMPLEADOS; i++) {
+                registrarProyecto(sistema, 1);
+                sistema.asignarResponsableEnTarea(i + 2, "Tarea 0");
+            }
+        }
+
+        AtomicInteger siguiente = new AtomicInteger();
+        ejecutarEnHilos(() -> {
+            for (int i = siguiente.getAndIncrement(); i < EMPLEADOS; i = siguiente.getAndIncrement()) {
+                homeSolution.registrarRetrasoEnTarea(i + 2, "Tarea 0", 1);
+                homeSolution.agregarTareaEnProyecto(1, "Extra " + i, "", 1);
+            }
+        });
+        for (int i = 0; i < EMPLEADOS; i++) {
+            enSerie.registrarRetrasoEnTarea(i + 2, "Tarea 0", 1);
+            enSerie.agregarTareaEnProyecto(1, "Extra " + i, "", 1);
+        }
+
+        assertEquals(enSerie.costoProyecto(1), homeSolution.costoProyecto(1), 1e-6);
+    }
+
+    private void registrarProyecto() {
+        registrarProyecto(homeSolution, TAREAS);
+    }
+
+    private static void registrarProyecto(IHomeSolution sistema, int tareas) {
+        String[] titulos = new String[tareas];
+        String[] descripciones = new String[tareas];
+        double[] dias = new double[tareas];
+        for (int t = 0; t < tareas; t++) {
+            titulos[t] = "Tarea " + t;
+            descripciones[t] = "";
+            dias[t] = 1;
+        }
+        String[] cliente = {"Cliente", "mail@mail.com", "123456"};
+        sistema.registrarProyecto(titulos, descripciones, dias, "Calle 123", cliente, "2025-12-01", "2025-12-05");
+    }
+
+    private void ejecutarEnHilos(Runnable trabajo) throws InterruptedException {
+        List<Thread> hilos = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            Thread hilo = new Thread(trabajo);
+            hilos.add(hilo);
+            hilo.start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+    }
+}
@@ -0,0 +1,171 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import entidades.HomeSolutionPersistente;
+
+public class HomeSolutionPersistenteTest {
+    private Path archivo;
+
+    @Before
+    public void setUp() throws IOException {
+        archivo = Files.createTempFile("homesolution", ".diario");
+    }
+
+    @Test
+    public void testReabrirReconstruyeElEstado() throws Exception {
+        HomeSolutionPersistente sistema = new HomeSolutionPersistente(archivo);
+        cargarDatos(sistema);
+        double costo = sistema.costoProyecto(1);
+        sistema.close();
+
+        HomeSolutionPersistente reabierto = new HomeSolutionPersistente(archivo);
+        assertEquals(costo, reabierto.costoProyecto(1), 1e-6);
+        assertEquals(1, reabierto.consultarCantidadRetrasosEmpleado(1));
+        assertEquals(2, reabierto.empleadosNoAsignados().length);
+        assertTrue(reabierto.estaFinalizado(2));
+        reabierto.close();
+    }
+
+    @Test
+    public void testRegistroIncompletoAlFinalSeDescarta() throws Exception {
+        HomeSolutionPersistente sistema = new HomeSolutionPersistente(archivo);
+        cargarDatos(sistema);
+        sistema.close();
+        long largo = Files.size(archivo);
+        Files.write(archivo, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        HomeSolutionPersistente reabierto = new HomeSolutionPersistente(archivo);
+        assertEquals(largo, Files.size(archivo));
+        reabierto.registrarEmpleado("Ana", 1000);
+        reabierto.close();
+
+        HomeSolutionPersistente otraVez = new HomeSolutionPersistente(archivo);
+        assertEquals(4, otraVez.empleados().size());
+        otraVez.close();
+    }
+
+    @Test
+    public void testCheckpointYDiarioPosteriorReconstruyenElEstado() throws Exception {
+        HomeSolutionPersistente sistema = new HomeSolutionPersistente(archivo);
+        cargarDatos(sistema);
+        sistema.checkpoint();
+        sistema.asignarResponsableEnTarea(1, "Instalar AA");
+        sistema.registrarRetrasoEnTarea(1, "Instalar AA", 1);
+        double costo = sistema.costoProyecto(1);
+        String detalle = sistema.consultarProyecto(1);
+        sistema.close();
+
+        HomeSolutionPersistente reabierto = new HomeSolutionPersistente(archivo);
+        assertEquals(costo, reabierto.costoProyecto(1), 1e-6);
+        assertEquals(detalle, reabierto.consultarProyecto(1));
+        assertEquals("Pintar", reabierto.asignacionActual(1).getValor2());
+        assertEquals("Instalar AA", reabierto.asignacionActual(2).getValor2());
+        assertEquals(1, reabierto.proyectosFinalizados().size());
+        reabierto.registrarEmpleado("Ana", 1000);
+        assertEquals(4, reabierto.empleados().size());
+        assertEquals(Integer.valueOf(4), reabierto.empleados().get(3).getValor1());
+        reabierto.close();
+    }
+
+    @Test
+    public void testProyectosSinTareasEnCursoSeLeenAlUsarlos() throws Exception {
+        HomeSolutionPersistente sistema = new HomeSolutionPersistente(archivo);
+        cargarDatos(sistema);
+        String detalle = sistema.consultarProyecto(2);
+        sistema.checkpoint();
+        sistema.close();
+
+        // el proyecto 2 nunca se lee: el segundo checkpoint lo copia de la instantánea anterior
+        HomeSolutionPersistente reabierto = new HomeSolutionPersistente(archivo);
+        assertEquals(1, reabierto.proyectosSinLeer());
+        assertEquals(1, reabierto.proyectosFinalizados().size());
+        reabierto.checkpoint();
+        reabierto.close();
+
+        HomeSolutionPersistente otraVez = new HomeSolutionPersistente(archivo);
+        assertEquals(1, otraVez.proyectosSinLeer());
+        assertEquals(detalle, otraVez.consultarProyecto(2));
+        assertEquals(0, otraVez.proyectosSinLeer());
+        otraVez.close();
+    }
+
+    @Test
+    public void testOrdenPorFechaEstimadaNoLeeLosDiferidos() throws Exception {
+        HomeSolutionPersistente sistema = new HomeSolutionPersistente(archivo);
+        cargarDatos(sistema);
+        String titulos[] = {"Techo"};
+        String descripciones[] = {""};
+        double duracion[] = {1};
+        String cliente[] = {"Ana Diaz", "mail@mail.com", "123456"};
+        sistema.registrarProyecto(titulos, descripciones, duracion, "Belgrano 20", cliente, "2025-11-01", "2025-11-03");
+        sistema.checkpoint();
+        sistema.close();
+
+        HomeSolutionPersistente reabierto = new HomeSolutionPersistente(archivo);
+        assertEquals(2, reabierto.proyectosSinLeer());
+        assertEquals("[3, 1]", Arrays.toString(reabierto.proyectosPorFechaEstimada()));
+        assertEquals(2, reabierto.proyectosSinLeer());
+        reabierto.close();
+    }
+
+    @Test
+    public void testCheckpointAutomaticoAcotaElDiario() throws Exception {
+        Path foto = archivo.resolveSibling(archivo.getFileName() + ".foto");
+        HomeSolutionPersistente sistema = new HomeSolutionPersistente(archivo, true, 3);
+        sistema.registrarEmpleado("Juan", 15000);
+        sistema.registrarEmpleado("Luis", 15000);
+        assertTrue(!Files.exists(foto));
+        sistema.registrarEmpleado("Julieta", 15000);
+        assertTrue(Files.exists(foto));
+        sistema.registrarEmpleado("Ana", 15000);
+        sistema.close();
+        // al cerrar se guarda otra instantánea: el diario queda vacío
+        assertEquals(8, Files.size(archivo));
+
+        HomeSolutionPersistente reabierto = new HomeSolutionPersistente(archivo, true, 3);
+        assertEquals(4, reabierto.empleados().size());
+        reabierto.close();
+        Files.delete(foto);
+    }
+
+    @Test
+    public void testConElDiarioCerradoNoSeModificaNada() throws Exception {
+        HomeSolutionPersistente sistema = new HomeSolutionPersistente(archivo);
+        cargarDatos(sistema);
+        sistema.close();
+        try {
+            sistema.registrarEmpleado("Ana", 1000);
+            assertTrue(false);
+        } catch (IllegalStateException e) {
+        }
+        assertEquals(3, sistema.empleados().size());
+    }
+
+    private void cargarDatos(HomeSolutionPersistente sistema) throws Exception {
+        String titulos[] = {"Pintar", "Instalar AA"};
+        String descripciones[] = {"", ""};
+        double duracion[] = {4, .5};
+        String cliente[] = {"Pedro Gomez", "mail@mail.com", "123456"};
+        sistema.registrarEmpleado("Juan", 15000);
+        sistema.registrarEmpleado("Luis", 80000, "EXPERTO");
+        sistema.registrarEmpleado("Julieta", 15000);
+        sistema.registrarProyecto(titulos, descripciones, duracion, "San Martin 1000", cliente, "2025-12-01", "2025-12-05");
+        sistema.registrarProyecto(titulos, descripciones, duracion, "Libertador 500", cliente, "2025-12-10", "2025-12-15");
+        sistema.asignarResponsableEnTarea(1, "Pintar");
+        sistema.asignarResponsableEnTarea(2, "Instalar AA");
+        sistema.registrarRetrasoEnTarea(1, "Pintar", 2);
+        sistema.modificarValorEmpleado(2, 90000);
+        sistema.finalizarProyecto(2, "2025-12-20");
+    }
+}
@@ -3,14 +3,33 @@ package test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import entidades.AsignacionOptima;
+import entidades.Empleado;
+import entidades.Estado;
+import entidades.Fecha;
 import entidades.HomeSolution;
+import entidades.HomeSolutionInstrumentada;
+import entidades.ResultadoRegistro;
 import entidades.IHomeSolution;
+import entidades.Proyecto;
+import entidades.RegistroDenso;
+import entidades.Tarea;
 import entidades.Tupla;
+import entidades.Traza.Operacion;
 
 public class HomeSolutionTest {
     private IHomeSolution homeSolution;
@@ -19,7 +38,10 @@ public class HomeSolutionTest {
     @Before
     public void setUp() {
         homeSolution=new HomeSolution();
+        cargarDatos(homeSolution);
+    }
 
+    private void cargarDatos(IHomeSolution homeSolution) {
         String titulos[]={"Pintar","Instalacion electrica","Trabajos jardineria","Instalar AA"};
         String descripciones[]={"","","",""};
         double duracion[]={4,2,1,.5};
@@ -53,6 +75,19 @@ public class HomeSolutionTest {
         homeSolution.registrarEmpleado("Ana", 600.0, "Senior");
     }
 
+    @Test
+    public void testRegistrarEmpleadosEnLoteInformaCadaResultado() {
+        String nombres[]={"Ana","","Pablo"};
+        double valores[]={1000,2000,3000};
+        String categorias[]={null,"INICIAL","TECNICO"};
+        List<ResultadoRegistro> resultados=homeSolution.registrarEmpleados(nombres,valores,categorias);
+        assertTrue(resultados.get(0).esExitoso());
+        assertTrue(!resultados.get(1).esExitoso());
+        assertEquals(Integer.valueOf(5), resultados.get(0).getId());
+        assertEquals(Integer.valueOf(6), resultados.get(2).getId());
+        assertEquals(6, homeSolution.empleadosNoAsignados().length);
+    }
+
     // ============================================================
     // REGISTRO DE PROYECTOS
     // ============================================================
@@ -83,6 +118,12 @@ public class HomeSolutionTest {
         homeSolution.registrarProyecto(titulos, desc, dias, domicilio, cliente, inicio, fin);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testAgregarTareaConTituloRepetidoLanzaExcepcion() {
+        Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
+        homeSolution.agregarTareaEnProyecto(numeroProyecto, "Pintar", "otra mano", 2);
+    }
+
     // ============================================================
     // CONSULTAS Y ESTADO
     // ============================================================
@@ -156,6 +197,123 @@ public class HomeSolutionTest {
 
     }
     @Test
+    public void testRegistroDensoCreceYQuita() {
+        RegistroDenso<String> registro=new RegistroDenso<>(1);
+        registro.put(1,"uno");
+        registro.put(5,"cinco");
+        registro.put(40,"cuarenta");
+        registro.put(5,"otro cinco");
+        assertEquals(3, registro.tamanio());
+        assertEquals("uno", registro.get(1));
+        assertEquals("otro cinco", registro.get(5));
+        assertEquals("cuarenta", registro.get(Integer.valueOf(40)));
+        assertEquals(null, registro.get(4));
+        assertEquals(null, registro.get(0));
+        assertEquals(null, registro.get(1000));
+        assertEquals(null, registro.get((Integer) null));
+
+        registro.quitar(5);
+        registro.quitar(5);
+        registro.quitar(1000);
+        assertEquals(2, registro.tamanio());
+        assertTrue(!registro.contiene(5));
+        assertTrue(registro.contiene(40));
+        List<String> recorridos=new ArrayList<>();
+        for (String elemento : registro) {
+            recorridos.add(elemento);
+        }
+        assertEquals(Arrays.asList("uno","cuarenta"), recorridos);
+
+        registro.put(5,"cinco");
+        assertEquals(3, registro.tamanio());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegistroDensoRechazaIdentificadorCero() {
+        new RegistroDenso<String>().put(0,"cero");
+    }
+
+    @Test
+    public void testTablaDeTransicionesDeEstado() {
+        assertTrue(Estado.pendiente.puedePasarA(Estado.activo));
+        assertTrue(Estado.pendiente.puedePasarA(Estado.finalizado));
+        assertTrue(!Estado.pendiente.puedePasarA(Estado.pendiente));
+        assertTrue(Estado.activo.puedePasarA(Estado.finalizado));
+        assertTrue(!Estado.activo.puedePasarA(Estado.pendiente));
+        assertTrue(!Estado.activo.puedePasarA(Estado.activo));
+        for (Estado nuevo : Estado.values()) {
+            assertTrue(!Estado.finalizado.puedePasarA(nuevo));
+        }
+    }
+
+    @Test
+    public void testProyectoAvisaLasTransicionesYRechazaLasInvalidas() {
+        Proyecto proyecto=new Proyecto(1, new String[]{"Ana","ana@mail.com","1234"}, "Mitre 10",
+                Arrays.asList(new Tarea("Pintar","Pintar paredes",1)), "2025-12-01", "2025-12-05");
+        List<String> avisos=new ArrayList<>();
+        proyecto.agregarObservador((p, anterior, nuevo) -> avisos.add(anterior+"->"+nuevo));
+
+        proyecto.activar();
+        try {
+            proyecto.activar();
+            assertTrue(false);
+        } catch (IllegalArgumentException e) {
+            assertEquals("No se puede pasar de ACTIVO a ACTIVO", e.getMessage());
+        }
+        proyecto.finalizar("2025-12-05");
+        try {
+            proyecto.finalizar("2025-12-06");
+            assertTrue(false);
+        } catch (IllegalArgumentException e) {
+        }
+        assertEquals(Arrays.asList("PENDIENTE->ACTIVO", "ACTIVO->FINALIZADO"), avisos);
+    }
+
+    @Test
+    public void testIndicesPorEstadoSiguenCadaCambio() throws Exception{
+        HomeSolution sistema=(HomeSolution) homeSolution;
+        assertEquals(2, sistema.cantidadProyectos(Estado.pendiente));
+        assertEquals(0, sistema.cantidadProyectos(Estado.activo));
+
+        homeSolution.asignarResponsableEnTarea(2,"Pintar");
+        assertEquals(1, sistema.cantidadProyectos(Estado.pendiente));
+        assertEquals(1, sistema.cantidadProyectos(Estado.activo));
+        assertEquals(2, (int) homeSolution.proyectosActivos().get(0).getValor1());
+        assertEquals("Libertador 500", homeSolution.proyectosActivos().get(0).getValor2());
+        assertEquals(1, (int) homeSolution.proyectosPendientes().get(0).getValor1());
+
+        homeSolution.finalizarProyecto(2,"2025-12-20");
+        homeSolution.finalizarProyecto(1,"2025-12-20");
+        assertEquals(0, sistema.cantidadProyectos(Estado.pendiente));
+        assertEquals(0, sistema.cantidadProyectos(Estado.activo));
+        assertEquals(2, sistema.cantidadProyectos(Estado.finalizado));
+        assertTrue(homeSolution.proyectosPendientes().isEmpty());
+        assertTrue(homeSolution.proyectosActivos().isEmpty());
+        assertEquals(1, (int) homeSolution.proyectosFinalizados().get(0).getValor1());
+        assertEquals(2, (int) homeSolution.proyectosFinalizados().get(1).getValor1());
+    }
+
+    @Test
+    public void testLibresOrdenadosPorRetrasosYDespuesPorLegajo() throws Exception{
+        asignarTareas(1);
+        homeSolution.registrarRetrasoEnTarea(1,"Pintar",1);
+        homeSolution.registrarRetrasoEnTarea(1,"Trabajos jardineria",1);
+        homeSolution.finalizarProyecto(1,"2025-12-10");
+        assertEquals("[1, 2, 3, 4]", Arrays.toString(homeSolution.empleadosNoAsignados()));
+
+        homeSolution.asignarResponsableMenosRetraso(2,"Pintar");
+        homeSolution.asignarResponsableMenosRetraso(2,"Instalacion electrica");
+        homeSolution.asignarResponsableMenosRetraso(2,"Trabajos jardineria");
+        assertEquals("Pintar", homeSolution.asignacionActual(2).getValor2());
+        assertEquals("Instalacion electrica", homeSolution.asignacionActual(4).getValor2());
+        assertEquals("Trabajos jardineria", homeSolution.asignacionActual(1).getValor2());
+        assertEquals("[3]", Arrays.toString(homeSolution.empleadosNoAsignados()));
+
+        homeSolution.reasignarEmpleadoConMenosRetraso(2,"Pintar");
+        assertEquals("Pintar", homeSolution.asignacionActual(3).getValor2());
+        assertEquals("[2]", Arrays.toString(homeSolution.empleadosNoAsignados()));
+    }
+    @Test
     public void testAsignarElQueTieneMenosRetrasos() throws Exception{
         Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
         asignarTareas(numeroProyecto);
@@ -233,6 +391,332 @@ public class HomeSolutionTest {
 
 
 
+    @Test
+    public void testRetrasoEnOtroProyectoActualizaCosto() throws Exception{
+        Integer primero = homeSolution.proyectosPendientes().get(0).getValor1();
+        Integer segundo = homeSolution.proyectosPendientes().get(1).getValor1();
+        asignarTareas(primero);
+        homeSolution.finalizarTarea(primero, "Instalacion electrica"); // libera a Luis, de planta
+        homeSolution.asignarResponsableEnTarea(segundo, "Pintar");
+        homeSolution.registrarRetrasoEnTarea(segundo, "Pintar", 1);  // Luis pierde el adicional
+        double costo = 15000*8*4 + 80000*2 + 15000*8 + 50000*.5*1.02;
+        assertEquals(costo*1.35, homeSolution.costoProyecto(primero), 0.001);
+    }
+
+    @Test
+    public void testCambioDeValorActualizaCostoDelProyecto() throws Exception{
+        Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
+        asignarTareas(numeroProyecto);
+        HomeSolution sistema = (HomeSolution) homeSolution;
+        sistema.modificarValorEmpleado(1, 20000); // Juan pinta 4 dias
+        double costo = 20000*32 + 80000*2*1.02 + 15000*8 + 50000*.5*1.02;
+        assertEquals(costo*1.35, homeSolution.costoProyecto(numeroProyecto), 0.001);
+        assertEquals("Pintar", sistema.asignacionActual(1).getValor2());
+    }
+
+    @Test
+    public void testAsignarTareasPendientesInformaLasQueQuedanSinEmpleado() throws Exception{
+        List<Tupla<Integer,String>> pendientes=((HomeSolution) homeSolution).asignarTareasPendientes();
+        assertEquals(4, pendientes.size());
+        assertEquals(Integer.valueOf(2), pendientes.get(0).getValor1());
+        assertEquals(0, homeSolution.empleadosNoAsignados().length);
+        assertEquals(1, homeSolution.proyectosActivos().size());
+        assertEquals((15000*32+80000*2*1.02+15000*8+50000*.5*1.02)*1.35, homeSolution.costoProyecto(1), 1e-6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAsignacionOptimaRechazaMatricesDemasiadoGrandes() {
+        new AsignacionOptima(Collections.nCopies(5000, (Tarea) null), Collections.nCopies(5000, (Empleado) null), 0);
+    }
+
+    @Test
+    public void testAsignarTareasOptimoMinimizaElCosto() {
+        HomeSolution sistema=new HomeSolution();
+        sistema.registrarEmpleado("Planta",10000,"INICIAL");
+        sistema.registrarEmpleado("Contratado",100);
+        String titulos[]={"Larga","Corta"};
+        String descripciones[]={"",""};
+        double duracion[]={10,1};
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        sistema.registrarProyecto(titulos,descripciones,duracion,"Mitre 10",cliente,"2025-12-01","2025-12-15");
+
+        assertTrue(sistema.asignarTareasOptimo(0).isEmpty());
+        assertEquals("Larga", sistema.asignacionActual(2).getValor2());
+        assertEquals((100*80+10000*1.02)*1.35, sistema.costoProyecto(1), 1e-6);
+    }
+
+    @Test
+    public void testProyectoFinalizadoPasaADiscoYSeSigueConsultando() throws Exception {
+        HomeSolution sistema=(HomeSolution) homeSolution;
+        Path segmento=Files.createTempFile("homesolution", ".frios");
+        sistema.usarAlmacenFrio(segmento,1);
+        asignarTareas(1);
+        sistema.finalizarProyecto(1,"2025-12-20");
+        double costo=sistema.costoProyecto(1);
+
+        assertEquals(1, sistema.proyectosEnDisco());
+        assertEquals(1, sistema.proyectosFinalizados().size());
+        assertEquals("San Martin 1000", sistema.consultarDomicilioProyecto(1));
+        assertTrue(sistema.estaFinalizado(1));
+        assertEquals(4, sistema.tareasDeUnProyecto(1).length);
+        assertTrue(sistema.consultarProyecto(1).contains(String.format("%.2f", costo)));
+        sistema.modificarValorEmpleado(1,20000);
+        assertEquals(costo, sistema.costoProyecto(1), 1e-6);
+        sistema.cerrarAlmacenFrio();
+        Files.delete(segmento);
+    }
+
+    @Test
+    public void testSegmentoDeFinalizadosSeCompactaAlReescribir() throws Exception {
+        HomeSolution sistema=(HomeSolution) homeSolution;
+        String titulos[]=new String[20];
+        String descripciones[]=new String[20];
+        double duracion[]=new double[20];
+        for (int i=0; i<titulos.length; i++) {
+            titulos[i]="Tarea "+i;
+            descripciones[i]="";
+            duracion[i]=1;
+        }
+        sistema.registrarProyecto(titulos,descripciones,duracion,"Mitre 10",
+                new String[]{"Ana","ana@mail.com","1234"},"2025-12-01","2025-12-05");
+        Path segmento=Files.createTempFile("homesolution", ".frios");
+        sistema.usarAlmacenFrio(segmento,0);
+        sistema.finalizarProyecto(1,"2025-12-10");
+        sistema.finalizarProyecto(3,"2025-12-05");
+        long unaVersion=Files.size(segmento);
+
+        for (String titulo : titulos) {
+            sistema.finalizarTarea(3,titulo);
+        }
+        assertTrue(Files.size(segmento) <= 2*unaVersion);
+        assertEquals(titulos.length, sistema.tareasDeUnProyecto(3).length);
+        assertEquals("Mitre 10", sistema.consultarDomicilioProyecto(3));
+        assertTrue(sistema.consultarProyecto(3).contains("Tarea 19"));
+        assertEquals(4, sistema.tareasDeUnProyecto(1).length);
+        sistema.cerrarAlmacenFrio();
+        Files.delete(segmento);
+    }
+
+    @Test
+    public void testCostoDeFinalizadoNoCambiaConAlmacenFrioNiInstantanea() throws Exception {
+        HomeSolution enMemoria=(HomeSolution) homeSolution;
+        HomeSolution conDisco=new HomeSolution();
+        cargarDatos(conDisco);
+        Path segmento=Files.createTempFile("homesolution", ".frios");
+        Path foto=Files.createTempFile("homesolution", ".foto");
+        conDisco.usarAlmacenFrio(segmento,0);
+
+        double costo=0;
+        for (HomeSolution sistema : Arrays.asList(enMemoria, conDisco)) {
+            for (String titulo : new String[]{"Pintar","Instalacion electrica","Trabajos jardineria","Instalar AA"}) {
+                sistema.asignarResponsableEnTarea(1,titulo);
+            }
+            sistema.finalizarProyecto(1,"2025-12-20");
+            costo=sistema.costoProyecto(1);
+            // Luis (planta) pierde el adicional por un retraso en otro proyecto
+            sistema.asignarResponsableEnTarea(2,"Pintar");
+            sistema.reasignarEmpleadoEnProyecto(2,2,"Pintar");
+            sistema.registrarRetrasoEnTarea(2,"Pintar",1);
+        }
+        assertEquals(costo, enMemoria.costoProyecto(1), 1e-6);
+        assertEquals(costo, conDisco.costoProyecto(1), 1e-6);
+
+        enMemoria.guardarInstantanea(foto);
+        assertEquals(costo, HomeSolution.cargarInstantanea(foto).costoProyecto(1), 1e-6);
+        conDisco.guardarInstantanea(foto);
+        assertEquals(costo, HomeSolution.cargarInstantanea(foto).costoProyecto(1), 1e-6);
+        conDisco.cerrarAlmacenFrio();
+        Files.delete(segmento);
+        Files.delete(foto);
+    }
+
+    @Test
+    public void testFechasEnAmbosFormatosYOrdenPorFechaEstimada() {
+        HomeSolution sistema=(HomeSolution) homeSolution;
+        String titulos[]={"Pintar"};
+        sistema.registrarProyecto(titulos,new String[]{""},new double[]{1},"Mitre 10",
+                new String[]{"Ana","ana@mail.com","1234"},"20/11/2025","30/11/2025");
+
+        assertEquals("2025-11-30", sistema.consultarProyecto(3).split("Fecha estimada: ")[1].substring(0,10));
+        assertEquals(Arrays.asList(3,1,2), Arrays.asList(Arrays.stream(sistema.proyectosPorFechaEstimada()).boxed().toArray()));
+    }
+
+    @Test
+    public void testFechaIdaYVueltaPorDiaEpoca() {
+        assertEquals(0, new Fecha(1,1,1970).getDiaEpoca());
+        assertEquals(-1, new Fecha(31,12,1969).getDiaEpoca());
+        assertEquals(-719162, new Fecha(1,1,1).getDiaEpoca());
+        assertEquals("29/02/2024", Fecha.deDiaEpoca(new Fecha(29,2,2024).getDiaEpoca()).toString());
+        assertEquals("29/02/2000", Fecha.deDiaEpoca(new Fecha(29,2,2000).getDiaEpoca()).toString());
+        assertEquals("01/03/1900", new Fecha(28,2,1900).sumarDias(1).toString());
+        assertEquals("01/03/2024", new Fecha(28,2,2024).sumarDias(2).toString());
+        assertEquals(366, new Fecha(1,1,2024).diasHasta(new Fecha(1,1,2025)));
+
+        Fecha anterior=Fecha.deDiaEpoca(-800);
+        for (int dia=-800; dia<=300000; dia+=37) {
+            Fecha fecha=Fecha.deDiaEpoca(dia);
+            assertEquals(dia, new Fecha(fecha.getDia(),fecha.getMes(),fecha.getAnio()).getDiaEpoca());
+            assertEquals(dia, Fecha.diaEpocaDeTexto(Fecha.textoIso(dia)));
+            assertEquals(dia, Fecha.desdeTexto(fecha.toString()).getDiaEpoca());
+            assertEquals(dia, anterior.sumarDias(anterior.diasHasta(fecha)).getDiaEpoca());
+            assertEquals(anterior.getDiaEpoca(), fecha.restarDias(anterior.diasHasta(fecha)).getDiaEpoca());
+            anterior=fecha;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFechaAntesDelAnioUnoSeRechaza() {
+        Fecha.deDiaEpoca(-719163);
+    }
+
+    @Test
+    public void testFechaConAnioFueraDeRangoSeRechaza() {
+        Fecha ultima=Fecha.deDiaEpoca(Integer.MAX_VALUE-719468);
+        assertEquals(ultima.getDiaEpoca(), new Fecha(ultima.getDia(),ultima.getMes(),ultima.getAnio()).getDiaEpoca());
+        try {
+            new Fecha(1,1,Integer.MAX_VALUE);
+            assertTrue(false);
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            new Fecha(1,1,ultima.getAnio()+1);
+            assertTrue(false);
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testProyectosEntreFechasPorSuperposicion() throws Exception {
+        List<Tupla<Integer,String>> enCurso=homeSolution.proyectosEntre("2025-12-05","2025-12-05");
+        assertEquals(1, enCurso.size());
+        assertEquals("San Martin 1000", enCurso.get(0).getValor2());
+        assertTrue(homeSolution.proyectosEntre("2025-12-06","2025-12-09").isEmpty());
+
+        homeSolution.finalizarProyecto(1,"2025-12-08");
+        assertEquals(1, homeSolution.proyectosEntre("06/12/2025","09/12/2025").size());
+        assertEquals(2, homeSolution.proyectosEntre("2025-12-08","2025-12-31").size());
+        assertEquals(Integer.valueOf(2), homeSolution.proyectosEntre("2025-12-09","2025-12-10").get(0).getValor1());
+    }
+
+    @Test
+    public void testEmpleadosDisponiblesSegunLasTareasReservadas() throws Exception {
+        HomeSolution sistema=(HomeSolution) homeSolution;
+        sistema.asignarResponsableEnTarea(1,"Pintar");
+
+        assertEquals("[2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-12-03","2025-12-04")));
+        assertEquals("[1, 2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-12-05","2025-12-10")));
+        assertEquals("[2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-01-01","2026-12-31")));
+
+        sistema.registrarRetrasoEnTarea(1,"Pintar",2);
+        assertEquals("[2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-12-06","2025-12-07")));
+        assertEquals(4, sistema.empleadosDisponibles("2025-12-07","2025-12-08").length);
+    }
+
+    @Test
+    public void testReservaLejanaNoBorraLasDeOtrosEmpleados() throws Exception {
+        HomeSolution sistema=(HomeSolution) homeSolution;
+        sistema.asignarResponsableEnTarea(1,"Pintar");
+        String titulos[]={"Techo"};
+        String descripciones[]={""};
+        double duracion[]={3};
+        String cliente[]={"Ana Diaz", "mail@mail.com", "123456"};
+        sistema.registrarProyecto(titulos,descripciones,duracion,"Belgrano 20",cliente,"2029-01-01","2029-01-10");
+        sistema.asignarResponsableEnTarea(3,"Techo");
+
+        assertEquals("[2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-12-01","2025-12-04")));
+        assertEquals("[1, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2029-01-01","2029-01-03")));
+    }
+
+    @Test
+    public void testSoloLasTareasEnCursoReservanDias() throws Exception {
+        HomeSolution sistema=(HomeSolution) homeSolution;
+        sistema.asignarResponsableEnTarea(1,"Pintar");
+        sistema.asignarResponsableEnTarea(1,"Instalar AA");
+        sistema.asignarResponsableEnTarea(2,"Pintar");
+        sistema.finalizarTarea(1,"Pintar");
+        assertEquals("[1, 2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-12-03","2025-12-04")));
+
+        sistema.reasignarEmpleadoEnProyecto(2,1,"Pintar");
+        assertEquals("[2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-12-10","2025-12-11")));
+
+        sistema.finalizarProyecto(2,"2025-12-20");
+        assertEquals("[1, 2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-12-10","2025-12-11")));
+    }
+
+    @Test
+    public void testFinalizarTareaViejaNoBorraLaReservaActual() throws Exception {
+        HomeSolution sistema=(HomeSolution) homeSolution;
+        sistema.asignarResponsableEnTarea(1,"Pintar");
+        sistema.finalizarProyecto(1,"2025-12-10");
+        sistema.asignarResponsableEnTarea(2,"Pintar");
+        assertEquals("[2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-12-10","2025-12-12")));
+
+        sistema.finalizarTarea(1,"Pintar");
+        assertEquals(2, (int) sistema.asignacionActual(1).getValor1());
+        assertEquals("[2, 3, 4]", Arrays.toString(sistema.empleadosDisponibles("2025-12-10","2025-12-12")));
+    }
+
+    @Test
+    public void testRecorrerDevuelveLasMismasFilasQueLosListados() throws Exception {
+        HomeSolution sistema=(HomeSolution) homeSolution;
+        sistema.asignarResponsableEnTarea(1,"Pintar");
+        sistema.asignarResponsableEnTarea(1,"Instalar AA");
+        StringBuilder empleados=new StringBuilder();
+        StringBuilder asignados=new StringBuilder();
+        StringBuilder activos=new StringBuilder();
+        sistema.recorrerEmpleados((legajo,nombre) -> empleados.append(legajo).append(nombre));
+        sistema.recorrerEmpleadosAsignados(1,(legajo,nombre) -> asignados.append(legajo).append(nombre));
+        sistema.recorrerProyectos(Estado.activo,(numero,domicilio) -> activos.append(numero).append(domicilio));
+
+        assertEquals("1Juan2Luis3Julieta4Carlos", empleados.toString());
+        assertEquals("1Juan2Luis", asignados.toString());
+        assertEquals("1San Martin 1000", activos.toString());
+    }
+
+    @Test
+    public void testInstrumentadaCuentaLlamadasYErroresPorTipo() throws Exception {
+        HomeSolutionInstrumentada instrumentada=new HomeSolutionInstrumentada(homeSolution);
+        asignarTareas(1);
+        instrumentada.costoProyecto(1);
+        try {
+            instrumentada.asignarResponsableEnTarea(2,"Pintar");
+        } catch (Exception e) {
+        }
+
+        assertEquals(2, instrumentada.getLlamadas());
+        assertEquals(1, instrumentada.llamadas(Operacion.ASIGNAR_RESPONSABLE));
+        assertEquals(1, instrumentada.getErrores());
+        assertTrue(instrumentada.getErroresPorTipo()[0].startsWith("ASIGNAR_RESPONSABLE Exception: No hay empleados"));
+        assertTrue(instrumentada.percentil("COSTO_PROYECTO",0.5) > 0);
+        assertTrue(instrumentada.getVolcado().contains("COSTO_PROYECTO"));
+    }
+
+    @Test
+    public void testEventosJfrDeAsignacionCostoYEstado() throws Exception {
+        Path archivo=Files.createTempFile("homesolution", ".jfr");
+        try (Recording grabacion=new Recording()) {
+            grabacion.enable("homesolution.Asignacion");
+            grabacion.enable("homesolution.Costo");
+            grabacion.enable("homesolution.Estado");
+            grabacion.start();
+            homeSolution.asignarResponsableEnTarea(1,"Pintar");
+            grabacion.stop();
+            grabacion.dump(archivo);
+        }
+        List<RecordedEvent> eventos=RecordingFile.readAllEvents(archivo);
+        Files.delete(archivo);
+
+        RecordedEvent asignacion=eventos.stream().filter(e -> e.getEventType().getName().equals("homesolution.Asignacion")).findFirst().get();
+        assertEquals(1, asignacion.getInt("numero"));
+        assertEquals("Pintar", asignacion.getString("titulo"));
+        assertEquals(1, asignacion.getInt("legajo"));
+        assertEquals(4, asignacion.getInt("libres"));
+        assertTrue(eventos.stream().anyMatch(e -> e.getEventType().getName().equals("homesolution.Estado")
+                && e.getString("nuevo").equals("activo") && e.getString("titulo").equals("Pintar")));
+        assertTrue(eventos.stream().anyMatch(e -> e.getEventType().getName().equals("homesolution.Costo")
+                && e.getInt("legajo") == 1));
+    }
+
     private void asignarTareas(Integer numeroProyecto) throws Exception{
         homeSolution.asignarResponsableEnTarea(numeroProyecto,"Pintar");
         homeSolution.asignarResponsableEnTarea(numeroProyecto,"Instalacion electrica");